@@ -0,0 +1,298 @@
+package application;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Round-trip check of the CatalogJournal: changes a catalog while it is recorded by a journal, then reopens the
+ * journal into a new catalog and checks that it holds the same triangles in the same order, with the same inputs,
+ * degree mode and triangle type. Checks, each on a new journal in a temporary directory:
+ * - seeded random adds and removes (60,000 and 20,000 by default), which also compact the journal while recording
+ * - an incomplete record at the end of the journal, as left by the program being closed while writing it
+ * - clearing the catalog
+ * - inputs longer than 65535 bytes in UTF-8
+ * - a triangle which is not valid when restored, which must be removed from the journal
+ * - a triangle added to the catalog before the journal was restored (while it is read in the background)
+ *
+ * Run with the number of adds, removes and the seed as arguments, patching it into the program's module from
+ * bin-bench, the same as TriangleBenchmark:
+ * java -p bin:$PATH_TO_FX --patch-module AlanYongProjectVMClone=bin-bench -m AlanYongProjectVMClone/application.CatalogJournalRoundTrip 60000 20000 1
+ * Exits with status 1 if any check fails.
+ */
+public class CatalogJournalRoundTrip {
+	private static final double CANVAS_WIDTH = 400, CANVAS_HEIGHT = 300;
+	private static final InfoKey[] INPUTS = {InfoKey.HYPOTENUSE_INPUT, InfoKey.OPPOSITE_INPUT, InfoKey.ADJACENT_INPUT, InfoKey.ANGLE_INPUT};
+
+	private static int failures;
+
+	public static void main(String[] args) throws IOException {
+		int adds = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 60_000;
+		int removes = args.length > 1 ? Integer.parseInt(args[1].replace("_", "")) : 20_000;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+		Path directory = Files.createTempDirectory("catalog-journal");
+		try {
+			checkAddsAndRemoves(directory.resolve("random.journal"), adds, removes, seed);
+			checkIncompleteRecord(directory.resolve("incomplete.journal"));
+			checkClear(directory.resolve("clear.journal"));
+			checkLongInputs(directory.resolve("long.journal"));
+			checkInvalidTriangle(directory.resolve("invalid.journal"));
+			checkAddedBeforeRestore(directory.resolve("before.journal"));
+		} finally {
+			try(Stream<Path> journals = Files.list(directory)) {
+				for(Path journal : (Iterable<Path>) journals::iterator) Files.delete(journal);
+			}
+			Files.delete(directory);
+		}
+
+		System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+		if(failures > 0) System.exit(1);
+	}
+
+	private static void checkAddsAndRemoves(Path path, int adds, int removes, long seed) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed);
+		TriangleCatalog catalog = new TriangleCatalog();
+		CatalogJournal journal = open(path, catalog);
+		//the triangles expected in the catalog, in the order they were added
+		List<Triangle> expected = new ArrayList<Triangle>();
+		long start = System.nanoTime();
+		for(int added = 0, removed = 0; added < adds || removed < removes; ) {
+			//removing at the rate needed to finish both together, from random positions in the catalog
+			boolean remove = removed < removes && !expected.isEmpty()
+					&& (added == adds || random.nextInt(adds + removes) < removes);
+			if(remove) {
+				catalog.removeTriangle(expected.remove(random.nextInt(expected.size())));
+				removed++;
+			} else {
+				Triangle triangle = randomTriangle(random, added);
+				catalog.addTriangle(triangle);
+				expected.add(triangle);
+				added++;
+			}
+		}
+		journal.close();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%,d adds and %,d removes recorded in %.2f s, journal is %,d bytes%n", adds, removes, seconds, Files.size(path));
+
+		start = System.nanoTime();
+		TriangleCatalog restored = new TriangleCatalog();
+		open(path, restored).close();
+		System.out.printf("%,d triangles restored in %.2f s%n", restored.getListSize(), (System.nanoTime() - start) / 1e9);
+		check("adds and removes", expected, restored);
+	}
+
+	private static void checkIncompleteRecord(Path path) throws IOException {
+		TriangleCatalog catalog = new TriangleCatalog();
+		CatalogJournal journal = open(path, catalog);
+		List<Triangle> expected = new ArrayList<Triangle>();
+		SplittableRandom random = new SplittableRandom(2);
+		for(int i = 0; i < 100; i++) {
+			Triangle triangle = randomTriangle(random, i);
+			catalog.addTriangle(triangle);
+			expected.add(triangle);
+		}
+		journal.close();
+		long completeLength = Files.size(path);
+
+		//the start of a record: it's length, then only some of it's contents
+		try(RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+			file.seek(completeLength);
+			file.writeInt(40);
+			file.write(new byte[] {'A', 0, 0, 0});
+		}
+		TriangleCatalog restored = new TriangleCatalog();
+		journal = open(path, restored);
+		check("incomplete record", expected, restored);
+		if(Files.size(path) != completeLength) fail("incomplete record", "the incomplete record was not cut off the journal");
+
+		//records added after the incomplete record must be read back too
+		Triangle added = randomTriangle(random, 100);
+		restored.addTriangle(added);
+		expected.add(added);
+		journal.close();
+		TriangleCatalog reopened = new TriangleCatalog();
+		open(path, reopened).close();
+		check("record after incomplete record", expected, reopened);
+	}
+
+	private static void checkClear(Path path) throws IOException {
+		TriangleCatalog catalog = new TriangleCatalog();
+		CatalogJournal journal = open(path, catalog);
+		SplittableRandom random = new SplittableRandom(3);
+		for(int i = 0; i < 50; i++) catalog.addTriangle(randomTriangle(random, i));
+		catalog.clear();
+		List<Triangle> expected = new ArrayList<Triangle>();
+		for(int i = 50; i < 60; i++) {
+			Triangle triangle = randomTriangle(random, i);
+			catalog.addTriangle(triangle);
+			expected.add(triangle);
+		}
+		journal.close();
+		TriangleCatalog restored = new TriangleCatalog();
+		open(path, restored).close();
+		check("clear", expected, restored);
+	}
+
+	private static void checkLongInputs(Path path) throws IOException {
+		TriangleCatalog catalog = new TriangleCatalog();
+		CatalogJournal journal = open(path, catalog);
+		//70,000 characters of 2 and 3 bytes each in UTF-8, so the inputs are well over 65535 bytes
+		String longName = "θ".repeat(35_000) + "√".repeat(35_000);
+		List<Triangle> expected = new ArrayList<Triangle>();
+		expected.add(TriangleCache.create(true, longName, "o" + longName, "", "", true, CANVAS_WIDTH, CANVAS_HEIGHT));
+		//a number written with 100,000 leading zeros
+		expected.add(TriangleCache.create(false, "0".repeat(100_000) + "5", "3", "", "", false, CANVAS_WIDTH, CANVAS_HEIGHT));
+		expected.add(TriangleCache.create(false, "13", "5", "", "", true, CANVAS_WIDTH, CANVAS_HEIGHT));
+		for(Triangle triangle : expected) catalog.addTriangle(triangle);
+		journal.close();
+		TriangleCatalog restored = new TriangleCatalog();
+		open(path, restored).close();
+		check("long inputs", expected, restored);
+	}
+
+	private static void checkInvalidTriangle(Path path) throws IOException {
+		TriangleCatalog catalog = new TriangleCatalog();
+		CatalogJournal journal = open(path, catalog);
+		List<Triangle> expected = new ArrayList<Triangle>();
+		expected.add(TriangleCache.create(false, "5", "3", "", "", true, CANVAS_WIDTH, CANVAS_HEIGHT));
+		//the catalog does not check the triangles added to it, so a triangle with an error is saved like any other
+		Triangle invalid = TriangleCache.create(false, "3", "5", "", "", true, CANVAS_WIDTH, CANVAS_HEIGHT);
+		if(invalid.getErrorDescription().isEmpty()) fail("invalid triangle", "a leg longer than the hypotenuse was accepted");
+		catalog.addTriangle(expected.get(0));
+		catalog.addTriangle(invalid);
+		journal.close();
+		long lengthWithInvalid = Files.size(path);
+
+		TriangleCatalog restored = new TriangleCatalog();
+		open(path, restored).close();
+		check("invalid triangle", expected, restored);
+		if(Files.size(path) <= lengthWithInvalid) fail("invalid triangle", "no record removing the invalid triangle was written");
+
+		//the removal must be read back, leaving only the valid triangle in the journal
+		TriangleCatalog reopened = new TriangleCatalog();
+		open(path, reopened).close();
+		check("invalid triangle reopened", expected, reopened);
+		long lengthAfterReopen = Files.size(path);
+		TriangleCatalog again = new TriangleCatalog();
+		open(path, again).close();
+		if(Files.size(path) != lengthAfterReopen) fail("invalid triangle", "the invalid triangle was removed again on every reopen");
+	}
+
+	private static void checkAddedBeforeRestore(Path path) throws IOException {
+		TriangleCatalog catalog = new TriangleCatalog();
+		CatalogJournal journal = open(path, catalog);
+		List<Triangle> expected = new ArrayList<Triangle>();
+		SplittableRandom random = new SplittableRandom(4);
+		for(int i = 0; i < 5; i++) {
+			Triangle triangle = randomTriangle(random, i);
+			catalog.addTriangle(triangle);
+			expected.add(triangle);
+		}
+		journal.close();
+
+		TriangleCatalog restored = new TriangleCatalog();
+		Triangle addedFirst = randomTriangle(random, 5);
+		restored.addTriangle(addedFirst);
+		open(path, restored).close();
+		//the triangle added first is moved after the restored triangles, where it is saved
+		expected.add(addedFirst);
+		check("added before restore", expected, restored);
+		TriangleCatalog reopened = new TriangleCatalog();
+		open(path, reopened).close();
+		check("added before restore reopened", expected, reopened);
+	}
+
+	/**
+	 * Opens the journal at the path and restores the triangles saved in it into the catalog.
+	 */
+	private static CatalogJournal open(Path path, TriangleCatalog catalog) throws IOException {
+		CatalogJournal journal = new CatalogJournal(path);
+		journal.restore(catalog, CANVAS_WIDTH, CANVAS_HEIGHT);
+		return journal;
+	}
+
+	/**
+	 * Creates a valid triangle from two random known values, written in a few different ways, in a random angle mode.
+	 * One in eight is a formula triangle, named after it's number so each has different inputs.
+	 */
+	private static Triangle randomTriangle(SplittableRandom random, int number) {
+		boolean degrees = random.nextBoolean();
+		boolean formula = random.nextInt(8) == 0;
+		String[] inputs = {"", "", "", ""};
+		if(formula) {
+			inputs[0] = "h" + number;
+			inputs[1 + random.nextInt(3)] = "x" + number;
+		} else {
+			//at least 10 long, so no side length is rounded to 0 or to the length of the hypotenuse
+			double hyp = 10 + random.nextDouble() * 1000;
+			switch(random.nextInt(3)) {
+			case 0:
+				inputs[0] = format(random, hyp);
+				inputs[1] = format(random, hyp * (0.05 + random.nextDouble() * 0.85));
+				break;
+			case 1:
+				inputs[1] = format(random, hyp);
+				inputs[2] = format(random, hyp * (0.05 + random.nextDouble() * 10));
+				break;
+			default:
+				double angle = degrees ? 1 + random.nextDouble() * 88 : 0.02 + random.nextDouble() * 1.5;
+				inputs[random.nextInt(3)] = format(random, hyp);
+				//angles are not rounded, as they would be rounded out of range
+				inputs[3] = Double.toString(angle);
+			}
+		}
+		Triangle triangle = TriangleCache.create(formula, inputs[0], inputs[1], inputs[2], inputs[3], degrees, CANVAS_WIDTH, CANVAS_HEIGHT);
+		if(!triangle.getErrorDescription().isEmpty()) throw new IllegalStateException("Random triangle " + number + " is not valid: "
+				+ triangle.getErrorDescription());
+		return triangle;
+	}
+
+	private static String format(SplittableRandom random, double value) {
+		switch(random.nextInt(3)) {
+		case 0: return Double.toString(value);
+		case 1: return String.format("%.2f", value);
+		default: return Long.toString(Math.round(value));
+		}
+	}
+
+	/**
+	 * Checks that the catalog holds the expected triangles, in order, with the same inputs, degree mode and type.
+	 */
+	private static void check(String name, List<Triangle> expected, TriangleCatalog catalog) {
+		if(catalog.getListSize() != expected.size()) {
+			fail(name, "expected " + expected.size() + " triangles but " + catalog.getListSize() + " were restored");
+			return;
+		}
+		for(int i = 0; i < expected.size(); i++) {
+			Triangle wanted = expected.get(i), actual = catalog.getTriangle(i);
+			boolean same = wanted.getClass() == actual.getClass() && wanted.getDegreeMode() == actual.getDegreeMode();
+			for(InfoKey input : INPUTS) same &= wanted.getInfo(input).equals(actual.getInfo(input));
+			if(!same) {
+				fail(name, "triangle " + i + " was restored as " + describe(actual) + " rather than " + describe(wanted));
+				return;
+			}
+		}
+		System.out.println(name + ": " + expected.size() + " triangles restored correctly");
+	}
+
+	private static String describe(Triangle triangle) {
+		StringBuilder description = new StringBuilder(triangle instanceof FormulaTriangle ? "formula" : "numeric");
+		description.append(triangle.getDegreeMode() ? " degrees" : " radians");
+		for(InfoKey input : INPUTS) {
+			String text = triangle.getInfo(input);
+			description.append(" \"").append(text.length() > 20 ? text.substring(0, 20) + "...(" + text.length() + ")" : text).append('"');
+		}
+		return description.toString();
+	}
+
+	private static void fail(String name, String reason) {
+		failures++;
+		System.out.println(name + ": FAILED, " + reason);
+	}
+}
@@ -0,0 +1,167 @@
+package application;
+
+/**
+ * Immutable number stored as the unevaluated sum of two doubles, giving about 106 bits (32 decimal digits) of
+ * precision. Only used as a reference for checking the accuracy of the solvers, so the operations favour
+ * being simple and accurate over being fast. Every operation is accurate to well under one ulp of a double.
+ */
+final class DoubleDouble {
+	static final DoubleDouble ZERO = new DoubleDouble(0, 0);
+	static final DoubleDouble ONE = new DoubleDouble(1, 0);
+	static final DoubleDouble PI = new DoubleDouble(3.141592653589793, 1.2246467991473532e-16);
+	static final DoubleDouble HALF_PI = new DoubleDouble(1.5707963267948966, 6.123233995736766e-17);
+	static final DoubleDouble DEGREES_TO_RADIANS = PI.divide(valueOf(180));
+	static final DoubleDouble RADIANS_TO_DEGREES = valueOf(180).divide(PI);
+
+	/**Terms of the sin and cos series smaller than this, relative to the sum, are too small to change it*/
+	private static final double SERIES_EPSILON = 1e-34;
+
+	final double hi, lo;
+
+	private DoubleDouble(double hi, double lo) {
+		this.hi = hi;
+		this.lo = lo;
+	}
+
+	/**
+	 * @return the double as a DoubleDouble, exactly
+	 */
+	static DoubleDouble valueOf(double value) {
+		return new DoubleDouble(value, 0);
+	}
+
+	/**
+	 * Adds two doubles whose sum is known to be smaller than the first, without losing any precision.
+	 */
+	private static DoubleDouble quickTwoSum(double a, double b) {
+		double sum = a + b;
+		return new DoubleDouble(sum, b - (sum - a));
+	}
+
+	DoubleDouble add(DoubleDouble other) {
+		double sum = hi + other.hi;
+		double virtual = sum - hi;
+		//the part of both high parts lost when they were added
+		double error = (hi - (sum - virtual)) + (other.hi - virtual);
+		return quickTwoSum(sum, error + lo + other.lo);
+	}
+
+	DoubleDouble negate() {
+		return new DoubleDouble(-hi, -lo);
+	}
+
+	DoubleDouble subtract(DoubleDouble other) {
+		return add(other.negate());
+	}
+
+	DoubleDouble multiply(DoubleDouble other) {
+		double product = hi * other.hi;
+		//the exact rounding error of the product of the high parts
+		double error = Math.fma(hi, other.hi, -product);
+		return quickTwoSum(product, error + hi * other.lo + lo * other.hi);
+	}
+
+	DoubleDouble divide(DoubleDouble other) {
+		//long division, one double of the quotient at a time
+		double q1 = hi / other.hi;
+		DoubleDouble remainder = subtract(other.multiply(valueOf(q1)));
+		double q2 = remainder.hi / other.hi;
+		remainder = remainder.subtract(other.multiply(valueOf(q2)));
+		double q3 = remainder.hi / other.hi;
+		return quickTwoSum(q1, q2).add(valueOf(q3));
+	}
+
+	DoubleDouble abs() {
+		return hi < 0 ? negate() : this;
+	}
+
+	DoubleDouble square() {
+		return multiply(this);
+	}
+
+	/**
+	 * @return the square root, or NaN if the value is negative
+	 */
+	DoubleDouble sqrt() {
+		if(hi <= 0) return hi == 0 ? ZERO : valueOf(Double.NaN);
+		//one Newton step from the double square root doubles the number of correct bits
+		double root = Math.sqrt(hi);
+		DoubleDouble remainder = subtract(valueOf(root).square());
+		return quickTwoSum(root, remainder.hi / (2 * root));
+	}
+
+	/**
+	 * @return the sine, for angles between -π and π (in radians)
+	 */
+	DoubleDouble sin() {
+		//x - x³/3! + x⁵/5! - ...
+		DoubleDouble xSquared = square().negate();
+		DoubleDouble term = this, sum = this;
+		for(int n = 2; Math.abs(term.hi) > SERIES_EPSILON * Math.abs(sum.hi); n += 2) {
+			term = term.multiply(xSquared).divide(valueOf((double) n * (n + 1)));
+			sum = sum.add(term);
+		}
+		return sum;
+	}
+
+	/**
+	 * @return the cosine, for angles between -π and π (in radians)
+	 */
+	DoubleDouble cos() {
+		//1 - x²/2! + x⁴/4! - ...
+		DoubleDouble xSquared = square().negate();
+		DoubleDouble term = ONE, sum = ONE;
+		for(int n = 1; Math.abs(term.hi) > SERIES_EPSILON * Math.abs(sum.hi); n += 2) {
+			term = term.multiply(xSquared).divide(valueOf((double) n * (n + 1)));
+			sum = sum.add(term);
+		}
+		return sum;
+	}
+
+	DoubleDouble tan() {
+		return sin().divide(cos());
+	}
+
+	/**
+	 * @return the arctangent, in radians
+	 */
+	DoubleDouble atan() {
+		if(hi < 0) return negate().atan().negate();
+		//atan(x) = π/2 - atan(1/x), keeping the Newton step below away from π/2 where cos is close to 0
+		if(hi > 1) return HALF_PI.subtract(ONE.divide(this).atan());
+		//one Newton step on sin(z) - x*cos(z) = 0 from the double arctangent
+		DoubleDouble z = valueOf(Math.atan(hi));
+		DoubleDouble sin = z.sin(), cos = z.cos();
+		DoubleDouble step = sin.subtract(multiply(cos)).divide(cos.add(multiply(sin)));
+		return z.subtract(step);
+	}
+
+	/**
+	 * @return the arcsine in radians, or NaN if the value is not between -1 and 1
+	 */
+	DoubleDouble asin() {
+		DoubleDouble cos = ONE.subtract(square()).sqrt();
+		if(Double.isNaN(cos.hi)) return cos;
+		if(cos.hi == 0) return hi < 0 ? HALF_PI.negate() : HALF_PI;
+		return divide(cos).atan();
+	}
+
+	/**
+	 * @return the arccosine in radians, or NaN if the value is not between -1 and 1
+	 */
+	DoubleDouble acos() {
+		return HALF_PI.subtract(asin());
+	}
+
+	/**
+	 * @return the closest double to the value
+	 */
+	double doubleValue() {
+		return hi + lo;
+	}
+
+	@Override
+	public String toString() {
+		return new java.math.BigDecimal(hi).add(new java.math.BigDecimal(lo)).round(new java.math.MathContext(34)).toString();
+	}
+}
@@ -0,0 +1,110 @@
+package application;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Startup benchmark, measuring the time from starting the JVM to the first frame of the program (see StartupTimer).
+ * The program is started repeatedly in new JVMs, each of which exits after it's first frame, without class data
+ * sharing, with the JDK's default archive, and with the archive of the program made by cds/build-archive.sh if it
+ * exists. The median and minimum time to reach each point of the startup are reported for each.
+ *
+ * Needs a display, and must be run with the program as a jar on the module path, as class data sharing can not
+ * be used with classes in directories. The program started is not patched with the benchmarks:
+ * java -p build/triangle.jar:$PATH_TO_FX --patch-module AlanYongProjectVMClone=bin-bench -m AlanYongProjectVMClone/application.StartupBenchmark
+ * The system properties startup.runs (default 10) and startup.archive (default cds/triangle.jsa) change the number
+ * of runs of each configuration and the archive of the program used. Each run is given a journal in a temporary
+ * directory, so the catalog saved in the user's home directory is neither read nor changed.
+ */
+public class StartupBenchmark {
+	private static final int RUNS = Integer.getInteger("startup.runs", 10);
+	private static final String ARCHIVE = System.getProperty("startup.archive", "cds/triangle.jsa");
+
+	/**A point of the startup printed by StartupTimer, ie. "first frame 812 ms"*/
+	private static final Pattern POINT = Pattern.compile("([a-z ]+) (\\d+) ms");
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Map<String, List<String>> configurations = new LinkedHashMap<String, List<String>>();
+		configurations.put("no sharing", Arrays.asList("-Xshare:off"));
+		configurations.put("JDK archive", Arrays.asList());
+		if(new File(ARCHIVE).isFile()) configurations.put("app archive", Arrays.asList("-XX:SharedArchiveFile=" + ARCHIVE));
+		else System.out.println("No archive at " + ARCHIVE + ", run cds/build-archive.sh to also measure it");
+
+		Path journalDirectory = Files.createTempDirectory("startup-benchmark");
+		try {
+			System.out.printf("%-14s %-14s %10s %10s%n", "Configuration", "Point", "median ms", "min ms");
+			for(Map.Entry<String, List<String>> configuration : configurations.entrySet()) {
+				//times taken to reach each point of the startup, in every run
+				Map<String, long[]> times = new LinkedHashMap<String, long[]>();
+				for(int run = 0; run < RUNS; run++) {
+					Path journal = journalDirectory.resolve("catalog" + run + ".journal");
+					for(Map.Entry<String, Long> point : startProgram(configuration.getValue(), journal).entrySet()) {
+						times.computeIfAbsent(point.getKey(), name -> new long[RUNS])[run] = point.getValue();
+					}
+				}
+				for(Map.Entry<String, long[]> point : times.entrySet()) {
+					long[] sorted = point.getValue().clone();
+					Arrays.sort(sorted);
+					System.out.printf("%-14s %-14s %10d %10d%n", configuration.getKey(), point.getKey(), sorted[RUNS / 2], sorted[0]);
+				}
+			}
+		} finally {
+			try(Stream<Path> journals = Files.list(journalDirectory)) {
+				for(Path journal : (Iterable<Path>) journals::iterator) Files.delete(journal);
+			}
+			Files.delete(journalDirectory);
+		}
+	}
+
+	/**
+	 * Starts the program in a new JVM with the same module path or class path as this one, and waits for it to exit
+	 * after it's first frame.
+	 * @param options - extra options of the new JVM
+	 * @param journal - path of the journal the program should use
+	 * @return time taken to reach each point of the startup, in milliseconds, in the order they were reached
+	 * @throws IOException if the program could not be started or did not print the time of it's startup
+	 */
+	private static Map<String, Long> startProgram(List<String> options, Path journal) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<String>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(options);
+		command.add("-Dtriangle.startupTiming=true");
+		command.add("-Dtriangle.exitAfterFirstFrame=true");
+		command.add("-Dtriangle.journal=" + journal);
+		String modulePath = System.getProperty("jdk.module.path");
+		if(modulePath != null) {
+			command.addAll(Arrays.asList("-p", modulePath, "-m", "AlanYongProjectVMClone/application.Main"));
+		} else {
+			command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), "application.Main"));
+		}
+
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		Map<String, Long> points = new LinkedHashMap<String, Long>();
+		StringBuilder output = new StringBuilder();
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			for(String line = reader.readLine(); line != null; line = reader.readLine()) {
+				output.append(line).append(System.lineSeparator());
+				if(!line.startsWith("startup: ")) continue;
+				Matcher matcher = POINT.matcher(line);
+				while(matcher.find()) points.put(matcher.group(1).trim(), Long.parseLong(matcher.group(2)));
+			}
+		}
+		int exitCode = process.waitFor();
+		if(points.isEmpty()) throw new IOException("The program exited with code " + exitCode + " without printing it's startup time:"
+				+ System.lineSeparator() + output);
+		return points;
+	}
+}
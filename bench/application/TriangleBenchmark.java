@@ -0,0 +1,263 @@
+package application;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark suite for the paths that the rest of the program depends on: triangle construction for
+ * each pair of inputs in both angle modes, input validation, formula triangles, preparing triangles
+ * for a canvas, and catalog navigation. Every benchmark reports its throughput and the number of
+ * bytes allocated per operation, so that performance changes can be checked against a number.
+ * 
+ * Run with the names (or parts of names) of the benchmarks to run as arguments, or none to run all. The benchmarks
+ * are compiled into bin-bench rather than bin, so they are not part of the program, and are run by patching them
+ * into the program's module:
+ * java -p bin:$PATH_TO_FX --patch-module AlanYongProjectVMClone=bin-bench -m AlanYongProjectVMClone/application.TriangleBenchmark construct catalog
+ * The system properties bench.warmupMillis, bench.measureMillis and bench.iterations change how long
+ * each benchmark is run for. The construct benchmarks never go through the TriangleCache.
+ */
+public class TriangleBenchmark {
+	private static final long WARMUP_MILLIS = Long.getLong("bench.warmupMillis", 2000);
+	private static final long MEASURE_MILLIS = Long.getLong("bench.measureMillis", 1000);
+	private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+
+	/**Size of the main canvas in GUI.fxml, and of the thumbnails in the catalog*/
+	private static final double MAIN_WIDTH = 370, MAIN_HEIGHT = 200, THUMBNAIL_SIZE = 80;
+
+	/**Results of every operation are stored here so that the JIT can not remove the work done*/
+	static final Object[] BLACKHOLE = new Object[16];
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	/**com.sun.management.ThreadMXBean.getThreadAllocatedBytes(long), found at run time, as the program's module
+	 * does not read jdk.management, and the benchmarks are compiled into it*/
+	private static final MethodHandle ALLOCATED_BYTES = findAllocatedBytes();
+
+	/**
+	 * A named benchmark. The setup is only run if the benchmark is selected, so that large catalogs
+	 * are not created unless they are needed.
+	 */
+	private static class Benchmark {
+		final String name;
+		final Supplier<IntFunction<Object>> setup;
+
+		Benchmark(String name, Supplier<IntFunction<Object>> setup){
+			this.name = name;
+			this.setup = setup;
+		}
+	}
+
+	public static void main(String[] args) {
+		List<Benchmark> benchmarks = createBenchmarks();
+		System.out.printf("%-40s %16s %12s %12s%n", "Benchmark", "ops/s", "+/- ops/s", "B/op");
+		for(Benchmark benchmark : benchmarks) {
+			if(isSelected(benchmark.name, args)) run(benchmark.name, benchmark.setup.get());
+		}
+	}
+
+	/**
+	 * Creates the list of all benchmarks.
+	 * @return list of every benchmark, in the order they are run
+	 */
+	private static List<Benchmark> createBenchmarks() {
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+		//inputs for each pair in degrees and radians mode, describing the same 3-4-5 triangle
+		String[][] pairInputs = {
+			{"5", "3", "", ""}, {"5", "", "4", ""}, {"5", "", "", "36.87"},
+			{"", "3", "4", ""}, {"", "3", "", "36.87"}, {"", "", "4", "36.87"}
+		};
+		for(KnownPair pair : KnownPair.values()) {
+			String[] inputs = pairInputs[pair.ordinal()];
+			for(boolean degrees : new boolean[] {true, false}) {
+				String angle = inputs[3].isEmpty() || degrees ? inputs[3] : "0.6435";
+				benchmarks.add(new Benchmark("construct." + pair + (degrees ? ".deg" : ".rad"), () -> i ->
+					new Triangle(inputs[0], inputs[1], inputs[2], angle, degrees, MAIN_WIDTH, MAIN_HEIGHT)));
+			}
+		}
+
+		benchmarks.add(new Benchmark("checkError.valid", () -> {
+			Triangle triangle = new Triangle("5", "3", "", "", true, MAIN_WIDTH, MAIN_HEIGHT);
+			return i -> triangle.checkError(InputField.OPPOSITE, "-123.45", true);
+		}));
+		benchmarks.add(new Benchmark("checkError.invalid", () -> {
+			Triangle triangle = new Triangle("5", "3", "", "", true, MAIN_WIDTH, MAIN_HEIGHT);
+			return i -> triangle.checkError(InputField.HYPOTENUSE, "12.3.4", true);
+		}));
+		benchmarks.add(new Benchmark("checkError.angleOutOfRange", () -> {
+			Triangle triangle = new Triangle("5", "3", "", "", true, MAIN_WIDTH, MAIN_HEIGHT);
+			return i -> triangle.checkError(InputField.ANGLE, "123.45", true);
+		}));
+
+		benchmarks.add(new Benchmark("formula.construct.HYP_OPP", () -> i ->
+			new FormulaTriangle("distance(a,b)", "a.getY()-b.getY()", "", "", true, MAIN_WIDTH, MAIN_HEIGHT)));
+		benchmarks.add(new Benchmark("formula.construct.OPP_ANG", () -> i ->
+			new FormulaTriangle("", "o", "", "theta", true, MAIN_WIDTH, MAIN_HEIGHT)));
+
+		benchmarks.add(new Benchmark("cache.create.hit", () -> {
+			TriangleCache.setEnabled(true);
+			return i -> TriangleCache.create(false, "5", "3", "", "", true, MAIN_WIDTH, MAIN_HEIGHT);
+		}));
+		benchmarks.add(new Benchmark("cache.create.formulaHit", () -> {
+			TriangleCache.setEnabled(true);
+			return i -> TriangleCache.create(true, "distance(a,b)", "a.getY()-b.getY()", "", "", true, MAIN_WIDTH, MAIN_HEIGHT);
+		}));
+		benchmarks.add(new Benchmark("cache.create.miss", () -> {
+			TriangleCache.setEnabled(true);
+			//2-decimal inputs like those addRandomTriangle creates, more than the cache can hold
+			String[] hyps = new String[1 << 16];
+			for(int n = 0; n < hyps.length; n++) hyps[n] = FixedPointFormat.format(10 + n / 100.0);
+			return i -> TriangleCache.create(false, hyps[i & (hyps.length - 1)], "3", "", "", true, MAIN_WIDTH, MAIN_HEIGHT);
+		}));
+
+		benchmarks.add(new Benchmark("prepareForCanvas.main", () -> {
+			Triangle triangle = new Triangle("5", "3", "", "", true, MAIN_WIDTH, MAIN_HEIGHT);
+			return i -> {
+				triangle.prepareForCanvas(MAIN_WIDTH, MAIN_HEIGHT);
+				return triangle;
+			};
+		}));
+		benchmarks.add(new Benchmark("prepareForCanvas.thumbnail", () -> {
+			Triangle triangle = new Triangle("5", "3", "", "", true, MAIN_WIDTH, MAIN_HEIGHT);
+			return i -> {
+				triangle.prepareForCanvas(THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+				return triangle;
+			};
+		}));
+
+		for(int size : new int[] {1_000, 100_000, 1_000_000}) {
+			benchmarks.add(new Benchmark("catalog.next." + size, () -> {
+				CatalogFixture fixture = new CatalogFixture(size);
+				return i -> fixture.catalog.getNextTriangle(fixture.pick(i));
+			}));
+			benchmarks.add(new Benchmark("catalog.previous." + size, () -> {
+				CatalogFixture fixture = new CatalogFixture(size);
+				return i -> fixture.catalog.getPreviousTriangle(fixture.pick(i));
+			}));
+			benchmarks.add(new Benchmark("catalog.indexOf." + size, () -> {
+				CatalogFixture fixture = new CatalogFixture(size);
+				return i -> fixture.catalog.getIndexInList(fixture.pick(i));
+			}));
+			benchmarks.add(new Benchmark("catalog.get." + size, () -> {
+				CatalogFixture fixture = new CatalogFixture(size);
+				return i -> fixture.catalog.getTriangle(fixture.positions[i & (fixture.positions.length - 1)]);
+			}));
+		}
+		return benchmarks;
+	}
+
+	/**
+	 * Catalog of the given size, along with a fixed random sequence of positions in it to navigate from.
+	 */
+	private static class CatalogFixture {
+		final TriangleCatalog catalog = new TriangleCatalog();
+		final Triangle[] triangles;
+		final int[] positions = new int[1024];
+
+		CatalogFixture(int size){
+			Triangle original = new Triangle("5", "3", "", "", true, MAIN_WIDTH, MAIN_HEIGHT);
+			triangles = new Triangle[size];
+			for(int i = 0; i < size; i++) {
+				triangles[i] = new Triangle(original);
+				catalog.addTriangle(triangles[i]);
+			}
+			Random random = new Random(42);
+			for(int i = 0; i < positions.length; i++) positions[i] = random.nextInt(size);
+		}
+
+		Triangle pick(int i) {
+			return triangles[positions[i & (positions.length - 1)]];
+		}
+	}
+
+	/**
+	 * @return handle of getThreadAllocatedBytes(long) taking the thread MXBean, of type (ThreadMXBean, long)long
+	 * @throws IllegalStateException if the JVM has no jdk.management module to count allocations with
+	 */
+	private static MethodHandle findAllocatedBytes() {
+		try {
+			//the public lookup does not need the module to read jdk.management, only that the interface is exported
+			Class<?> counters = Class.forName("com.sun.management.ThreadMXBean");
+			MethodHandle handle = MethodHandles.publicLookup().findVirtual(counters, "getThreadAllocatedBytes",
+					MethodType.methodType(long.class, long.class));
+			return handle.asType(MethodType.methodType(long.class, ThreadMXBean.class, long.class));
+		} catch(ReflectiveOperationException e) {
+			throw new IllegalStateException("The allocation counters of jdk.management are not available.", e);
+		}
+	}
+
+	/**
+	 * @return number of bytes allocated by the thread so far
+	 */
+	private static long allocatedBytes(long threadId) {
+		try {
+			return (long) ALLOCATED_BYTES.invokeExact(THREADS, threadId);
+		} catch(Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return true if there are no filters, or the name contains one of them
+	 */
+	private static boolean isSelected(String name, String[] filters) {
+		if(filters.length == 0) return true;
+		for(String filter : filters) {
+			if(name.contains(filter)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Warms up the operation, then runs it for the configured number of timed iterations.
+	 * Operations are called in chunks sized to take about a millisecond, so that checking the
+	 * time does not affect the result of fast operations.
+	 * @param name - name of the benchmark to print
+	 * @param operation - operation to measure, given a counter which increases every call
+	 */
+	private static void run(String name, IntFunction<Object> operation) {
+		long threadId = Thread.currentThread().getId();
+		int chunk = 1;
+		int counter = 0;
+
+		//warming up, while increasing the chunk size until a chunk takes at least a millisecond
+		long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1_000_000;
+		while(System.nanoTime() < warmupEnd) {
+			long start = System.nanoTime();
+			for(int i = 0; i < chunk; i++) BLACKHOLE[counter & 15] = operation.apply(counter++);
+			if(System.nanoTime() - start < 1_000_000 && chunk < (1 << 24)) chunk *= 2;
+		}
+
+		double[] opsPerSecond = new double[ITERATIONS];
+		long totalOps = 0;
+		long totalBytes = 0;
+		for(int iteration = 0; iteration < ITERATIONS; iteration++) {
+			long ops = 0;
+			long bytesBefore = allocatedBytes(threadId);
+			long start = System.nanoTime();
+			long end = start + MEASURE_MILLIS * 1_000_000;
+			long now;
+			do {
+				for(int i = 0; i < chunk; i++) BLACKHOLE[counter & 15] = operation.apply(counter++);
+				ops += chunk;
+				now = System.nanoTime();
+			} while(now < end);
+			totalBytes += allocatedBytes(threadId) - bytesBefore;
+			totalOps += ops;
+			opsPerSecond[iteration] = ops / ((now - start) / 1e9);
+		}
+
+		double mean = 0;
+		for(double value : opsPerSecond) mean += value / ITERATIONS;
+		double variance = 0;
+		for(double value : opsPerSecond) variance += (value - mean) * (value - mean) / Math.max(1, ITERATIONS - 1);
+		System.out.printf("%-40s %16.1f %12.1f %12.1f%n", name, mean, Math.sqrt(variance), (double) totalBytes / totalOps);
+	}
+}
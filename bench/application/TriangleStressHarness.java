@@ -0,0 +1,323 @@
+package application;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Differential stress test of the solvers: generates seeded random inputs for all six combinations of known
+ * values in both angle modes, solves them with the TriangleBatch, the TriangleSolver and (for a sample of rows)
+ * the Triangle class itself, and checks every result against a reference solved in DoubleDouble precision.
+ *
+ * For each combination and angle mode, the largest error of the solved values is reported in ulps and as a
+ * relative error, along with the row it happened on. Rows where the solvers give different results, or where
+ * a solver accepts a triangle the reference rejects (or the other way around), are counted as mismatches and
+ * the first few are printed. A share of the rows are made invalid on purpose (a leg as long as or longer than
+ * the hypotenuse) to check that the NaN and zero side lengths they solve to are rejected by isValid().
+ *
+ * Run with the number of rows and the seed as arguments (100 million rows and seed 1 by default), patching it into
+ * the program's module from bin-bench, the same as TriangleBenchmark:
+ * java -p bin:$PATH_TO_FX --patch-module AlanYongProjectVMClone=bin-bench -m AlanYongProjectVMClone/application.TriangleStressHarness 500000000 7
+ * The system properties stress.chunkSize, stress.triangleEvery (how often a row is also solved with the
+ * Triangle class), stress.invalidEvery (how often a row is made invalid) and stress.samples change the test.
+ * If the TriangleBatch is vectorized (started with --add-modules jdk.incubator.vector), it's values only have to
+ * be within stress.vectorUlps (default 4) ulps of the TriangleSolver's, rather than the same.
+ */
+public class TriangleStressHarness {
+	private static final int CHUNK_SIZE = Integer.getInteger("stress.chunkSize", 1 << 16);
+	private static final int TRIANGLE_EVERY = Integer.getInteger("stress.triangleEvery", 97);
+	private static final int INVALID_EVERY = Integer.getInteger("stress.invalidEvery", 16);
+	private static final int SAMPLES = Integer.getInteger("stress.samples", 10);
+	private static final int VECTOR_ULPS = Integer.getInteger("stress.vectorUlps", 4);
+
+	private static final KnownPair[] PAIRS = KnownPair.values();
+
+	public static void main(String[] args) {
+		long rows = args.length > 0 ? Long.parseLong(args[0].replace("_", "")) : 100_000_000L;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		System.out.printf("Checking %,d rows with seed %d on %d threads%n", rows, seed, pool.getParallelism());
+		if(TriangleBatch.isVectorized()) System.out.printf("TriangleBatch is vectorized, allowing it %d ulps from the TriangleSolver%n", VECTOR_ULPS);
+
+		//the seed of each chunk is taken in order from one random sequence, so the rows only depend on the seed
+		SplittableRandom seeds = new SplittableRandom(seed);
+		ArrayDeque<ForkJoinTask<Stats>> pending = new ArrayDeque<ForkJoinTask<Stats>>();
+		int maxChunksInFlight = pool.getParallelism() * 2 + 1;
+		Stats total = new Stats();
+		long start = System.nanoTime(), lastReport = start;
+		for(long first = 0; first < rows; first += CHUNK_SIZE) {
+			long chunkSeed = seeds.nextLong();
+			int count = (int) Math.min(CHUNK_SIZE, rows - first);
+			long firstRow = first;
+			//alternating the angle mode of each chunk, so both modes are checked equally
+			boolean degrees = (first / CHUNK_SIZE) % 2 == 0;
+			pending.add(pool.submit(() -> checkChunk(chunkSeed, firstRow, count, degrees)));
+			while(pending.size() >= maxChunksInFlight) total.merge(pending.poll().join());
+
+			if(System.nanoTime() - lastReport > 10_000_000_000L) {
+				lastReport = System.nanoTime();
+				System.out.printf("  %,d rows checked, %,.0f rows/s%n", total.rows, total.rows / ((lastReport - start) / 1e9));
+			}
+		}
+		while(!pending.isEmpty()) total.merge(pending.poll().join());
+		double seconds = (System.nanoTime() - start) / 1e9;
+		total.print(seconds);
+		if(total.mismatches > 0) System.exit(1);
+	}
+
+	/**
+	 * Generates, solves and checks one chunk of rows.
+	 * @param seed - seed of the chunk's rows
+	 * @param firstRow - number of the chunk's first row, used to name rows in the report
+	 * @param count - number of rows in the chunk
+	 * @param degrees - angle mode of the chunk
+	 * @return what was found in the chunk
+	 */
+	private static Stats checkChunk(long seed, long firstRow, int count, boolean degrees) {
+		Stats stats = new Stats();
+		TriangleGenerator generator = new TriangleGenerator(seed);
+		for(KnownPair pair : PAIRS) generator.setPairWeight(pair, 1);
+		generator.setAngleMode(degrees);
+		generator.setRoundToHundredths(false);
+		TriangleBatch generated = new TriangleBatch(count);
+		generator.fill(generated, count);
+
+		//copying the inputs into the batch to solve, as solving replaces them, and making some rows invalid
+		SplittableRandom random = new SplittableRandom(seed);
+		double[][] inputs = new double[count][];
+		TriangleBatch batch = new TriangleBatch(count);
+		for(int i = 0; i < count; i++) {
+			double[] row = {generated.getHyp(i), generated.getOpp(i), generated.getAdj(i), generated.getAng(i)};
+			if(INVALID_EVERY > 0 && (firstRow + i) % INVALID_EVERY == INVALID_EVERY - 1) row = invalidRow(random);
+			inputs[i] = row;
+			batch.add(row[0], row[1], row[2], row[3], degrees);
+		}
+		batch.solve();
+
+		for(int i = 0; i < count; i++) {
+			double[] in = inputs[i];
+			long rowNumber = firstRow + i;
+			SolvedTriangle solved = TriangleSolver.solve(in[0], in[1], in[2], in[3], degrees);
+			double[] solverValues = {solved.getHyp(), solved.getOpp(), solved.getAdj(), solved.getAng()};
+			double[] batchValues = {batch.getHyp(i), batch.getOpp(i), batch.getAdj(i), batch.getAng(i)};
+			boolean batchAgrees = TriangleBatch.isVectorized() ? closeValues(solverValues, batchValues) : sameValues(solverValues, batchValues);
+			if(!batchAgrees || solved.isValid() != batch.isValid(i)) {
+				stats.mismatch("row " + rowNumber + " " + describe(in, degrees) + ": TriangleBatch gave " + describe(batchValues, degrees)
+						+ " but TriangleSolver gave " + describe(solverValues, degrees));
+			}
+			if(TRIANGLE_EVERY > 0 && rowNumber % TRIANGLE_EVERY == 0) checkTriangle(stats, rowNumber, in, degrees, solved);
+
+			KnownPair pair = solved.getKnownPair();
+			DoubleDouble[] reference = solveReference(pair, in, degrees);
+			boolean referenceValid = reference != null;
+			if(referenceValid != solved.isValid()) {
+				stats.mismatch("row " + rowNumber + " " + describe(in, degrees) + ": isValid() is " + solved.isValid()
+						+ " but the reference triangle is " + (referenceValid ? "valid" : "invalid"));
+			}
+			if(!referenceValid) {
+				stats.rejected++;
+				continue;
+			}
+			stats.record(pair, degrees, rowNumber, in, solverValues, reference);
+		}
+		stats.rows = count;
+		return stats;
+	}
+
+	/**
+	 * Solves the row with the Triangle class, as the GUI does, and checks it against the TriangleSolver.
+	 */
+	private static void checkTriangle(Stats stats, long rowNumber, double[] in, boolean degrees, SolvedTriangle solved) {
+		//writing the inputs the way a user could type them, which the parser should read back exactly
+		Triangle triangle = new Triangle(toInput(in[0]), toInput(in[1]), toInput(in[2]), toInput(in[3]), degrees, 100, 100);
+		stats.triangles++;
+		boolean triangleValid = triangle.getErrorDescription().isEmpty();
+		SolvedTriangle triangleSolution = triangle.getSolution();
+		boolean agrees = triangleValid == solved.isValid() && triangleSolution != null && sameValues(
+				new double[] {triangleSolution.getHyp(), triangleSolution.getOpp(), triangleSolution.getAdj(), triangleSolution.getAng()},
+				new double[] {solved.getHyp(), solved.getOpp(), solved.getAdj(), solved.getAng()});
+		if(!triangleValid && !triangle.getErrorDescription().equals(TriangleSolver.INVALID_TRIANGLE_DESCRIPTION)) agrees = false;
+		if(!agrees) {
+			stats.mismatch("row " + rowNumber + " " + describe(in, degrees) + ": Triangle gave "
+					+ (triangleSolution == null ? "no solution" : describe(new double[] {triangleSolution.getHyp(), triangleSolution.getOpp(),
+							triangleSolution.getAdj(), triangleSolution.getAng()}, degrees))
+					+ (triangleValid ? "" : " (\"" + triangle.getErrorDescription() + "\")")
+					+ " but TriangleSolver gave " + describe(new double[] {solved.getHyp(), solved.getOpp(), solved.getAdj(), solved.getAng()}, degrees));
+		}
+	}
+
+	/**
+	 * @return the value as text in plain decimal notation, as the input parser does not read exponents
+	 */
+	private static String toInput(double value) {
+		return value == 0 ? "" : BigDecimal.valueOf(value).toPlainString();
+	}
+
+	/**
+	 * Creates a row which can not make a triangle: a hypotenuse with a leg either just as long (solving to a
+	 * zero side length) or longer (solving to NaN).
+	 * @return the hypotenuse, opposite, adjacent and angle of the row
+	 */
+	private static double[] invalidRow(SplittableRandom random) {
+		double hyp = random.nextDouble(0.01, 10);
+		double leg = random.nextBoolean() ? hyp : hyp * random.nextDouble(1, 2);
+		if(random.nextBoolean()) leg = -leg;
+		return random.nextBoolean() ? new double[] {hyp, leg, 0, 0} : new double[] {hyp, 0, leg, 0};
+	}
+
+	/**
+	 * Solves the row in DoubleDouble precision from the exact values of the inputs, using the exact
+	 * trigonometric identities rather than the formulas of the solvers where they differ.
+	 * @return the hypotenuse, opposite, adjacent and angle, or null if the inputs can not make a triangle
+	 */
+	private static DoubleDouble[] solveReference(KnownPair pair, double[] in, boolean degrees) {
+		DoubleDouble h = DoubleDouble.valueOf(in[0]), o = DoubleDouble.valueOf(in[1]), a = DoubleDouble.valueOf(in[2]);
+		DoubleDouble t = DoubleDouble.valueOf(in[3]);
+		if(degrees) t = t.multiply(DoubleDouble.DEGREES_TO_RADIANS);
+		DoubleDouble remaining;
+		switch(pair) {
+		case HYP_OPP:
+			remaining = h.square().subtract(o.square());
+			if(remaining.hi <= 0) return null;
+			return result(h, o, remaining.sqrt(), o.abs().divide(h.abs()).asin(), degrees);
+		case HYP_ADJ:
+			remaining = h.square().subtract(a.square());
+			if(remaining.hi <= 0) return null;
+			return result(h, remaining.sqrt(), a, a.abs().divide(h.abs()).acos(), degrees);
+		case HYP_ANG:
+			return result(h, h.multiply(t.sin()), h.multiply(t.cos()), t, degrees);
+		case OPP_ADJ:
+			return result(a.square().add(o.square()).sqrt(), o, a, o.abs().divide(a.abs()).atan(), degrees);
+		case OPP_ANG:
+			return result(o.abs().divide(t.sin()), o, o.divide(t.tan()), t, degrees);
+		case ADJ_ANG:
+			return result(a.abs().divide(t.cos()), a.multiply(t.tan()), a, t, degrees);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * @return the solved values, with the angle converted back into degrees if needed
+	 */
+	private static DoubleDouble[] result(DoubleDouble hyp, DoubleDouble opp, DoubleDouble adj, DoubleDouble ang, boolean degrees) {
+		return new DoubleDouble[] {hyp, opp, adj, degrees ? ang.multiply(DoubleDouble.RADIANS_TO_DEGREES) : ang};
+	}
+
+	/**
+	 * @return true if every value is the same double, counting NaN as the same as NaN
+	 */
+	private static boolean sameValues(double[] a, double[] b) {
+		for(int i = 0; i < a.length; i++) {
+			if(Double.doubleToLongBits(a[i]) != Double.doubleToLongBits(b[i])) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if every value is within VECTOR_ULPS ulps of the other (or both are NaN)
+	 */
+	private static boolean closeValues(double[] a, double[] b) {
+		for(int i = 0; i < a.length; i++) {
+			if(Double.isNaN(a[i]) || Double.isNaN(b[i])) {
+				if(Double.isNaN(a[i]) != Double.isNaN(b[i])) return false;
+			} else if(Math.abs(a[i] - b[i]) > VECTOR_ULPS * Math.ulp(Math.max(Math.abs(a[i]), Math.abs(b[i])))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the values of a row as text, for the report
+	 */
+	private static String describe(double[] values, boolean degrees) {
+		return "[h=" + values[0] + ", o=" + values[1] + ", a=" + values[2] + ", θ=" + values[3] + (degrees ? "°" : "rad") + "]";
+	}
+
+	/**
+	 * What was found in one or more chunks: the largest error of each combination of known values and angle
+	 * mode, the number of rows which were rejected as invalid, and every mismatch between the solvers.
+	 */
+	private static final class Stats {
+		/**Index of the values each combination solves for: hyp, opp, adj, ang*/
+		private static final int[][] SOLVED = {{2, 3}, {1, 3}, {1, 2}, {0, 3}, {0, 2}, {0, 1}};
+		private static final String[] NAMES = {"hyp", "opp", "adj", "ang"};
+
+		long rows, triangles, rejected, mismatches;
+		final long[] checked = new long[PAIRS.length * 2];
+		final double[] maxUlps = new double[PAIRS.length * 2];
+		final double[] maxRelative = new double[PAIRS.length * 2];
+		final double[] sumUlps = new double[PAIRS.length * 2];
+		final String[] worst = new String[PAIRS.length * 2];
+		final List<String> samples = new ArrayList<String>();
+
+		void mismatch(String description) {
+			mismatches++;
+			if(samples.size() < SAMPLES) samples.add(description);
+		}
+
+		/**
+		 * Records the error of the values solved for in a row.
+		 */
+		void record(KnownPair pair, boolean degrees, long rowNumber, double[] in, double[] solved, DoubleDouble[] reference) {
+			int index = pair.ordinal() * 2 + (degrees ? 0 : 1);
+			checked[index]++;
+			double rowUlps = 0;
+			for(int value : SOLVED[pair.ordinal()]) {
+				double expected = reference[value].doubleValue();
+				//measuring the difference from the reference before it is rounded to a double
+				double difference = Math.abs(DoubleDouble.valueOf(solved[value]).subtract(reference[value]).doubleValue());
+				double ulps = difference / Math.ulp(expected);
+				double relative = difference / Math.abs(expected);
+				rowUlps = Math.max(rowUlps, ulps);
+				maxRelative[index] = Math.max(maxRelative[index], relative);
+				if(ulps > maxUlps[index] || worst[index] == null) {
+					maxUlps[index] = ulps;
+					worst[index] = "row " + rowNumber + " " + describe(in, degrees) + ": " + NAMES[value] + " = " + solved[value]
+							+ ", reference " + reference[value];
+				}
+			}
+			sumUlps[index] += rowUlps;
+		}
+
+		void merge(Stats other) {
+			rows += other.rows;
+			triangles += other.triangles;
+			rejected += other.rejected;
+			mismatches += other.mismatches;
+			for(int i = 0; i < checked.length; i++) {
+				checked[i] += other.checked[i];
+				sumUlps[i] += other.sumUlps[i];
+				maxRelative[i] = Math.max(maxRelative[i], other.maxRelative[i]);
+				if(other.worst[i] != null && (worst[i] == null || other.maxUlps[i] > maxUlps[i])) {
+					maxUlps[i] = other.maxUlps[i];
+					worst[i] = other.worst[i];
+				}
+			}
+			for(String sample : other.samples) {
+				if(samples.size() < SAMPLES) samples.add(sample);
+			}
+		}
+
+		void print(double seconds) {
+			System.out.printf("%n%-12s %-4s %14s %12s %12s %14s%n", "Known pair", "mode", "rows", "max ulps", "mean ulps", "max relative");
+			for(int i = 0; i < checked.length; i++) {
+				System.out.printf("%-12s %-4s %,14d %12.2f %12.4f %14.3e%n", PAIRS[i / 2], i % 2 == 0 ? "deg" : "rad", checked[i],
+						maxUlps[i], checked[i] == 0 ? 0 : sumUlps[i] / checked[i], maxRelative[i]);
+			}
+			System.out.println("\nLargest error of each known pair:");
+			for(int i = 0; i < worst.length; i++) {
+				if(worst[i] != null) System.out.println("  " + PAIRS[i / 2] + (i % 2 == 0 ? ".deg " : ".rad ") + worst[i]);
+			}
+			System.out.printf("%n%,d rows (%,d also solved with Triangle, %,d rejected as invalid) in %.1f s, %,.0f rows/s%n",
+					rows, triangles, rejected, seconds, rows / seconds);
+			System.out.printf("%,d mismatches%n", mismatches);
+			for(String sample : samples) System.out.println("  " + sample);
+		}
+	}
+}
@@ -0,0 +1,32 @@
+#!/bin/sh
+# Builds a class-data-sharing (AppCDS) archive of the classes the program loads while starting, so later starts
+# map them from the archive instead of loading, verifying and linking them again.
+#
+# Run from the project directory after the project is built into bin (ie. by Eclipse), with PATH_TO_FX set to the
+# lib directory of the JavaFX SDK:
+#   PATH_TO_FX=/path/to/javafx-sdk/lib cds/build-archive.sh
+# then start the program with the archive:
+#   java -XX:SharedArchiveFile=cds/triangle.jsa -p build/triangle.jar:$PATH_TO_FX -m AlanYongProjectVMClone/application.Main
+#
+# The archive only works with the same JDK, the same JavaFX jars and the same module path it was built with, so it
+# must be rebuilt after any of them change (the JVM ignores an archive which does not match, and prints a warning).
+# Needs a display, as the program is started once until it shows it's first frame.
+set -e
+
+: "${PATH_TO_FX:?set PATH_TO_FX to the lib directory of the JavaFX SDK}"
+ARCHIVE=${ARCHIVE:-cds/triangle.jsa}
+
+# class data sharing can not be used with classes in directories, so the program is packaged as a jar first
+mkdir -p build
+jar --create --file build/triangle.jar -C bin .
+
+# starting the program once, exiting after it's first frame, and archiving every class it loaded. A temporary
+# journal is used so that the catalog saved in the user's home directory is not loaded into the archive run.
+JOURNAL_DIR=$(mktemp -d)
+trap 'rm -rf "$JOURNAL_DIR"' EXIT
+rm -f "$ARCHIVE"
+java -XX:ArchiveClassesAtExit="$ARCHIVE" \
+	-Dtriangle.startupTiming=true -Dtriangle.exitAfterFirstFrame=true -Dtriangle.journal="$JOURNAL_DIR/catalog.journal" \
+	-p "build/triangle.jar:$PATH_TO_FX" -m AlanYongProjectVMClone/application.Main
+
+echo "Archive written to $ARCHIVE"
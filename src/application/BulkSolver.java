@@ -0,0 +1,281 @@
+package application;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Solves large CSV files of triangle inputs in parallel. Rows are read in chunks which are solved on a
+ * ForkJoinPool, and the results are written in the same order as the input. Only a bounded number of
+ * chunks are held in memory at once, so files of any size can be solved.
+ *
+ * Each input row has the columns hyp,opp,adj,angle,mode where exactly two of the first four are given,
+ * and the mode is "deg" or "rad" (degrees if empty). Each output row has the columns
+ * hyp,opp,adj,angle,mode,error - the solved values for valid rows, or the given inputs along with
+ * the same error description shown in the GUI for invalid rows. Input rows may also have the error column,
+ * which is ignored, so that output rows (and the CSV written by TriangleFile.toCsv()) can be solved again.
+ */
+public class BulkSolver {
+	/**Header written at the top of the output when the input has a header*/
+	static final String OUTPUT_HEADER = "hyp,opp,adj,angle,mode,error";
+
+	/**Number of columns of an input row, and of an output row (with the error column)*/
+	static final int INPUT_COLUMNS = 5, OUTPUT_COLUMNS = 6;
+	private static final InputField[] FIELDS = InputField.values();
+
+	private final ForkJoinPool pool;
+	private final int chunkSize;
+	private final int maxChunksInFlight;
+
+	/**
+	 * BulkSolver constructor using the common ForkJoinPool and a default chunk size.
+	 */
+	BulkSolver(){
+		this(ForkJoinPool.commonPool(), 8192);
+	}
+
+	/**
+	 * BulkSolver constructor.
+	 * @param pool - the pool to solve chunks of rows on
+	 * @param chunkSize - number of rows solved together in each task
+	 */
+	BulkSolver(ForkJoinPool pool, int chunkSize){
+		this.pool = pool;
+		this.chunkSize = chunkSize;
+		//enough chunks to keep every thread busy while the oldest chunk is being written
+		this.maxChunksInFlight = pool.getParallelism() * 2 + 1;
+	}
+
+	/**
+	 * Reads every row of the input, solves it, and writes the results to the output in input order.
+	 * @param input - reader of the CSV input. A first line starting with "hyp" is treated as a header.
+	 * @param output - writer that the CSV results are written to
+	 * @return number of rows solved (not counting the header)
+	 * @throws IOException if reading the input or writing the output fails
+	 */
+	public long solve(BufferedReader input, Writer output) throws IOException {
+		ArrayDeque<ForkJoinTask<StringBuilder>> pending = new ArrayDeque<ForkJoinTask<StringBuilder>>();
+		long rows = 0;
+
+		String line = input.readLine();
+		if(line != null && line.regionMatches(true, 0, "hyp", 0, 3)) {
+			output.write(OUTPUT_HEADER);
+			output.write('\n');
+			line = input.readLine();
+		}
+
+		while(line != null) {
+			//reading the next chunk of rows
+			String[] chunk = new String[chunkSize];
+			int count = 0;
+			while(line != null && count < chunkSize) {
+				if(!line.isEmpty()) chunk[count++] = line;
+				line = input.readLine();
+			}
+			rows += count;
+			int chunkCount = count;
+			pending.add(pool.submit(() -> solveChunk(chunk, chunkCount)));
+
+			//writing finished chunks in order once the limit of chunks in memory is reached
+			while(pending.size() >= maxChunksInFlight) writeChunk(pending.poll(), output);
+		}
+		while(!pending.isEmpty()) writeChunk(pending.poll(), output);
+		output.flush();
+		return rows;
+	}
+
+	/**
+	 * Waits for a chunk to be solved, then writes its results.
+	 * @throws IOException if writing the output fails
+	 */
+	private static void writeChunk(ForkJoinTask<StringBuilder> chunk, Writer output) throws IOException {
+		StringBuilder results = chunk.join();
+		output.append(results);
+	}
+
+	/**
+	 * Solves every row of a chunk.
+	 * @param lines - the rows of the chunk
+	 * @param count - number of rows in the chunk
+	 * @return the output rows for the chunk
+	 */
+	private static StringBuilder solveChunk(String[] lines, int count) {
+		StringBuilder results = new StringBuilder(count * 64);
+		InputParser parser = new InputParser();
+		int[] bounds = new int[OUTPUT_COLUMNS * 2];
+		double[] values = new double[4];
+		for(int i = 0; i < count; i++) {
+			solveRow(lines[i], parser, bounds, values, results);
+		}
+		return results;
+	}
+
+	/**
+	 * Solves one row and appends its output row to the results.
+	 * @param line - the input row
+	 * @param parser - parser to validate the inputs with
+	 * @param bounds - scratch array to hold the start and end index of each column
+	 * @param values - scratch array to hold the parsed value of each input
+	 * @param results - StringBuilder to append the output row to
+	 */
+	static void solveRow(String line, InputParser parser, int[] bounds, double[] values, StringBuilder results) {
+		int error = parseRow(line, parser, bounds, values);
+		if(error == TriangleFile.ERROR_MALFORMED_ROW) {
+			results.append(",,,,,\"").append(TriangleFile.describeError(error)).append("\"\n");
+			return;
+		}
+		if(error != TriangleFile.ERROR_NONE) {
+			appendRow(line, bounds, null, TriangleFile.describeError(error), results);
+			return;
+		}
+
+		SolvedTriangle solved = TriangleSolver.solve(values[0], values[1], values[2], values[3], isDegrees(line, bounds));
+		if(!solved.isValid()) {
+			appendRow(line, bounds, null, TriangleSolver.INVALID_TRIANGLE_DESCRIPTION, results);
+			return;
+		}
+		appendRow(line, bounds, solved, null, results);
+	}
+
+	/**
+	 * Splits and validates one input row. The inputs are validated with the same rules as a Triangle:
+	 * exactly two values must be given, each given input is checked in the order hyp, opp, adj, angle,
+	 * and the last error found is kept. Every value given is parsed, even if the row can not be solved.
+	 * @param line - the input row
+	 * @param parser - parser to validate the inputs with
+	 * @param bounds - scratch array (of OUTPUT_COLUMNS * 2) to store the start and end index of each column in
+	 * @param values - array to store the parsed value of each input in (0 if not given, NaN if not a number)
+	 * @return one of the TriangleFile error codes - ERROR_NONE if the row can be solved
+	 */
+	static int parseRow(String line, InputParser parser, int[] bounds, double[] values) {
+		//clearing the values of the previous row first, so no row returns with values that are not its own
+		Arrays.fill(values, 0, 4, 0);
+		if(!splitColumns(line, bounds)) return TriangleFile.ERROR_MALFORMED_ROW;
+		boolean degrees = isDegrees(line, bounds);
+
+		int inputs = 0;
+		int error = TriangleFile.ERROR_NONE;
+		for(int column = 0; column < 4; column++) {
+			if(!isGiven(bounds, column)) continue;
+			inputs++;
+			InputError inputError = parser.parse(FIELDS[column], line, bounds[column*2], bounds[column*2 + 1], degrees);
+			//numbers out of range are still kept, so they are not lost when the row is stored (see TriangleFile)
+			values[column] = inputError == InputError.NONE || inputError.isRangeError() ? parser.getValue() : Double.NaN;
+			if(inputError != InputError.NONE) error = TriangleFile.errorCode(FIELDS[column], inputError);
+		}
+		//checking that exactly two values were given, which the GUI reports before any error in the values
+		if(inputs != 2) return TriangleFile.ERROR_TWO_INPUTS;
+		return error;
+	}
+
+	/**
+	 * @param bounds - start and end index of each column, as found by parseRow
+	 * @param column - index of the column (0 to 3 for hyp, opp, adj and angle)
+	 * @return true if the column is not empty
+	 */
+	static boolean isGiven(int[] bounds, int column) {
+		return bounds[column*2] < bounds[column*2 + 1];
+	}
+
+	/**
+	 * Finds the start and end index of each column, ignoring spaces around each value. The error column
+	 * of an output row is allowed as a sixth column, and is the rest of the row after the fifth comma, as
+	 * error descriptions may contain commas. Rows without it are given an empty error column.
+	 * @param line - the input row
+	 * @param bounds - array to store the start (even indexes) and end (odd indexes) of each column in
+	 * @return true if the row has five or six columns, otherwise false
+	 */
+	private static boolean splitColumns(String line, int[] bounds) {
+		int column = 0;
+		int start = 0;
+		for(int i = 0; i <= line.length(); i++) {
+			//the error column takes the rest of the row
+			if(column == INPUT_COLUMNS) i = line.length();
+			if(i == line.length() || line.charAt(i) == ',') {
+				int from = start;
+				int to = i;
+				while(from < to && line.charAt(from) == ' ') from++;
+				while(to > from && line.charAt(to - 1) == ' ') to--;
+				bounds[column*2] = from;
+				bounds[column*2 + 1] = to;
+				column++;
+				start = i + 1;
+			}
+		}
+		if(column == INPUT_COLUMNS) {
+			bounds[INPUT_COLUMNS*2] = line.length();
+			bounds[INPUT_COLUMNS*2 + 1] = line.length();
+			return true;
+		}
+		return column == OUTPUT_COLUMNS;
+	}
+
+	/**
+	 * @param line - the input row
+	 * @param bounds - start and end index of each column, as found by parseRow
+	 * @return false if the mode column starts with "r" (radians), otherwise true (degrees)
+	 */
+	static boolean isDegrees(String line, int[] bounds) {
+		int start = bounds[8];
+		return start == bounds[9] || Character.toLowerCase(line.charAt(start)) != 'r';
+	}
+
+	/**
+	 * Appends an output row: the solved values if the row was valid, otherwise the inputs as given
+	 * followed by the quoted error description.
+	 */
+	private static void appendRow(String line, int[] bounds, SolvedTriangle solved, String errorDescription, StringBuilder results) {
+		if(solved != null) {
+			results.append(solved.getHyp()).append(',')
+				.append(solved.getOpp()).append(',')
+				.append(solved.getAdj()).append(',')
+				.append(solved.getAng()).append(',')
+				.append(solved.getDegreeMode() ? "deg" : "rad").append(",\n");
+			return;
+		}
+		for(int column = 0; column < INPUT_COLUMNS; column++) {
+			results.append(line, bounds[column*2], bounds[column*2 + 1]).append(',');
+		}
+		results.append('"').append(errorDescription).append("\"\n");
+	}
+
+	/**
+	 * Solves a CSV file from the command line.
+	 * @param args - input file and output file ("-" for standard input/output), then optionally
+	 * the number of threads and the number of rows in each chunk
+	 * @throws IOException if reading the input or writing the output fails
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 2) {
+			System.err.println("Usage: BulkSolver <input.csv|-> <output.csv|-> [threads] [chunkSize]");
+			return;
+		}
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		int chunkSize = args.length > 3 ? Integer.parseInt(args[3]) : 8192;
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try(BufferedReader input = args[0].equals("-")
+					? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+					: Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+				Writer output = args[1].equals("-")
+					? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)
+					: Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+			long start = System.nanoTime();
+			long rows = new BulkSolver(pool, chunkSize).solve(input, output);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.err.printf("Solved %d rows in %.2f s (%.0f rows/s) on %d threads%n", rows, seconds, rows / seconds, threads);
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,406 @@
+package application;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Saves a TriangleCatalog between runs of the program. Every triangle added to or removed from the catalog
+ * is appended to a journal file as it happens, on a background thread so the GUI is never waiting on the disk.
+ * Once most records of the journal describe triangles that were later removed, the journal is compacted on the
+ * same thread by rewriting it with only the triangles still in the catalog, so the journal (and the time taken
+ * to reload it at startup) grows with the size of the catalog rather than with its history.
+ *
+ * The journal starts with the magic number "TCJ1". Each record is its length, its contents, then a CRC32 of
+ * its contents, so a record left incomplete by the program being closed unexpectedly is detected and dropped.
+ * Record contents are a type byte, the id of the triangle, and for added triangles: whether it is a formula
+ * triangle, its degree mode, and its four original inputs, each as its length followed by its UTF-8 bytes.
+ */
+public class CatalogJournal implements TriangleCatalog.Listener {
+	private static final int MAGIC = 0x54434A31;
+	private static final byte ADD = 'A', REMOVE = 'R', CLEAR = 'C';
+
+	/**Largest record that is written or read back, larger records are not saved and are treated as damaged when reading*/
+	private static final int MAX_RECORD_LENGTH = 1 << 24;
+
+	/**Number of records that may describe removed triangles before the journal is compacted, if it is also more than the live triangles*/
+	private static final int MIN_DEAD_RECORDS_TO_COMPACT = 1024;
+
+	private final Path path;
+	private final ThreadPoolExecutor writer;
+
+	//accessed on the GUI thread only: the id of each triangle in the catalog
+	private final IdentityHashMap<Triangle, Long> ids = new IdentityHashMap<Triangle, Long>();
+	private long nextId;
+
+	//accessed on the writer thread only (and while loading, before it starts)
+	private final LinkedHashMap<Long, Entry> live = new LinkedHashMap<Long, Entry>();
+	private DataOutputStream output;
+	private FileOutputStream file;
+	private long records;
+	private boolean failed;
+
+	/**
+	 * Inputs needed to recreate a triangle in the catalog.
+	 */
+	static final class Entry {
+		final boolean formula, angleModeDegrees;
+		final String inputHyp, inputOpp, inputAdj, inputAng;
+
+		Entry(boolean formula, boolean angleModeDegrees, String inputHyp, String inputOpp, String inputAdj, String inputAng){
+			this.formula = formula;
+			this.angleModeDegrees = angleModeDegrees;
+			this.inputHyp = inputHyp;
+			this.inputOpp = inputOpp;
+			this.inputAdj = inputAdj;
+			this.inputAng = inputAng;
+		}
+
+		/**
+		 * @return the inputs of the triangle as they were entered when it was created
+		 */
+		static Entry of(Triangle triangle) {
+			return new Entry(triangle instanceof FormulaTriangle, triangle.getDegreeMode(),
+					nonNull(triangle.getInfo(InfoKey.HYPOTENUSE_INPUT)), nonNull(triangle.getInfo(InfoKey.OPPOSITE_INPUT)),
+					nonNull(triangle.getInfo(InfoKey.ADJACENT_INPUT)), nonNull(triangle.getInfo(InfoKey.ANGLE_INPUT)));
+		}
+
+		private static String nonNull(String input) {
+			return input == null ? "" : input;
+		}
+	}
+
+	/**
+	 * CatalogJournal constructor. Reads the triangles saved in the journal at the given path (if it exists),
+	 * dropping any incomplete record at its end, and opens it to append to.
+	 * @param path - path of the journal file
+	 * @throws IOException if the journal can not be read or opened, or is not a catalog journal
+	 */
+	CatalogJournal(Path path) throws IOException {
+		this.path = path;
+		if(path.getParent() != null) Files.createDirectories(path.getParent());
+		long validLength = load();
+		if(validLength < 0) {
+			//starting a new journal
+			writeNewJournal(path);
+		} else {
+			//cutting off an incomplete record, so that new records are appended after the last complete one
+			try(FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+				if(channel.size() > validLength) channel.truncate(validLength);
+			}
+		}
+		openForAppend();
+
+		writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+			Thread thread = new Thread(runnable, "catalog-journal");
+			thread.setDaemon(true);
+			return thread;
+		});
+		//the journal may have been left long by a run of the program that ended before compacting it
+		writer.execute(this::compactIfNeeded);
+	}
+
+	/**
+	 * @return path of the journal in the user's home directory, or the path given by the system property triangle.journal
+	 */
+	static Path defaultPath() {
+		String property = System.getProperty("triangle.journal");
+		if(property != null) return Paths.get(property);
+		return Paths.get(System.getProperty("user.home"), ".right-triangle-calculator", "catalog.journal");
+	}
+
+	/**
+	 * Recreates every triangle saved in the journal and adds them to the catalog in the order they were added,
+	 * then starts recording the changes made to the catalog. Triangles are created for a canvas of the given size.
+	 * Triangles already in the catalog (added while the journal was being read) are moved after the restored
+	 * ones and saved there, so the catalog is in the same order as the journal.
+	 * @param catalog - catalog to add the saved triangles to and record the changes of
+	 * @param canvasWidth - width of the canvas the triangles will be displayed on
+	 * @param canvasHeight - height of the canvas the triangles will be displayed on
+	 * @return number of triangles added to the catalog
+	 */
+	int restore(TriangleCatalog catalog, double canvasWidth, double canvasHeight) {
+		//taking out the triangles already in the catalog, to add them again after the restored ones
+		ArrayList<Triangle> unsaved = new ArrayList<Triangle>();
+		catalog.forEach(unsaved::add);
+		for(Triangle triangle : unsaved) catalog.removeTriangle(triangle);
+		int restored = 0;
+		ArrayList<Long> rejected = new ArrayList<Long>();
+		for(Map.Entry<Long, Entry> saved : live.entrySet()) {
+			Entry entry = saved.getValue();
+			Triangle triangle = TriangleCache.create(entry.formula, entry.inputHyp, entry.inputOpp, entry.inputAdj, entry.inputAng,
+					entry.angleModeDegrees, canvasWidth, canvasHeight);
+			//the inputs were valid when saved, so errors only occur if the validation rules have changed since
+			if(!triangle.getErrorDescription().isEmpty()) {
+				rejected.add(saved.getKey());
+				continue;
+			}
+			catalog.addTriangle(triangle);
+			ids.put(triangle, saved.getKey());
+			restored++;
+		}
+		//the triangles that could not be restored are removed from the journal, as they are not in the catalog
+		for(Long id : rejected) {
+			writer.execute(() -> {
+				live.remove(id);
+				append(REMOVE, id, null);
+			});
+		}
+		catalog.addListener(this);
+		for(Triangle triangle : unsaved) catalog.addTriangle(triangle);
+		return restored;
+	}
+
+	@Override
+	public void triangleAdded(Triangle triangle, int index) {
+		long id = nextId++;
+		ids.put(triangle, id);
+		Entry entry = Entry.of(triangle);
+		writer.execute(() -> {
+			//an entry too large to be saved is left out of the journal, rather than stopping it
+			if(append(ADD, id, entry)) live.put(id, entry);
+		});
+	}
+
+	@Override
+	public void triangleRemoved(Triangle triangle, int index) {
+		Long id = ids.remove(triangle);
+		if(id == null) return;
+		writer.execute(() -> {
+			live.remove(id);
+			append(REMOVE, id, null);
+		});
+	}
+
+	@Override
+	public void catalogCleared(int previousSize) {
+		ids.clear();
+		writer.execute(() -> {
+			live.clear();
+			append(CLEAR, 0, null);
+		});
+	}
+
+	/**
+	 * Writes all remaining records to the journal and closes it. Waits for the writes to finish.
+	 */
+	public void close() {
+		writer.execute(() -> {
+			try {
+				if(output != null) {
+					output.flush();
+					file.getFD().sync();
+					output.close();
+				}
+			} catch(IOException e) {
+				e.printStackTrace();
+			}
+			output = null;
+		});
+		writer.shutdown();
+		try {
+			writer.awaitTermination(30, TimeUnit.SECONDS);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Appends a record to the journal, and compacts the journal if too many of its records are no longer needed.
+	 * The journal is flushed once no more records are waiting to be written. Called on the writer thread.
+	 * @return true if the record was written, false if it was too long to write or the journal has failed
+	 */
+	private boolean append(byte type, long id, Entry entry) {
+		if(failed) return false;
+		try {
+			if(!writeRecord(output, type, id, entry)) {
+				System.err.println("Triangle " + id + " is too large to save in the catalog journal.");
+				return false;
+			}
+			records++;
+			if(!compactIfNeeded() && writer.getQueue().isEmpty()) output.flush();
+			return true;
+		} catch(IOException e) {
+			//the journal stops recording rather than interrupting the user, the catalog itself is unaffected
+			failed = true;
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Rewrites the journal with only the triangles in the catalog once most of its records are not needed.
+	 * The new journal is written beside the old one, then moved over it, so a complete journal always exists.
+	 * @return true if the journal was compacted
+	 */
+	private boolean compactIfNeeded() {
+		long deadRecords = records - live.size();
+		if(failed || deadRecords <= MIN_DEAD_RECORDS_TO_COMPACT || deadRecords <= live.size()) return false;
+		try {
+			output.close();
+			Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+			try(FileOutputStream compactedFile = new FileOutputStream(compacted.toFile());
+					DataOutputStream compactedOutput = new DataOutputStream(new BufferedOutputStream(compactedFile, 1 << 16))) {
+				compactedOutput.writeInt(MAGIC);
+				for(Map.Entry<Long, Entry> saved : live.entrySet()) {
+					writeRecord(compactedOutput, ADD, saved.getKey(), saved.getValue());
+				}
+				compactedOutput.flush();
+				compactedFile.getFD().sync();
+			}
+			Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			records = live.size();
+			openForAppend();
+			return true;
+		} catch(IOException e) {
+			failed = true;
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Writes one record: its length, contents, and the CRC32 of the contents.
+	 * @return true if the record was written, false if it is longer than MAX_RECORD_LENGTH, in which case nothing is written
+	 */
+	private static boolean writeRecord(DataOutputStream to, byte type, long id, Entry entry) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		DataOutputStream contents = new DataOutputStream(bytes);
+		contents.writeByte(type);
+		contents.writeLong(id);
+		if(type == ADD) {
+			contents.writeBoolean(entry.formula);
+			contents.writeBoolean(entry.angleModeDegrees);
+			writeString(contents, entry.inputHyp);
+			writeString(contents, entry.inputOpp);
+			writeString(contents, entry.inputAdj);
+			writeString(contents, entry.inputAng);
+		}
+		if(bytes.size() > MAX_RECORD_LENGTH) return false;
+		CRC32 crc = new CRC32();
+		crc.update(bytes.toByteArray(), 0, bytes.size());
+		to.writeInt(bytes.size());
+		bytes.writeTo(to);
+		to.writeInt((int) crc.getValue());
+		return true;
+	}
+
+	/**
+	 * Writes a string as the number of its UTF-8 bytes followed by the bytes.
+	 */
+	private static void writeString(DataOutputStream to, String string) throws IOException {
+		byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+		to.writeInt(utf8.length);
+		to.write(utf8);
+	}
+
+	/**
+	 * Reads a string written by writeString().
+	 */
+	private static String readString(DataInputStream from) throws IOException {
+		int length = from.readInt();
+		if(length < 0 || length > from.available()) throw new IOException("Damaged string in catalog journal record.");
+		byte[] utf8 = new byte[length];
+		from.readFully(utf8);
+		return new String(utf8, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads every complete record of the journal, replaying them to find the triangles still in the catalog.
+	 * @return length of the journal up to the end of the last complete record, or -1 if there is no journal
+	 * @throws IOException if the journal can not be read, or is not a catalog journal
+	 */
+	private long load() throws IOException {
+		if(!Files.exists(path)) return -1;
+		try(InputStream stream = Files.newInputStream(path);
+				DataInputStream input = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+			int magic;
+			try {
+				magic = input.readInt();
+			} catch(EOFException e) {
+				return -1;
+			}
+			if(magic != MAGIC) throw new IOException(path + " is not a triangle catalog journal.");
+
+			long validLength = 4;
+			byte[] buffer = new byte[256];
+			CRC32 crc = new CRC32();
+			while(true) {
+				//stopping at the first incomplete or damaged record
+				int length;
+				try {
+					length = input.readInt();
+					if(length < 9 || length > MAX_RECORD_LENGTH) break;
+					if(buffer.length < length) buffer = new byte[Math.max(length, buffer.length * 2)];
+					input.readFully(buffer, 0, length);
+					crc.reset();
+					crc.update(buffer, 0, length);
+					if(input.readInt() != (int) crc.getValue()) break;
+				} catch(EOFException e) {
+					break;
+				}
+				replay(new DataInputStream(new ByteArrayInputStream(buffer, 0, length)));
+				validLength += 4 + length + 4;
+				records++;
+			}
+			return validLength;
+		}
+	}
+
+	/**
+	 * Applies one record read from the journal to the triangles in the catalog.
+	 */
+	private void replay(DataInputStream record) throws IOException {
+		byte type = record.readByte();
+		long id = record.readLong();
+		nextId = Math.max(nextId, id + 1);
+		if(type == ADD) {
+			boolean formula = record.readBoolean();
+			boolean degrees = record.readBoolean();
+			live.put(id, new Entry(formula, degrees, readString(record), readString(record), readString(record), readString(record)));
+		} else if(type == REMOVE) {
+			live.remove(id);
+		} else if(type == CLEAR) {
+			live.clear();
+		}
+	}
+
+	/**
+	 * Creates an empty journal at the path.
+	 */
+	private static void writeNewJournal(Path path) throws IOException {
+		try(DataOutputStream newJournal = new DataOutputStream(Files.newOutputStream(path))) {
+			newJournal.writeInt(MAGIC);
+		}
+	}
+
+	/**
+	 * Opens the journal to append records to.
+	 */
+	private void openForAppend() throws IOException {
+		file = new FileOutputStream(path.toFile(), true);
+		output = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+	}
+}
@@ -0,0 +1,77 @@
+package application;
+
+import java.util.Collections;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * Read-only observable list of the triangles in a TriangleCatalog, in the same order, for display in a ListView.
+ * The triangles are not copied into another list: each one is looked up in the catalog when it is needed, and
+ * the changes made to the catalog are passed on to the ListView as they happen. Only the rows of the ListView
+ * which are visible are ever looked up, so the catalog can be of any size.
+ */
+public class CatalogListModel extends ObservableListBase<Triangle> implements TriangleCatalog.Listener {
+	private final TriangleCatalog catalog;
+	private int size;
+
+	/**
+	 * CatalogListModel constructor. Starts following the changes made to the catalog.
+	 * @param catalog - catalog of the triangles to list
+	 */
+	CatalogListModel(TriangleCatalog catalog){
+		this.catalog = catalog;
+		this.size = catalog.getListSize();
+		catalog.addListener(this);
+	}
+
+	@Override
+	public Triangle get(int index) {
+		if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+		return catalog.getTriangle(index);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void triangleAdded(Triangle triangle, int index) {
+		size++;
+		//adds that happen inside of runAsSingleChange are combined into one change
+		beginChange();
+		nextAdd(index, index + 1);
+		endChange();
+	}
+
+	@Override
+	public void triangleRemoved(Triangle triangle, int index) {
+		size--;
+		beginChange();
+		nextRemove(index, triangle);
+		endChange();
+	}
+
+	@Override
+	public void catalogCleared(int previousSize) {
+		size = 0;
+		//the removed triangles are no longer in the catalog, and the ListView only needs to know how many there were
+		beginChange();
+		nextRemove(0, Collections.nCopies(previousSize, (Triangle) null));
+		endChange();
+	}
+
+	/**
+	 * Runs changes to the catalog (ie. adding many triangles) as a single change to the list, so that
+	 * the ListView is only updated once.
+	 * @param changes - the changes to make to the catalog
+	 */
+	void runAsSingleChange(Runnable changes) {
+		beginChange();
+		try {
+			changes.run();
+		} finally {
+			endChange();
+		}
+	}
+}
@@ -0,0 +1,338 @@
+package application;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A Formula compiled into a tree of MethodHandles, so that it can be evaluated quickly over columns of
+ * data: each variable of the formula is bound to a column of values, and the formula is evaluated once for
+ * every row. The rows are split into chunks which are evaluated in parallel on a ForkJoinPool.
+ *
+ * Rows whose value is not a finite number (ie. the aSin of a value above 1, or the square root of a negative
+ * value) are reported as domain errors. Only the rows with errors are ever looked at again, to describe which
+ * part of the formula went wrong.
+ *
+ * A compiled formula is immutable, and may be evaluated on any number of threads at once.
+ */
+public final class CompiledFormula {
+	/**Number of rows evaluated together in each task*/
+	private static final int CHUNK_SIZE = 65536;
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType UNARY = MethodType.methodType(double.class, double.class);
+	private static final MethodType BINARY = MethodType.methodType(double.class, double.class, double.class);
+	/**Type of the handle compiled from each part of the formula: (columns, row) -> value*/
+	private static final MethodType ROW = MethodType.methodType(double.class, double[][].class, int.class);
+	private static final MethodHandle LOAD, ADD, SUBTRACT, MULTIPLY, DIVIDE, SQUARE, TO_RADIANS, TO_DEGREES;
+	static {
+		try {
+			LOAD = LOOKUP.findStatic(CompiledFormula.class, "load", MethodType.methodType(double.class, double[][].class, int.class, int.class));
+			ADD = LOOKUP.findStatic(CompiledFormula.class, "add", BINARY);
+			SUBTRACT = LOOKUP.findStatic(CompiledFormula.class, "subtract", BINARY);
+			MULTIPLY = LOOKUP.findStatic(CompiledFormula.class, "multiply", BINARY);
+			DIVIDE = LOOKUP.findStatic(CompiledFormula.class, "divide", BINARY);
+			SQUARE = LOOKUP.findStatic(CompiledFormula.class, "square", UNARY);
+			TO_RADIANS = LOOKUP.findStatic(Math.class, "toRadians", UNARY);
+			TO_DEGREES = LOOKUP.findStatic(Math.class, "toDegrees", UNARY);
+		} catch(ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Formula formula;
+	private final boolean angleModeDegrees;
+	/**Names of the variables in the formula, in the order of their columns*/
+	private final String[] variables;
+	private final MethodHandle evaluator;
+
+	/**
+	 * CompiledFormula constructor. Compiles the formula, compiling each part shared by several parts
+	 * of the formula only once.
+	 * @param formula - the formula to compile
+	 * @param angleModeDegrees - degree mode of the angles in the formula - true if angles given to sin, cos
+	 * and tan are in degrees and aSin, aCos and aTan should give degrees, false for radians
+	 */
+	CompiledFormula(Formula formula, boolean angleModeDegrees){
+		this.formula = formula;
+		this.angleModeDegrees = angleModeDegrees;
+		LinkedHashMap<String, Integer> columns = new LinkedHashMap<String, Integer>();
+		this.evaluator = compile(formula, columns, new IdentityHashMap<Formula, MethodHandle>());
+		this.variables = columns.keySet().toArray(new String[0]);
+	}
+
+	/**
+	 * Compiles a part of the formula into a handle taking the columns and a row, giving the value of the part at that row.
+	 */
+	private MethodHandle compile(Formula part, Map<String, Integer> columns, IdentityHashMap<Formula, MethodHandle> compiled) {
+		MethodHandle handle = compiled.get(part);
+		if(handle != null) return handle;
+		switch(part.getOperation()) {
+		case VARIABLE:
+			//each variable is given the next column the first time it is seen
+			Integer column = columns.computeIfAbsent(part.getName(), name -> columns.size());
+			handle = MethodHandles.insertArguments(LOAD, 2, column.intValue());
+			break;
+		case CONSTANT:
+			handle = MethodHandles.dropArguments(MethodHandles.constant(double.class, part.getValue()), 0, double[][].class, int.class);
+			break;
+		default:
+			MethodHandle operation = operationHandle(part.getOperation());
+			if(part.getOperation().isBinary()) {
+				//(columns, row, columns, row) -> value, then using the same columns and row for both parts
+				handle = MethodHandles.collectArguments(operation, 1, compile(part.getRight(), columns, compiled));
+				handle = MethodHandles.collectArguments(handle, 0, compile(part.getLeft(), columns, compiled));
+				handle = MethodHandles.permuteArguments(handle, ROW, 0, 1, 0, 1);
+			} else {
+				handle = MethodHandles.collectArguments(operation, 0, compile(part.getLeft(), columns, compiled));
+			}
+			break;
+		}
+		compiled.put(part, handle);
+		return handle;
+	}
+
+	/**
+	 * @return handle taking the values of the parts of the operation and giving it's value
+	 */
+	private MethodHandle operationHandle(Formula.Operation operation) {
+		try {
+			switch(operation) {
+			case ADD: return ADD;
+			case SUBTRACT: return SUBTRACT;
+			case MULTIPLY: return MULTIPLY;
+			case DIVIDE: return DIVIDE;
+			case SQUARE: return SQUARE;
+			case SQRT: return LOOKUP.findStatic(Math.class, "sqrt", UNARY);
+			default:
+				//the trigonometric functions are named the same as in Math, other than their capitalization
+				MethodHandle function = LOOKUP.findStatic(Math.class, operation.name().toLowerCase(), UNARY);
+				if(!angleModeDegrees) return function;
+				if(operation == Formula.Operation.SIN || operation == Formula.Operation.COS || operation == Formula.Operation.TAN) {
+					return MethodHandles.filterArguments(function, 0, TO_RADIANS);
+				}
+				return MethodHandles.filterReturnValue(function, TO_DEGREES);
+			}
+		} catch(ReflectiveOperationException e) {
+			throw new IllegalStateException("Math has no method for " + operation, e);
+		}
+	}
+
+	/**
+	 * @return names of the variables in the formula, in the order their columns are given to evaluate(double[][])
+	 */
+	public String[] getVariables() {
+		return variables.clone();
+	}
+
+	/**
+	 * @return the formula that was compiled
+	 */
+	public Formula getFormula() {
+		return formula;
+	}
+
+	/**
+	 * Evaluates the formula for every row of the columns, binding each variable to the column with it's name.
+	 * @param columns - the column of values of each variable, by name. Every column must have the same length.
+	 * @return the value of the formula for every row, and the rows that could not be evaluated
+	 * @throws IllegalArgumentException if there is no column for a variable, or the columns are not the same length
+	 */
+	public Evaluation evaluate(Map<String, double[]> columns) {
+		double[][] ordered = new double[variables.length][];
+		for(int i = 0; i < variables.length; i++) {
+			ordered[i] = columns.get(variables[i]);
+			if(ordered[i] == null) throw new IllegalArgumentException("No column of values given for the variable " + variables[i]);
+		}
+		return evaluate(ordered);
+	}
+
+	/**
+	 * Evaluates the formula for every row of the columns on the common ForkJoinPool.
+	 * @param columns - the column of values of each variable, in the order given by getVariables()
+	 * @return the value of the formula for every row, and the rows that could not be evaluated
+	 * @throws IllegalArgumentException if there are not enough columns, or the columns are not the same length
+	 */
+	public Evaluation evaluate(double[][] columns) {
+		return evaluate(columns, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Evaluates the formula for every row of the columns, in chunks of rows evaluated in parallel.
+	 * @param columns - the column of values of each variable, in the order given by getVariables()
+	 * @param pool - the pool to evaluate chunks of rows on
+	 * @return the value of the formula for every row, and the rows that could not be evaluated
+	 * @throws IllegalArgumentException if there are not enough columns, or the columns are not the same length
+	 */
+	public Evaluation evaluate(double[][] columns, ForkJoinPool pool) {
+		if(columns.length < variables.length) throw new IllegalArgumentException(variables.length + " columns are needed, not " + columns.length);
+		//a formula of only constants has no columns, and so is evaluated once
+		int rows = variables.length == 0 ? 1 : columns[0].length;
+		for(int i = 0; i < variables.length; i++) {
+			if(columns[i].length != rows) throw new IllegalArgumentException("The column of " + variables[i] + " has " + columns[i].length + " rows, not " + rows);
+		}
+
+		double[] values = new double[rows];
+		ArrayList<ForkJoinTask<int[]>> chunks = new ArrayList<ForkJoinTask<int[]>>();
+		for(int start = 0; start < rows; start += CHUNK_SIZE) {
+			int from = start, to = Math.min(rows, start + CHUNK_SIZE);
+			chunks.add(pool.submit(() -> evaluateChunk(columns, values, from, to)));
+		}
+		//joining the rows with errors of each chunk in order, so they stay sorted
+		int[] errorRows = new int[0];
+		for(ForkJoinTask<int[]> chunk : chunks) {
+			int[] chunkErrors = chunk.join();
+			if(chunkErrors.length == 0) continue;
+			int previous = errorRows.length;
+			errorRows = Arrays.copyOf(errorRows, previous + chunkErrors.length);
+			System.arraycopy(chunkErrors, 0, errorRows, previous, chunkErrors.length);
+		}
+		return new Evaluation(columns, values, errorRows);
+	}
+
+	/**
+	 * Evaluates the formula for the rows of one chunk.
+	 * @return the rows of the chunk which have no finite value
+	 */
+	private int[] evaluateChunk(double[][] columns, double[] values, int from, int to) {
+		int[] errorRows = new int[0];
+		int errors = 0;
+		MethodHandle evaluator = this.evaluator;
+		try {
+			for(int row = from; row < to; row++) {
+				double value = (double) evaluator.invokeExact(columns, row);
+				values[row] = value;
+				if(Double.isFinite(value)) continue;
+				if(errors == errorRows.length) errorRows = Arrays.copyOf(errorRows, Math.max(16, errors * 2));
+				errorRows[errors++] = row;
+			}
+		} catch(RuntimeException | Error e) {
+			throw e;
+		} catch(Throwable e) {
+			//the handles only call methods of Math and this class, which throw no checked exceptions
+			throw new IllegalStateException(e);
+		}
+		return Arrays.copyOf(errorRows, errors);
+	}
+
+	/**
+	 * Evaluates the formula for a single row without the compiled handles, to find the first part of the
+	 * formula that went wrong.
+	 * @param error - set to the description of the first part that went wrong, if it is still null
+	 * @return value of the part at the row
+	 */
+	private double describe(Formula part, double[][] columns, int row, String[] error) {
+		switch(part.getOperation()) {
+		case VARIABLE:
+			double variable = columns[Arrays.asList(variables).indexOf(part.getName())][row];
+			if(!Double.isFinite(variable) && error[0] == null) error[0] = part.getName() + " is " + variable;
+			return variable;
+		case CONSTANT:
+			return part.getValue();
+		default:
+			break;
+		}
+		double a = describe(part.getLeft(), columns, row, error);
+		double b = part.getRight() == null ? 0 : describe(part.getRight(), columns, row, error);
+		//the parts are given to the trigonometric functions the same way the compiled handles give them
+		Formula.Operation operation = part.getOperation();
+		boolean angleIn = operation == Formula.Operation.SIN || operation == Formula.Operation.COS || operation == Formula.Operation.TAN;
+		double value = Formula.apply(operation, angleModeDegrees && angleIn ? Math.toRadians(a) : a, b);
+		if(angleModeDegrees && !angleIn && operation.ordinal() >= Formula.Operation.ASIN.ordinal()) value = Math.toDegrees(value);
+		if(error[0] == null && Double.isFinite(a) && Double.isFinite(b) && !Double.isFinite(value)) {
+			switch(operation) {
+			case SQRT: error[0] = Formula.of(operation, Formula.constant(a)) + " is undefined, as " + Formula.constant(a) + " is negative"; break;
+			case ASIN: case ACOS: error[0] = Formula.of(operation, Formula.constant(a)) + " is undefined, as " + Formula.constant(a) + " is not between -1 and 1"; break;
+			case DIVIDE: error[0] = part + " divides by 0"; break;
+			default: error[0] = part + " is " + value; break;
+			}
+		}
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return formula.toString();
+	}
+
+	private static double load(double[][] columns, int row, int column) {
+		return columns[column][row];
+	}
+
+	private static double add(double a, double b) {
+		return a + b;
+	}
+
+	private static double subtract(double a, double b) {
+		return a - b;
+	}
+
+	private static double multiply(double a, double b) {
+		return a * b;
+	}
+
+	private static double divide(double a, double b) {
+		return a / b;
+	}
+
+	private static double square(double a) {
+		return a * a;
+	}
+
+	/**
+	 * Result of evaluating a compiled formula over columns of values: the value of every row, and the
+	 * rows which could not be evaluated (domain errors), which have a value of NaN or infinity.
+	 */
+	public final class Evaluation {
+		private final double[][] columns;
+		private final double[] values;
+		private final int[] errorRows;
+
+		private Evaluation(double[][] columns, double[] values, int[] errorRows) {
+			this.columns = columns;
+			this.values = values;
+			this.errorRows = errorRows;
+		}
+
+		/**
+		 * @return the value of the formula for each row (not copied, as it may be very large)
+		 */
+		public double[] getValues() {
+			return values;
+		}
+
+		/**
+		 * @return number of rows which could not be evaluated
+		 */
+		public int getErrorCount() {
+			return errorRows.length;
+		}
+
+		/**
+		 * @return the rows which could not be evaluated, in increasing order
+		 */
+		public int[] getErrorRows() {
+			return errorRows.clone();
+		}
+
+		/**
+		 * Describes why a row could not be evaluated (ie. "aSin(1.2) is undefined, as 1.2 is not between -1 and 1").
+		 * The row is evaluated again, so only rows with errors should be described.
+		 * @param row - the row to describe
+		 * @return description of the first part of the formula that went wrong, or null if the row has no error
+		 */
+		public String describeError(int row) {
+			if(Double.isFinite(values[row])) return null;
+			String[] error = new String[1];
+			describe(formula, columns, row, error);
+			return error[0] == null ? "the result is " + values[row] : error[0];
+		}
+	}
+}
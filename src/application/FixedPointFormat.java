@@ -0,0 +1,176 @@
+package application;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Formats doubles with exactly 2 decimal places, giving the same text as a DecimalFormat with the
+ * pattern "#0.00" in the default locale.
+ * Unlike a DecimalFormat, it can be shared between threads, and writes into a StringBuilder or
+ * char array without creating any objects.
+ */
+public final class FixedPointFormat {
+	/**Largest number of characters written for any double (sign, 309 integer digits, separator and 2 decimals)*/
+	public static final int MAX_LENGTH = 1 + 309 + 1 + 2;
+
+	/**Values at or above this size are formatted using BigDecimal. Under it, the half-even rounding of the exact
+	 * value done by the fast path gives the same result as DecimalFormat's rounding of the shortest decimal text.*/
+	private static final double FAST_PATH_LIMIT = 1e13;
+
+	private static final char DECIMAL_SEPARATOR, MINUS_SIGN, ZERO_DIGIT;
+	private static final String NAN, INFINITY;
+	static {
+		//using the symbols of the default locale, the same as a new DecimalFormat would
+		DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance();
+		DECIMAL_SEPARATOR = symbols.getDecimalSeparator();
+		MINUS_SIGN = symbols.getMinusSign();
+		ZERO_DIGIT = symbols.getZeroDigit();
+		NAN = symbols.getNaN();
+		INFINITY = symbols.getInfinity();
+	}
+
+	/**
+	 * Private constructor, as this class only contains static methods.
+	 */
+	private FixedPointFormat() {
+	}
+
+	/**
+	 * Formats the value into a new String with 2 decimal places.
+	 * @param value - value to format
+	 * @return the formatted value (ie. "12.35")
+	 */
+	public static String format(double value) {
+		//values under the fast path limit need at most 18 characters
+		char[] chars = new char[Math.abs(value) < FAST_PATH_LIMIT ? 18 : MAX_LENGTH];
+		return new String(chars, 0, write(value, chars, 0));
+	}
+
+	/**
+	 * Appends the value with 2 decimal places to the end of the StringBuilder.
+	 * @param builder - StringBuilder to append to
+	 * @param value - value to format
+	 * @return the same StringBuilder, to allow for chaining
+	 */
+	public static StringBuilder append(StringBuilder builder, double value) {
+		if(Double.isNaN(value)) return builder.append(NAN);
+		if(isNegative(value)) builder.append(MINUS_SIGN);
+		if(Double.isInfinite(value)) return builder.append(INFINITY);
+
+		double magnitude = Math.abs(value);
+		if(magnitude >= FAST_PATH_LIMIT) return appendLarge(builder, magnitude);
+		long cents = roundToCents(magnitude);
+
+		//appending the whole part from the most significant digit down, then the 2 decimals
+		long whole = cents / 100;
+		long divisor = 1;
+		while(divisor <= whole / 10) divisor *= 10;
+		for(; divisor > 0; divisor /= 10) {
+			builder.append((char) (ZERO_DIGIT + (whole / divisor) % 10));
+		}
+		int decimals = (int) (cents % 100);
+		return builder.append(DECIMAL_SEPARATOR)
+				.append((char) (ZERO_DIGIT + decimals / 10))
+				.append((char) (ZERO_DIGIT + decimals % 10));
+	}
+
+	/**
+	 * Writes the value with 2 decimal places into the char array.
+	 * @param value - value to format
+	 * @param destination - char array to write into, must have room for MAX_LENGTH characters
+	 * (or fewer if the value is known to be small)
+	 * @param offset - index in the array of the first character to write
+	 * @return number of characters written
+	 */
+	public static int write(double value, char[] destination, int offset) {
+		int position = offset;
+		if(Double.isNaN(value)) return writeString(NAN, destination, position) - offset;
+		if(isNegative(value)) destination[position++] = MINUS_SIGN;
+		if(Double.isInfinite(value)) return writeString(INFINITY, destination, position) - offset;
+
+		double magnitude = Math.abs(value);
+		if(magnitude >= FAST_PATH_LIMIT) {
+			//values this large are rare, so the StringBuilder used here is acceptable
+			return writeString(appendLarge(new StringBuilder(), magnitude).toString(), destination, position) - offset;
+		}
+		long cents = roundToCents(magnitude);
+
+		//counting the digits of the whole part so they can be written from the last digit backwards
+		long whole = cents / 100;
+		int wholeDigits = 1;
+		for(long remaining = whole / 10; remaining > 0; remaining /= 10) wholeDigits++;
+		for(int i = position + wholeDigits - 1; i >= position; i--) {
+			destination[i] = (char) (ZERO_DIGIT + whole % 10);
+			whole /= 10;
+		}
+		position += wholeDigits;
+		int decimals = (int) (cents % 100);
+		destination[position++] = DECIMAL_SEPARATOR;
+		destination[position++] = (char) (ZERO_DIGIT + decimals / 10);
+		destination[position++] = (char) (ZERO_DIGIT + decimals % 10);
+		return position - offset;
+	}
+
+	/**
+	 * Rounds a non-negative value under FAST_PATH_LIMIT to a whole number of hundredths, exactly as
+	 * half-even rounding of the exact value would. The product value*100 is rounded, but its rounding
+	 * error is recovered exactly with a fused multiply-add, so ties and near-ties are decided correctly.
+	 * @param magnitude - non-negative value to round
+	 * @return the value multiplied by 100 and rounded to the nearest whole number, ties to even
+	 */
+	private static long roundToCents(double magnitude) {
+		double scaled = magnitude * 100;
+		double error = Math.fma(magnitude, 100, -scaled);
+		double floor = Math.floor(scaled);
+		long cents = (long) floor;
+
+		//the exact product is scaled + error, so its distance from the halfway point is (scaled - floor - 0.5) + error
+		double fromHalf = (scaled - floor - 0.5) + error;
+		if(fromHalf > 0 || (fromHalf == 0 && (cents & 1) == 1)) cents++;
+		return cents;
+	}
+
+	/**
+	 * Appends a value at or above FAST_PATH_LIMIT with 2 decimal places. Like DecimalFormat, this rounds the
+	 * shortest decimal text of the double (as given by Double.toString), deciding ties by the exact value.
+	 * @param builder - StringBuilder to append to
+	 * @param magnitude - non-negative value to format
+	 * @return the same StringBuilder
+	 */
+	private static StringBuilder appendLarge(StringBuilder builder, double magnitude) {
+		BigDecimal shortest = new BigDecimal(Double.toString(magnitude));
+		RoundingMode mode = RoundingMode.HALF_EVEN;
+		if(shortest.scale() == 3 && shortest.unscaledValue().mod(BigInteger.TEN).intValue() == 5) {
+			//the shortest text is halfway between two hundredths, so the exact value decides the direction
+			int comparison = new BigDecimal(magnitude).compareTo(shortest);
+			if(comparison > 0) mode = RoundingMode.UP;
+			else if(comparison < 0) mode = RoundingMode.DOWN;
+		}
+		String digits = shortest.setScale(2, mode).unscaledValue().toString();
+		for(int i = 0; i < digits.length() - 2; i++) {
+			builder.append((char) (ZERO_DIGIT + digits.charAt(i) - '0'));
+		}
+		return builder.append(DECIMAL_SEPARATOR)
+				.append((char) (ZERO_DIGIT + digits.charAt(digits.length() - 2) - '0'))
+				.append((char) (ZERO_DIGIT + digits.charAt(digits.length() - 1) - '0'));
+	}
+
+	/**
+	 * @param value - value to check
+	 * @return true if the value has a negative sign (including -0.0), as DecimalFormat shows a minus sign for these
+	 */
+	private static boolean isNegative(double value) {
+		return value < 0 || (value == 0 && 1/value < 0);
+	}
+
+	/**
+	 * Copies the characters of a String into the char array.
+	 * @return index after the last character written
+	 */
+	private static int writeString(String text, char[] destination, int position) {
+		text.getChars(0, text.length(), destination, position);
+		return position + text.length();
+	}
+}
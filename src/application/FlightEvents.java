@@ -0,0 +1,122 @@
+package application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the operations of the program, so that a recording shows what the program was
+ * doing (which triangle it was solving, what it was drawing and how large the catalog was) next to the JVM's own
+ * events such as garbage collections. The events are only written while a recording with them enabled is running,
+ * and cost almost nothing otherwise. The profile jfr/triangle.jfc enables all of them, ie. by starting the program
+ * with -XX:StartFlightRecording:settings=jfr/triangle.jfc,filename=triangle.jfr
+ *
+ * Each event is started with begin() before the operation and given it's values and committed after it, so it's
+ * duration is the duration of the operation. The values are only set if shouldCommit() is true, so that they are
+ * not built when the event is not being recorded.
+ */
+public final class FlightEvents {
+	/**
+	 * Private constructor, as this class only contains the event classes.
+	 */
+	private FlightEvents() {
+	}
+
+	/**
+	 * Solving for the missing values of a triangle, either as values or as formulas.
+	 */
+	@Name("application.TriangleSolve")
+	@Label("Triangle Solve")
+	@Category({"Triangle Calculator", "Solver"})
+	@Description("Solving for the missing side lengths/angle of a triangle")
+	@StackTrace(false)
+	static final class Solve extends Event {
+		@Label("Known Pair")
+		@Description("The two values entered, or null if there were not exactly two")
+		String knownPair;
+
+		@Label("Degrees")
+		@Description("Whether the angle is in degrees rather than radians")
+		boolean degrees;
+
+		@Label("Formula")
+		@Description("Whether the triangle was solved as formulas rather than values")
+		boolean formula;
+
+		@Label("Valid")
+		@Description("Whether the values entered could be solved for")
+		boolean valid;
+
+		@Label("Result")
+		@Description("The solved side lengths/angle (or formulas), in the order h, o, a, θ")
+		String result;
+	}
+
+	/**
+	 * Drawing a triangle and it's labels on the main canvas of the GUI.
+	 */
+	@Name("application.CanvasRender")
+	@Label("Canvas Render")
+	@Category({"Triangle Calculator", "GUI"})
+	@Description("Drawing the current triangle and it's labels on the main canvas")
+	@StackTrace(false)
+	static final class Render extends Event {
+		@Label("Target")
+		@Description("Drawing on the main canvas: main (the current triangle) or overlay (every triangle in the catalog)")
+		String target;
+
+		@Label("Width")
+		double width;
+
+		@Label("Height")
+		double height;
+
+		@Label("Label Count")
+		@Description("Number of labels written on the canvas")
+		int labelCount;
+	}
+
+	/**
+	 * Adding to, removing from or clearing the catalog of triangles.
+	 */
+	@Name("application.CatalogMutation")
+	@Label("Catalog Mutation")
+	@Category({"Triangle Calculator", "Catalog"})
+	@Description("Adding to, removing from or clearing the catalog of triangles, not including notifying it's listeners")
+	@StackTrace(false)
+	static final class CatalogMutation extends Event {
+		@Label("Operation")
+		@Description("add, remove or clear")
+		String operation;
+
+		@Label("Index")
+		@Description("Index of the triangle added or removed, or -1 when clearing")
+		int index;
+
+		@Label("Size After")
+		@Description("Number of triangles in the catalog after the change")
+		int sizeAfter;
+	}
+
+	/**
+	 * Switching the window of the program to another scene, including building the scene the first time.
+	 */
+	@Name("application.SceneSwitch")
+	@Label("Scene Switch")
+	@Category({"Triangle Calculator", "GUI"})
+	@Description("Switching to another scene of the program, and building it if it was not built before")
+	static final class SceneSwitch extends Event {
+		@Label("From")
+		String from;
+
+		@Label("To")
+		String to;
+
+		@Label("Built")
+		@Description("Whether the scene was built, rather than reused from an earlier switch")
+		boolean built;
+	}
+}
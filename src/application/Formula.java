@@ -0,0 +1,376 @@
+package application;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable algebraic formula, stored as a tree of operations on variables and constants. Formulas are
+ * hash-consed: every formula is created through the static methods of this class, which give back the
+ * formula already created with the same operation and parts if there is one. Equal formulas are therefore
+ * always the same object, subexpressions used by several formulas (ie. the adjacent side used to solve the
+ * hypotenuse) are only stored once, and formulas can be compared and hashed without walking the tree.
+ *
+ * Formulas are only turned into text when they are displayed, in the same format FormulaTriangle has always
+ * displayed them (ie. "sqrt(h² - o²)"). Trigonometric functions work in radians when evaluated.
+ *
+ * Formulas may be created and used on any thread.
+ */
+public final class Formula {
+	/**
+	 * Operations a formula can be made of. Each stores how it is written and how tightly it binds to it's
+	 * parts, so that parentheses are only written where they are needed.
+	 */
+	public enum Operation {
+		VARIABLE("", 4),
+		CONSTANT("", 4),
+		ADD(" + ", 1),
+		SUBTRACT(" - ", 1),
+		MULTIPLY(" * ", 2),
+		DIVIDE(" / ", 2),
+		SQUARE("²", 3),
+		SQRT("sqrt", 4),
+		SIN("sin", 4),
+		COS("cos", 4),
+		TAN("tan", 4),
+		ASIN("aSin", 4),
+		ACOS("aCos", 4),
+		ATAN("aTan", 4);
+
+		private final String symbol;
+		private final int precedence;
+
+		/**
+		 * Operation constructor.
+		 * @param symbol - text written between the parts of a binary operation, after the part of SQUARE,
+		 * or before the parentheses of a function
+		 * @param precedence - how tightly the operation binds to it's parts (higher binds tighter)
+		 */
+		Operation(String symbol, int precedence){
+			this.symbol = symbol;
+			this.precedence = precedence;
+		}
+
+		/**
+		 * @return true if the operation has two parts
+		 */
+		public boolean isBinary() {
+			return precedence <= 2;
+		}
+
+		/**
+		 * @return true if the operation has one part
+		 */
+		public boolean isUnary() {
+			return precedence == 3 || (precedence == 4 && this != VARIABLE && this != CONSTANT);
+		}
+	}
+
+	/**Every formula that is still in use, so that equal formulas are only ever created once. The formulas
+	 * are held weakly, so formulas no longer used by any triangle can be garbage collected.*/
+	private static final WeakHashMap<Formula, WeakReference<Formula>> INTERNED = new WeakHashMap<Formula, WeakReference<Formula>>();
+
+	private final Operation operation;
+	private final String name;
+	private final double value;
+	private final Formula left, right;
+	private final int hash;
+
+	/**
+	 * Formula constructor. Only used by intern(), which gives back the existing formula if there is one.
+	 */
+	private Formula(Operation operation, String name, double value, Formula left, Formula right) {
+		this.operation = operation;
+		this.name = name;
+		this.value = value;
+		this.left = left;
+		this.right = right;
+		//the parts are already interned, so their identity hash codes are enough to tell them apart
+		int hash = operation.hashCode();
+		hash = hash * 31 + (name == null ? 0 : name.hashCode());
+		hash = hash * 31 + Double.hashCode(value);
+		hash = hash * 31 + System.identityHashCode(left);
+		this.hash = hash * 31 + System.identityHashCode(right);
+	}
+
+	/**
+	 * Gives back the formula equal to the one given that was created first, so every formula is unique.
+	 */
+	private static Formula intern(Formula formula) {
+		synchronized(INTERNED) {
+			WeakReference<Formula> existing = INTERNED.get(formula);
+			Formula interned = existing == null ? null : existing.get();
+			if(interned != null) return interned;
+			INTERNED.put(formula, new WeakReference<Formula>(formula));
+			return formula;
+		}
+	}
+
+	/**
+	 * @param name - name of the variable, written as it is
+	 * @return formula of a single variable
+	 */
+	public static Formula variable(String name) {
+		if(name == null || name.isEmpty()) throw new IllegalArgumentException("A variable must have a name");
+		return intern(new Formula(Operation.VARIABLE, name, 0, null, null));
+	}
+
+	/**
+	 * @param value - value of the constant
+	 * @return formula of a single constant
+	 */
+	public static Formula constant(double value) {
+		//treating 0.0 and -0.0 as the same constant, so they simplify the same way
+		return intern(new Formula(Operation.CONSTANT, null, value == 0 ? 0 : value, null, null));
+	}
+
+	/**
+	 * @param operation - a binary operation (ADD, SUBTRACT, MULTIPLY or DIVIDE)
+	 * @param left - formula on the left of the operation
+	 * @param right - formula on the right of the operation
+	 * @return formula of the operation on the two formulas
+	 */
+	public static Formula of(Operation operation, Formula left, Formula right) {
+		if(!operation.isBinary()) throw new IllegalArgumentException(operation + " does not have two parts");
+		if(left == null || right == null) throw new IllegalArgumentException(operation + " is missing a part");
+		return intern(new Formula(operation, null, 0, left, right));
+	}
+
+	/**
+	 * @param operation - a unary operation (SQUARE or a function such as SQRT)
+	 * @param part - formula the operation is applied to
+	 * @return formula of the operation on the formula
+	 */
+	public static Formula of(Operation operation, Formula part) {
+		if(!operation.isUnary()) throw new IllegalArgumentException(operation + " does not have one part");
+		if(part == null) throw new IllegalArgumentException(operation + " is missing a part");
+		return intern(new Formula(operation, null, 0, part, null));
+	}
+
+	/**
+	 * @return formula of this formula plus the other
+	 */
+	public Formula plus(Formula other) {
+		return of(Operation.ADD, this, other);
+	}
+
+	/**
+	 * @return formula of this formula minus the other
+	 */
+	public Formula minus(Formula other) {
+		return of(Operation.SUBTRACT, this, other);
+	}
+
+	/**
+	 * @return formula of this formula multiplied by the other
+	 */
+	public Formula times(Formula other) {
+		return of(Operation.MULTIPLY, this, other);
+	}
+
+	/**
+	 * @return formula of this formula divided by the other
+	 */
+	public Formula dividedBy(Formula other) {
+		return of(Operation.DIVIDE, this, other);
+	}
+
+	/**
+	 * @return formula of this formula squared
+	 */
+	public Formula squared() {
+		return of(Operation.SQUARE, this);
+	}
+
+	/**
+	 * @param function - the function (ie. SQRT or SIN) to apply
+	 * @return formula of the function applied to this formula
+	 */
+	public Formula in(Operation function) {
+		return of(function, this);
+	}
+
+	/**
+	 * Simplifies the formula by evaluating arithmetic on constants, and removing operations that do not
+	 * change the value (ie. adding 0 or multiplying by 1). Square roots of squares (and squares of square
+	 * roots) are kept, as they are only the value itself when it is not negative, and the values of the
+	 * variables may be negative.
+	 * @return the simplified formula, which is this formula if it can not be simplified
+	 */
+	public Formula simplify() {
+		if(left == null) return this;
+		Formula a = left.simplify();
+		Formula b = right == null ? null : right.simplify();
+
+		//evaluating arithmetic on constants. Trigonometric functions are left as they are, as their results
+		//are rarely short enough to be easier to read than the function (ie. aSin(1) rather than 1.5707963267948966)
+		if(operation.ordinal() <= Operation.SQRT.ordinal() && a.operation == Operation.CONSTANT && (b == null || b.operation == Operation.CONSTANT)) {
+			double result = apply(operation, a.value, b == null ? 0 : b.value);
+			//keeping the operation if it has no finite result (ie. dividing by 0), so the formula still shows the problem
+			if(Double.isFinite(result)) return constant(result);
+		}
+
+		switch(operation) {
+		case ADD:
+			if(a.isConstant(0)) return b;
+			if(b.isConstant(0)) return a;
+			break;
+		case SUBTRACT:
+			if(b.isConstant(0)) return a;
+			if(a == b) return constant(0);
+			break;
+		case MULTIPLY:
+			if(a.isConstant(1)) return b;
+			if(b.isConstant(1)) return a;
+			if(a.isConstant(0) || b.isConstant(0)) return constant(0);
+			break;
+		case DIVIDE:
+			if(b.isConstant(1)) return a;
+			if(a == b && !a.isConstant(0)) return constant(1);
+			break;
+		default:
+			break;
+		}
+		//equal formulas are the same object, so nothing needs to be created if no part changed
+		if(a == left && b == right) return this;
+		return b == null ? of(operation, a) : of(operation, a, b);
+	}
+
+	/**
+	 * Evaluates the formula.
+	 * @param variables - gives the value of each variable, by name
+	 * @return value of the formula
+	 */
+	public double evaluate(ToDoubleFunction<String> variables) {
+		switch(operation) {
+		case VARIABLE: return variables.applyAsDouble(name);
+		case CONSTANT: return value;
+		default: return apply(operation, left.evaluate(variables), right == null ? 0 : right.evaluate(variables));
+		}
+	}
+
+	/**
+	 * Applies an operation to the values of it's parts.
+	 * @param operation - any operation other than VARIABLE and CONSTANT
+	 * @param a - value of the left (or only) part
+	 * @param b - value of the right part, ignored by unary operations
+	 * @return value of the operation
+	 */
+	static double apply(Operation operation, double a, double b) {
+		switch(operation) {
+		case ADD: return a + b;
+		case SUBTRACT: return a - b;
+		case MULTIPLY: return a * b;
+		case DIVIDE: return a / b;
+		case SQUARE: return a * a;
+		case SQRT: return Math.sqrt(a);
+		case SIN: return Math.sin(a);
+		case COS: return Math.cos(a);
+		case TAN: return Math.tan(a);
+		case ASIN: return Math.asin(a);
+		case ACOS: return Math.acos(a);
+		case ATAN: return Math.atan(a);
+		default: throw new IllegalArgumentException(operation + " has no parts to apply it to");
+		}
+	}
+
+	/**
+	 * Writes the formula as text, the same way FormulaTriangle has always written it (ie. "h * sin(θ)"),
+	 * putting parts in parentheses only where they are needed.
+	 * @param builder - StringBuilder to append the formula to
+	 * @return the same StringBuilder
+	 */
+	public StringBuilder appendTo(StringBuilder builder) {
+		switch(operation) {
+		case VARIABLE: return builder.append(name);
+		case CONSTANT:
+			//writing whole numbers without a decimal, as they are most often 0 or 1 left by simplify()
+			if(value == Math.rint(value) && Math.abs(value) < 1e15) return builder.append((long) value);
+			return builder.append(value);
+		case SQUARE:
+			return appendPart(builder, left, left.operation.precedence < operation.precedence).append(operation.symbol);
+		default:
+			if(operation.isBinary()) {
+				appendPart(builder, left, left.operation.precedence < operation.precedence).append(operation.symbol);
+				//subtracting or dividing by another subtraction or division needs parentheses on the right, as they do not group
+				boolean groupsRight = operation == Operation.ADD || operation == Operation.MULTIPLY;
+				return appendPart(builder, right, groupsRight ? right.operation.precedence < operation.precedence
+						: right.operation.precedence <= operation.precedence);
+			}
+			return left.appendTo(builder.append(operation.symbol).append('(')).append(')');
+		}
+	}
+
+	/**
+	 * Writes a part of the formula, in parentheses if needed.
+	 */
+	private static StringBuilder appendPart(StringBuilder builder, Formula part, boolean parentheses) {
+		if(!parentheses) return part.appendTo(builder);
+		return part.appendTo(builder.append('(')).append(')');
+	}
+
+	/**
+	 * @return true if this is a constant with the given value
+	 */
+	private boolean isConstant(double constant) {
+		return operation == Operation.CONSTANT && value == constant;
+	}
+
+	/**
+	 * @return the operation at the top of the formula
+	 */
+	public Operation getOperation() {
+		return operation;
+	}
+
+	/**
+	 * @return name of the variable, or null if the formula is not a VARIABLE
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return value of the constant, or 0 if the formula is not a CONSTANT
+	 */
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * @return left (or only) part of the operation, or null for variables and constants
+	 */
+	public Formula getLeft() {
+		return left;
+	}
+
+	/**
+	 * @return right part of a binary operation, otherwise null
+	 */
+	public Formula getRight() {
+		return right;
+	}
+
+	@Override
+	public String toString() {
+		return appendTo(new StringBuilder()).toString();
+	}
+
+	/**
+	 * Only used by intern(): once created, equal formulas are the same object, so the default identity
+	 * comparison of parts is enough.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if(this == other) return true;
+		if(!(other instanceof Formula)) return false;
+		Formula formula = (Formula) other;
+		return hash == formula.hash && operation == formula.operation && left == formula.left && right == formula.right
+				&& Double.compare(value, formula.value) == 0 && (name == null ? formula.name == null : name.equals(formula.name));
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+}
@@ -8,6 +8,10 @@ import javafx.scene.canvas.Canvas;
  * as variables, outputting algebraic formulas instead of concrete values.
  */
 public class FormulaTriangle extends Triangle {
+	//formulas solved for the missing values. These are set by calculateMissingValues() while the parent
+	//class is being constructed, so they must not be given a value where they are declared.
+	private Formula hypFormula, oppFormula, adjFormula, angFormula;
+	
 	/**FormulaTriangle Constructor. All values are passed to the parent class Triangle,
 	 * as any differences in the process between the two triangle types are correctly handled
 	 * with overridden methods, causing differences in the constructor to be unnecessary.
@@ -21,11 +25,40 @@ public class FormulaTriangle extends Triangle {
 		super(inputHyp, inputOpp, inputAdj, inputAng, angleModeDegrees, canvasToDrawOn);
 	}
 	
+	/**FormulaTriangle Constructor. Same as the constructor taking a Canvas, but only needs the
+	 * size of the canvas the triangle will be displayed on.
+	 * @param inputHyp - value entered for hypotenuse side length
+	 * @param inputOpp - value entered for opposite side length
+	 * @param inputAdj - value entered for adjacent side length
+	 * @param inputAng - value entered for angle theta
+	 * @param angleModeDegrees - degree mode - true for degrees, false for radians
+	 * @param canvasWidth - width of the canvas the triangle will be displayed on
+	 * @param canvasHeight - height of the canvas the triangle will be displayed on
+	 */
+	FormulaTriangle(String inputHyp, String inputOpp, String inputAdj, String inputAng, boolean angleModeDegrees, double canvasWidth, double canvasHeight){
+		super(inputHyp, inputOpp, inputAdj, inputAng, angleModeDegrees, canvasWidth, canvasHeight);
+	}
+	
+	/**
+	 * FormulaTriangle Copy Constructor. Creates a new formula triangle with the same
+	 * formulas and values as the triangle to copy from.
+	 * @param triangleToCopy - FormulaTriangle object to copy values
+	 */
+	FormulaTriangle(FormulaTriangle triangleToCopy){
+		super(triangleToCopy);
+		//formulas are immutable, so they are shared rather than copied
+		hypFormula = triangleToCopy.hypFormula;
+		oppFormula = triangleToCopy.oppFormula;
+		adjFormula = triangleToCopy.adjFormula;
+		angFormula = triangleToCopy.angFormula;
+	}
+	
 	/**
 	 * Solves for a formula representing the missing values of the triangle's sidelengths or angle
-	 * using trigonometry. String values containing these formulas are put into the triangle's hashmap 
-	 * under the keys "hyp", "opp", "adj", "ang", etc. along with the method/formula used under the key 
-	 * "solveMethod". Unknown parameters are entered as 0, and will be solved for.
+	 * using trigonometry, with the same formulas the numeric TriangleSolver uses. The formulas are kept
+	 * as Formula trees, and only written as text under the keys HYP, OPP, ADJ, ANG when they are first
+	 * displayed. The method/formula used is stored under the key SOLVE_METHOD.
+	 * Unknown parameters are entered as 0, and will be solved for.
 	 * @param hyp - hypotenuse side length of the triangle
 	 * @param opp - opposite side length of the triangle
 	 * @param adj - adjacent side length of the triangle
@@ -34,38 +67,54 @@ public class FormulaTriangle extends Triangle {
 	 */
     @Override
 	protected void calculateMissingValues(double hyp, double opp, double adj, double ang, boolean angleModeDegrees) {
+		FlightEvents.Solve event = new FlightEvents.Solve();
+		event.begin();
+		//the formulas are not calculated, but the degree mode is still needed to show and save the triangle
+		setDegreeMode(angleModeDegrees);
 		String solveMethod = "";
-		String hypInput = getInfo("HypotenuseInput");
-		String oppInput = getInfo("OppositeInput");
-		String adjInput = getInfo("AdjacentInput");
-		String angInput = getInfo("Angle θInput");
 		
 		//if side length/angle values aren't equal to 0, they have a value given by the user,
 		//and therefore should be used to calculate the values of the rest of the triangle.
-		if(hyp!=0 && opp!=0) {
-			setInfo("ang", "aSin(" + oppInput + " / " + hypInput + ")");
-			solveMethod += "θ = aSin(o/h) \nRearranged from: sinθ = o/h";
-			setInfo("adj", "sqrt(" + hypInput + "² - " + oppInput + "²)");
-		} else if(hyp!=0 && adj!=0) {
-			setInfo("ang", "aCos(" + adjInput + " / " + hypInput + ")");
-			solveMethod += "θ = aCos(a/h) \nRearranged from: cosθ = a/h";
-			setInfo("opp", "sqrt(" + hypInput + "² - " + adjInput + "²)");
-		} else if(hyp!=0 && ang!=0) {
-			setInfo("opp", hypInput + " * sin(" + angInput + ")");
-			setInfo("adj", hypInput + " * cos(" + angInput + ")");
-			solveMethod += "o = h*sin(θ) \nRearranged from: sinθ = o/h \n\nTrig. Formula Used: a = h*cos(θ) \nRearranged from: cosθ = a/h";
-		} else if(opp!=0 && adj!=0) {
-			setInfo("ang", "aTan(" + oppInput + " / " + adjInput + ")");
-			solveMethod += "θ = aTan(o/a) \nRearranged from: tanθ = o/a";
-			setInfo("hyp", "sqrt(" + adjInput + "² + " + oppInput + "²)");
-		} else if(opp!=0 && ang!=0) {
-			setInfo("adj", oppInput + " / tan(" + angInput + ")");
-			solveMethod += "a = o/tan(θ) \nRearranged from: tanθ = o/a";
-			setInfo("hyp", "sqrt(" + adjInput + "² + " + oppInput + "²)");
-		} else if(adj!=0 && ang!=0) {
-			setInfo("opp", adjInput + " * tan(" + angInput + ")");
-			solveMethod += "o = a*tan(θ) \nRearranged from: tanθ = o/a";
-			setInfo("hyp", "sqrt(" + adjInput + "² + " + oppInput + "²)");
+		KnownPair knownPair = KnownPair.of(hyp, opp, adj, ang);
+		if(knownPair != null) {
+			//the text entered by the user is used as the name of each known value
+			Formula h = hyp == 0 ? null : Formula.variable(getInfo(InfoKey.HYPOTENUSE_INPUT));
+			Formula o = opp == 0 ? null : Formula.variable(getInfo(InfoKey.OPPOSITE_INPUT));
+			Formula a = adj == 0 ? null : Formula.variable(getInfo(InfoKey.ADJACENT_INPUT));
+			Formula t = ang == 0 ? null : Formula.variable(getInfo(InfoKey.ANGLE_INPUT));
+			switch(knownPair) {
+			case HYP_OPP:
+				angFormula = o.dividedBy(h).in(Formula.Operation.ASIN);
+				adjFormula = h.squared().minus(o.squared()).in(Formula.Operation.SQRT);
+				break;
+			case HYP_ADJ:
+				angFormula = a.dividedBy(h).in(Formula.Operation.ACOS);
+				oppFormula = h.squared().minus(a.squared()).in(Formula.Operation.SQRT);
+				break;
+			case HYP_ANG:
+				oppFormula = h.times(t.in(Formula.Operation.SIN));
+				adjFormula = h.times(t.in(Formula.Operation.COS));
+				break;
+			case OPP_ADJ:
+				angFormula = o.dividedBy(a).in(Formula.Operation.ATAN);
+				hypFormula = a.squared().plus(o.squared()).in(Formula.Operation.SQRT);
+				break;
+			case OPP_ANG:
+				adjFormula = o.dividedBy(t.in(Formula.Operation.TAN));
+				//the hypotenuse is solved from the adjacent formula, as the adjacent side was not given
+				hypFormula = adjFormula.squared().plus(o.squared()).in(Formula.Operation.SQRT);
+				break;
+			case ADJ_ANG:
+				oppFormula = a.times(t.in(Formula.Operation.TAN));
+				//the hypotenuse is solved from the opposite formula, as the opposite side was not given
+				hypFormula = a.squared().plus(oppFormula.squared()).in(Formula.Operation.SQRT);
+				break;
+			}
+			hypFormula = simplify(hypFormula);
+			oppFormula = simplify(oppFormula);
+			adjFormula = simplify(adjFormula);
+			angFormula = simplify(angFormula);
+			solveMethod = knownPair.getSolveMethod();
 		}
 		
 		//setting the triangle's actual sidelengths to a default of 1,1 for the
@@ -76,32 +125,90 @@ public class FormulaTriangle extends Triangle {
 		
 		//we can store the solve method here since it does not
 		//need additional formatting or checks to be displayed to the user
-		setInfo("solveMethod", solveMethod);
+		setInfo(InfoKey.SOLVE_METHOD, solveMethod);
+		
+		if(event.shouldCommit()) {
+			event.knownPair = knownPair == null ? null : knownPair.name();
+			event.degrees = angleModeDegrees;
+			event.formula = true;
+			event.valid = knownPair != null;
+			//the given values have no formula, so their names are used instead
+			event.result = "h=" + (hypFormula == null ? getInfo(InfoKey.HYPOTENUSE_INPUT) : hypFormula)
+					+ " o=" + (oppFormula == null ? getInfo(InfoKey.OPPOSITE_INPUT) : oppFormula)
+					+ " a=" + (adjFormula == null ? getInfo(InfoKey.ADJACENT_INPUT) : adjFormula)
+					+ " θ=" + (angFormula == null ? getInfo(InfoKey.ANGLE_INPUT) : angFormula);
+			event.commit();
+		}
+	}
+    
+    /**
+     * @return the simplified formula, or null if there is no formula
+     */
+    private static Formula simplify(Formula formula) {
+    	return formula == null ? null : formula.simplify();
+    }
+    
+	/**
+	 * Writes one of the solved formulas of the triangle as the text displayed to the user.
+	 * @param key - HYP, OPP, ADJ or ANG
+	 * @param builder - StringBuilder to append the formula to
+	 * @return the same StringBuilder, or null if the key is not a solved formula of this triangle
+	 */
+	@Override
+	protected StringBuilder appendSolvedValue(InfoKey key, StringBuilder builder) {
+		Formula formula = getFormula(key);
+		return formula == null ? null : formula.appendTo(builder);
+	}
+	
+	/**
+	 * Getter method for the formula solved for one of the triangle's missing values.
+	 * @param key - HYP, OPP, ADJ or ANG
+	 * @return the formula solved for the value, or null if the value was given by the user (or not solved)
+	 */
+	public Formula getFormula(InfoKey key) {
+		switch(key) {
+		case HYP: return hypFormula;
+		case OPP: return oppFormula;
+		case ADJ: return adjFormula;
+		case ANG: return angFormula;
+		default: return null;
+		}
+	}
+	
+	/**
+	 * Compiles the formula solved for one of the triangle's missing values, so it can be evaluated over
+	 * columns of values for each of the variables entered by the user. Angles are in the triangle's angle mode.
+	 * @param key - HYP, OPP, ADJ or ANG
+	 * @return the compiled formula, or null if the value was given by the user (or not solved)
+	 */
+	public CompiledFormula compileFormula(InfoKey key) {
+		Formula formula = getFormula(key);
+		return formula == null ? null : new CompiledFormula(formula, getDegreeMode());
 	}
     
 	/**
 	 * The user may want to solve for a algebraic formula for a language outside of 
 	 * java, so all variable names are valid.
-	 * @param textField - the label of the input text field being checked
+	 * @param textField - the input text field being checked
 	 * @param text - text within the input text field being checked
 	 * @param degreesMode - whether the program is currently calculating in degrees or radians
-	 * @return String value describing the error causing the input to be invalid (empty string if no error) 
+	 * @return NONE, as there are no invalid inputs for a formula
 	 */
 	@Override
-    protected String checkError(String textField, String text, boolean degreesMode) {
-    	return getErrorDescription();
+    protected InputError checkError(InputField textField, String text, boolean degreesMode) {
+    	return InputError.NONE;
     }
 	
 	
 	/**
-	 * Stores side length values to the hashmap under the keys "h", "o", "a", "t" using previously stored 
+	 * Stores side length values to the triangle's information under the keys HYP, OPP, ADJ, ANG using previously stored 
 	 * validated user input. These are the final values that will be assigned to the labels and displayed to the user.
 	 */
 	@Override
-	protected void storeInfoInHashMap(){
-		if(!getInfo("HypotenuseInput").isEmpty()) setInfo("hyp", getInfo("HypotenuseInput"));
-		if(!getInfo("OppositeInput").isEmpty()) setInfo("opp", getInfo("OppositeInput"));
-		if(!getInfo("AdjacentInput").isEmpty()) setInfo("adj", getInfo("AdjacentInput"));
-		if(!getInfo("Angle θInput").isEmpty()) setInfo("ang", getInfo("Angle θInput"));
+	protected void storeDisplayInfo(){
+		if(!getInfo(InfoKey.HYPOTENUSE_INPUT).isEmpty()) setInfo(InfoKey.HYP, getInfo(InfoKey.HYPOTENUSE_INPUT));
+		if(!getInfo(InfoKey.OPPOSITE_INPUT).isEmpty()) setInfo(InfoKey.OPP, getInfo(InfoKey.OPPOSITE_INPUT));
+		if(!getInfo(InfoKey.ADJACENT_INPUT).isEmpty()) setInfo(InfoKey.ADJ, getInfo(InfoKey.ADJACENT_INPUT));
+		if(!getInfo(InfoKey.ANGLE_INPUT).isEmpty()) setInfo(InfoKey.ANG, getInfo(InfoKey.ANGLE_INPUT));
 	}
 }
@@ -1,20 +1,23 @@
 package application;
 
-import java.text.DecimalFormat;
-import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.*;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
-import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
@@ -30,6 +33,12 @@ public class GUIController {
 	//stored reference to the main scene when swapping to other scenes (set in Main)
 	public Scene mainScene;
 	
+	/**Name of the scene currently shown, for the events recorded when switching scenes*/
+	private String sceneName = "calculator";
+	
+	//scenes with information about the program, only built the first time they are shown
+	private Scene aboutScene, validationScene;
+	
 	/**Index of the currently highlighted canvas panel in the list of triangles*/
 	private int highlightedPanelIndex = 0;
 	
@@ -40,14 +49,50 @@ public class GUIController {
    	methods to validate, manage, and perform operations on that list.*/
 	private TriangleCatalog triangleCatalog = new TriangleCatalog();
 	
+	/**List of the triangles in the catalog shown by the GUI catalog (created once the fxml nodes are loaded)*/
+	private CatalogListModel catalogListModel;
+	
+	/**Draws the thumbnails of the triangles shown in the GUI catalog in the background*/
+	private final ThumbnailRenderer thumbnailRenderer = new ThumbnailRenderer();
+	
+	/**Creates the triangles asked for by calculate() in the background, one at a time in the order they were asked for*/
+	private final ThreadPoolExecutor calculator = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+		Thread thread = new Thread(runnable, "triangle-calculator");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	/**Most recently asked for calculation, which is cancelled if the same calculation is asked for again before it is shown*/
+	private Calculation latestCalculation;
+	
+	/**Draws on the main canvas, repainting only what changed (created once the fxml nodes are loaded)*/
+	private MainCanvasRenderer mainCanvasRenderer;
+	
+	/**Draws every triangle of the catalog on the main canvas at once (created once the fxml nodes are loaded)*/
+	private OverlayRenderer overlayRenderer;
+	
+	/**Generates the inputs of "Add Random Triangle". The seed can be set with the triangle.random.seed
+	 * system property to repeat the same random triangles.*/
+	private final TriangleGenerator randomTriangles = new TriangleGenerator(Long.getLong("triangle.random.seed", System.nanoTime()));
+	
+	/**Points to write the labels of recently drawn triangles at on the main canvas*/
+	private final LruCache<LabelKey, Point[]> labelPointCache = new LruCache<LabelKey, Point[]>(256);
+	
+	/**Width and height of the thumbnails in the GUI catalog*/
+	static final int THUMBNAIL_SIZE = 80;
+	
+	/**Error description shown when the triangle being created is already in the catalog*/
+	static final String DUPLICATE_DESCRIPTION = "This triangle is already in the catalog.";
+	
 	//fxml file nodes
     @FXML private TextField hypotenuseTextField, adjacentTextField, oppositeTextField, angleThetaTextField;
-    @FXML private ToggleButton degreesToggleButton, radiansToggleButton, valueToggleButton, formulaToggleButton;
+    @FXML private ToggleButton degreesToggleButton, radiansToggleButton, valueToggleButton, formulaToggleButton, overlayToggleButton;
 	@FXML private Button informationButton, nextButton, previousButton;
     @FXML private Canvas mainCanvas = new Canvas();
     @FXML private Text infoAreaText;
     @FXML private Label errorLabel, instructionLabel; 
-	@FXML private VBox guiCatalogVBox;
+	@FXML private ListView<Triangle> guiCatalogListView;
+	@FXML private CheckBox jumpToDuplicateCheckBox;
 	
 	/**
 	 * Setting the colors of the canvas, emptying the inputs for the input text fields, 
@@ -57,15 +102,9 @@ public class GUIController {
 	 */
 	@FXML
 	void initialize() {
-    	//creating graphics object attached to the main canvas
-		GraphicsContext graphics = mainCanvas.getGraphicsContext2D();
-		
-		//A black outline indicating the edges of the canvas is achieved by filling the
-		//entire canvas with black, then a very slightly smaller area in white.
-		graphics.setFill(Color.BLACK);
-		graphics.fillRect(0, 0, mainCanvas.getWidth(), mainCanvas.getHeight());
-		graphics.setFill(Color.WHITE);
-		graphics.fillRect(1, 1, mainCanvas.getWidth()-2, mainCanvas.getHeight()-2);
+		//clearing the main canvas, leaving only a black outline indicating the edges of the canvas
+		if(mainCanvasRenderer == null) mainCanvasRenderer = new MainCanvasRenderer(mainCanvas);
+		mainCanvasRenderer.clear();
 		
 		//clearing the input text fields. This is already implemented in a modular function, 
 		//so it is used instead of manually setting each text field here.
@@ -73,7 +112,6 @@ public class GUIController {
 		
 		
 		//setting the text area underneath the canvas to basic instructions about using the program.
-		graphics.setFill(Color.BLACK);
 		infoAreaText.setText("Pick two components of a right triangle"
 						+ "\n(side lengths, angle) and enter values "
 						+ "\nfor them to see detailed information"
@@ -81,6 +119,14 @@ public class GUIController {
 						+ "\n\nClick the Information button at the top "
 						+ "\nright of the window to see all the"
 						+ "\navailable features of this program.");
+		
+		//setting up the GUI catalog the first time only, as this function is also called to reset the GUI
+		if(catalogListModel == null) {
+			overlayRenderer = new OverlayRenderer(triangleCatalog, mainCanvas);
+			catalogListModel = new CatalogListModel(triangleCatalog);
+			guiCatalogListView.setItems(catalogListModel);
+			guiCatalogListView.setCellFactory(listView -> new CatalogCell());
+		}
 	}
 	
 	
@@ -88,7 +134,8 @@ public class GUIController {
      * Creates the correct type of triangle (Formula-based or numeric solutions) based on
      * the settings chosen by the user in the GUI, and displays the triangle to the user.
      * Includes calls to validation functions related to the use of the GUI. (not creating
-     * the same triangle twice, entering the correct number of inputs, etc.)
+     * the same triangle twice, entering the correct number of inputs, etc.) The triangle is created on a
+     * background thread and displayed once it is ready, so this function returns straight away.
      * @implNote triggered by the "Calculate" button
      */
     @FXML
@@ -99,50 +146,115 @@ public class GUIController {
     	
     	//checking that the user did enter exactly two values as instructed by the GUI.
     	if(checkTwoTotalInputs()) {
-    		//storing the previous triangle (if applicable) so that it is possible to 
-    		//check later if the new triangle being created has the exact same measurements
-    	    Triangle oldTriangle;
-    		if(triangle != null) {
-    			oldTriangle = new Triangle(triangle);
-    		} else {
-    			oldTriangle = triangle;
-    		}
+        	//creating a new Triangle or FormulaTriangle object (child of Triangle) in the background, giving it the 
+    		//contents of the GUI, so that the GUI keeps responding to the user while the triangle is being solved.
+        	Calculation calculation = new Calculation(formulaToggleButton.isSelected(), hypotenuseTextField.getText(), 
+        			oppositeTextField.getText(), adjacentTextField.getText(), angleThetaTextField.getText(),
+        			degreesToggleButton.isSelected(), mainCanvas.getWidth(), mainCanvas.getHeight());
+        	
+        	//a calculation with the same inputs that has not been shown yet is replaced by this one, 
+        	//so that the triangle is only created and shown once
+        	if(latestCalculation != null && latestCalculation.hasSameInputs(calculation)) latestCalculation.cancelled = true;
+        	latestCalculation = calculation;
+        	calculator.execute(calculation);
+    	}
+    }
+    
+    
+    /**
+     * Displays a triangle created by calculate() and adds it to the catalog, or shows why it can not be.
+     * @param newTriangle - the triangle created with the user's inputs
+     */
+    void showCalculatedTriangle(Triangle newTriangle) {
+    	if(!newTriangle.getErrorDescription().equals("")) {
+        	//setting the errorLabel to notify user of any potential errors regarding inputs not falling within
+        	//acceptable values as validated by the triangle object (validation is different based on the type
+        	//of triangle being created)
+        	errorLabel.setText(newTriangle.getErrorDescription());
+        	return;
+    	}
+    	
+    	//checking that no triangle in the catalog has the exact same measurements (multiple triangles with the 
+    	//exact same measurements serves no purpose to the user and only bloats the visible list of created triangles)
+    	Triangle existingTriangle = triangleCatalog.findDuplicate(newTriangle);
+    	if(existingTriangle == null) {
+    		triangle = newTriangle;
     		
-        	//creating a new Triangle or FormulaTriangle object (child of Triangle), giving it the contents of the GUI.
-        	//Triangle calculates it's values for numeric solutions, whereas FormulaTriangle (child) overrides certain 
+			//calling the wrapper method which draws the triangle, it's labels, and the information associated 
+			//with the triangle on the desired canvas.
+			drawAllTriangleComponents();
+			
+			//adding the newly created triangle to the list of triangles.
+			triangleCatalog.addTriangle(triangle);
+			
+			//creating new components on the GUI for a visual representation of the newly created triangle
+			//in the area showing the current list of triangles that have been created.
+			addCanvasPanel(triangle);
+		} else if(jumpToDuplicateCheckBox.isSelected()) {
+			//selecting and drawing the triangle already in the catalog instead of adding the new one
+			triangle = existingTriangle;
+			updateHighlightedPanel(triangleCatalog.getIndexInList(existingTriangle));
+			drawAllTriangleComponents();
+		} else if(existingTriangle != triangle) {
+			//No error needs to be displayed if the triangle is the currently selected one, as the triangle 
+			//the user intends to create would be already shown on screen.
+			errorLabel.setText(DUPLICATE_DESCRIPTION);
+		}
+    }
+    
+    
+    /**
+     * Triangle asked for by the user, created on the calculator thread then shown on the JavaFX application thread.
+     * The inputs are read from the GUI when the calculation is asked for, as the text fields may change before it runs.
+     */
+    private class Calculation implements Runnable {
+    	private final boolean formula, angleModeDegrees;
+    	private final String inputHyp, inputOpp, inputAdj, inputAng;
+    	private final double canvasWidth, canvasHeight;
+    	/**Set on the JavaFX application thread when the calculation is replaced by a newer one*/
+    	private volatile boolean cancelled;
+    	
+    	Calculation(boolean formula, String inputHyp, String inputOpp, String inputAdj, String inputAng,
+    			boolean angleModeDegrees, double canvasWidth, double canvasHeight){
+    		this.formula = formula;
+    		this.inputHyp = inputHyp;
+    		this.inputOpp = inputOpp;
+    		this.inputAdj = inputAdj;
+    		this.inputAng = inputAng;
+    		this.angleModeDegrees = angleModeDegrees;
+    		this.canvasWidth = canvasWidth;
+    		this.canvasHeight = canvasHeight;
+    	}
+    	
+    	@Override
+    	public void run() {
+    		if(cancelled) return;
+    		//Triangle calculates it's values for numeric solutions, whereas FormulaTriangle (child) overrides certain 
     		//methods in order to handle string entries to calculate for an algebraic formula incorporating the 
     		//user's inputs instead.
-        	if(formulaToggleButton.isSelected()) {
-        		triangle = new FormulaTriangle(hypotenuseTextField.getText(),oppositeTextField.getText(),
-        										adjacentTextField.getText(),angleThetaTextField.getText(), 
-        										degreesToggleButton.isSelected(), mainCanvas);
-        	} else {
-        		triangle = new Triangle(hypotenuseTextField.getText(),oppositeTextField.getText(),
-        								adjacentTextField.getText(),angleThetaTextField.getText(), 
-        								degreesToggleButton.isSelected(), mainCanvas);
-        	}
-        
-        	//checking that the newly created triangle is different than the previous one (multiple triangles with the 
-        	//exact same measurements serves no purpose to the user and only bloats the visible list of created triangles)
-        	//as well as not having any errors. 
-        	if((oldTriangle == null || oldTriangle.isDifferent(triangle)) && triangle.getErrorDescription().equals("")) {
-    			//calling the wrapper method which draws the triangle, it's labels, and the information associated 
-    			//with the triangle on the desired canvas.
-    			drawAllTriangleComponents(mainCanvas);
-    			
-    			//adding the newly created triangle to the list of triangles.
-    			triangleCatalog.addTriangle(triangle);
-    			
-    			//creating new components on the GUI for a visual representation of the newly created triangle
-    			//in the area showing the current list of triangles that have been created.
-    			addCanvasPanel(triangle);
-    		} else {
-            	//setting the errorLabel to notify user of any potential errors regarding inputs not falling within
-            	//acceptable values as validated by the triangle object (validation is different based on the type
-            	//of triangle being created) No error needs to be displayed if the triangle is unchanged from the
-    			//previously created one, as the triangle the user intends to create would be already shown on screen.
-            	errorLabel.setText(triangle.getErrorDescription());
-    		}
+    		//Triangles are created through the TriangleCache, which copies a previously created triangle with the same inputs.
+    		Triangle newTriangle = TriangleCache.create(formula, inputHyp, inputOpp, inputAdj, inputAng, angleModeDegrees, canvasWidth, canvasHeight);
+    		
+    		//formatting the values shown on the labels here as well, rather than when they are first drawn
+    		newTriangle.getInfo(InfoKey.HYP);
+    		newTriangle.getInfo(InfoKey.OPP);
+    		newTriangle.getInfo(InfoKey.ADJ);
+    		newTriangle.getInfo(InfoKey.ANG);
+    		
+    		//calculations are shown in the order they were asked for, as they are all run on the same thread
+    		Platform.runLater(() -> {
+    			if(!cancelled) showCalculatedTriangle(newTriangle);
+    		});
+    	}
+    	
+    	/**
+    	 * @return true if the other calculation would create the same triangle as this one
+    	 */
+    	boolean hasSameInputs(Calculation other) {
+    		return formula == other.formula && angleModeDegrees == other.angleModeDegrees
+    				&& inputHyp.equals(other.inputHyp) && inputOpp.equals(other.inputOpp)
+    				&& inputAdj.equals(other.inputAdj) && inputAng.equals(other.inputAng)
+    				&& canvasWidth == other.canvasWidth && canvasHeight == other.canvasHeight;
     	}
     }
     
@@ -163,7 +275,7 @@ public class GUIController {
     	//checks the counter to determine whether or not exactly two values were input. Set the
     	//error label to prompt the user to enter two if not.
     	if (totalInputs != 2) {
-    		errorLabel.setText("Enter values for two components.");
+    		errorLabel.setText(TriangleSolver.TWO_INPUTS_DESCRIPTION);
     		return false;
     	}
     	return true;
@@ -173,100 +285,96 @@ public class GUIController {
     /**
      * Wrapper method which calls the all drawing, labeling, and text setting functions that are necessary when a new
      * triangle needs to be displayed on the main canvas.
-     * @param canvasToDrawOn - The canvas which the triangle should be resized to fit, drawn, and labeled on.
      */
-    public void drawAllTriangleComponents(Canvas canvasToDrawOn) {
-		//drawing the outline of the triangle
-    	drawTriangle(canvasToDrawOn);
-    	
-    	//moving and setting labels according to the values of the triangle
-    	setTriangleLabels(canvasToDrawOn);
+    public void drawAllTriangleComponents() {
+    	long start = Metrics.start();
+    	FlightEvents.Render event = new FlightEvents.Render();
+    	event.begin();
+    	boolean overlay = overlayToggleButton.isSelected();
+    	if(overlay) {
+    		//drawing every triangle in the catalog, with the current triangle highlighted in red
+    		overlayRenderer.draw(triangle);
+    	} else {
+    		//resizing the triangle to fit on the canvas
+    		triangle.prepareForCanvas(mainCanvas);
+    		
+    		//drawing the outline and labels of the triangle, only repainting the parts of the canvas 
+    		//that are different from the previously drawn triangle
+    		mainCanvasRenderer.draw(triangle.getHypAdj(), triangle.getHypOpp(), triangle.getOppAdj(), 
+    				getMainCanvasLabels(), calculateLabelPoints());
+    	}
     	
     	//putting the solve method in the text area of the GUI.
     	setInfoText();
+    	Metrics.record(Metrics.GUI_DRAW, start);
+    	
+    	if(event.shouldCommit()) {
+    		event.target = overlay ? "overlay" : "main";
+    		event.width = mainCanvas.getWidth();
+    		event.height = mainCanvas.getHeight();
+    		//without the overlay, there is a label for each side length and the angle
+    		event.labelCount = overlay ? overlayRenderer.getLabelCount() : 4;
+    		event.commit();
+    	}
     }
     
     
 	/**
-	 * Requests the triangle object to resize itself to the target canvas,
-	 * then draws the triangle by stroking between the triangle's corner points.
-	 * @param canvasToDrawOn - the target canvas which the triangle should be drawn on.
+	 * @return the text of the labels written on the main canvas for the current triangle, in the order H, O, A, θ
 	 */
-	public void drawTriangle(Canvas canvasToDrawOn) {
-		//resizing the triangle to fit on the canvas
-    	triangle.prepareForCanvas(canvasToDrawOn);
-    	
-    	//creating graphics object attached to the target canvas
-		GraphicsContext graphics = canvasToDrawOn.getGraphicsContext2D();
-		
-		//clears the canvas so that any previously drawn triangle is no longer visible.
-		//A black outline indicating the edges of the canvas is achieved by filling the
-		//entire canvas with black, then a very slightly smaller area in white.
-		graphics.setFill(Color.BLACK);
-		graphics.fillRect(0, 0, canvasToDrawOn.getWidth(), canvasToDrawOn.getHeight());
-		graphics.setFill(Color.WHITE);
-		graphics.fillRect(1, 1, canvasToDrawOn.getWidth()-2, canvasToDrawOn.getHeight()-2);
-		
-		//setting the triangle's point coordinates to individual variables to make
-		//the following code more readable.
-		double haX = triangle.getHypAdj().getX();
-		double haY = triangle.getHypAdj().getY();
-		double hoX = triangle.getHypOpp().getX();
-		double hoY = triangle.getHypOpp().getY();
-		double oaX = triangle.getOppAdj().getX();
-		double oaY = triangle.getOppAdj().getY();
-		
-		//strokes between each point of the triangle to create an outline of the triangle.
-		graphics.setFill(Color.BLACK);
-		graphics.strokeLine(haX, haY, hoX, hoY);
-		graphics.strokeLine(hoX, hoY, oaX, oaY);
-		graphics.strokeLine(oaX, oaY, haX, haY);
+	String[] getMainCanvasLabels() {
+		return new String[] {"H: " + triangle.getInfo(InfoKey.HYP), "O: " + triangle.getInfo(InfoKey.OPP),
+				"A: " + triangle.getInfo(InfoKey.ADJ), "θ: " + triangle.getInfo(InfoKey.ANG)};
 	}
 	
 	
 	/**
-	 * Writes text on the target canvas acting as labels for each of the triangle's side lengths/angle. If the target canvas
-	 * is the main canvas, these labels will be located near the value on the triangle that they are representing.
-	 * @param canvasToDrawOn - the target canvas which the labels should be drawn on.
+	 * Calculates where each label of the current triangle should be written on the main canvas, so that they
+	 * are near the value on the triangle that they are representing without overlapping each other.
+	 * The triangle must already be prepared for the main canvas.
+	 * @return the point to write each label at, in the order H, O, A, θ
 	 */
-	public void setTriangleLabels(Canvas canvasToDrawOn) {
-		//creating graphics object attached to the target canvas.
-		GraphicsContext graphics = canvasToDrawOn.getGraphicsContext2D();
-		
-		if(canvasToDrawOn == mainCanvas) {
-			//setting minimum bounds for labels (so they are always fully visible)
-			int xBound = (int) (mainCanvas.getWidth()-35);
-			int yBound = 10;
-
-			
-			//setting values for overlap detection between labels (so they don't overlap causing readability issues)
-			int overlapMinX = 100;
-			int overlapMinY = 15;
-			
-			//creating a new point for each label to be drawn at, using the triangle's corners
-			//to determine the center point of the sidelength/angle that is being represented.
-			Point h = calculateMidpoint(triangle.getHypAdj(), triangle.getHypOpp(), xBound, yBound);
-			Point o = calculateMidpoint(triangle.getHypOpp(), triangle.getOppAdj(), xBound, yBound);
-			Point a = calculateMidpoint(triangle.getHypAdj(), triangle.getOppAdj(), xBound, yBound);
-			Point t = calculateMidpoint(triangle.getHypAdj(), triangle.getHypAdj(), xBound, yBound);
-			
-			//move the newly created points such that they do not overlap with each other to keep labels readable
-			moveOverlappingPoints(h, o, a, t, overlapMinX, overlapMinY);
-			
-			//writes the label information at their previously calculated locations
-			graphics.setFill(Color.RED);
-			graphics.fillText("H: " + triangle.getInfo("hyp"), h.getX(), h.getY());
-			graphics.fillText("O: " + triangle.getInfo("opp"), o.getX(), o.getY());
-			graphics.fillText("A: " + triangle.getInfo("adj"), a.getX(), a.getY());
-			graphics.fillText("θ: " + triangle.getInfo("ang"), t.getX(), t.getY());
-		} else {
-			//write the labels on the top right of the canvas, with an increasing Y coordinate value to prevent overlap.
-			graphics.setFill(Color.RED);
-			graphics.fillText("H: " + reduceLengthTo5Char(triangle.getInfo("hyp")), 0, 10);
-			graphics.fillText("O: " + reduceLengthTo5Char(triangle.getInfo("opp")), 0, 20);
-			graphics.fillText("A: " + reduceLengthTo5Char(triangle.getInfo("adj")), 0, 30);
-			graphics.fillText("θ: " + reduceLengthTo5Char(triangle.getInfo("ang")), 0, 40);
+	Point[] calculateLabelPoints() {
+		//the label points only depend on the triangle and the size of the canvas, so they are only calculated once for each
+		LabelKey key = new LabelKey(triangle, mainCanvas.getWidth(), mainCanvas.getHeight());
+		Point[] labelPoints = labelPointCache.get(key);
+		if(labelPoints == null) {
+			labelPoints = layOutLabelPoints();
+			labelPointCache.put(key, labelPoints);
 		}
+		
+		//copying the cached points, as points can be changed
+		Point[] copies = new Point[labelPoints.length];
+		for(int i = 0; i < labelPoints.length; i++) {
+			copies[i] = new Point(labelPoints[i].getX(), labelPoints[i].getY());
+		}
+		return copies;
+	}
+	
+	
+	/**
+	 * Lays out the labels of the current triangle on the main canvas without using the cache (see calculateLabelPoints()).
+	 * @return the point to write each label at, in the order H, O, A, θ
+	 */
+	private Point[] layOutLabelPoints() {
+		//setting minimum bounds for labels (so they are always fully visible)
+		int xBound = (int) (mainCanvas.getWidth()-35);
+		int yBound = 10;
+
+		
+		//setting values for overlap detection between labels (so they don't overlap causing readability issues)
+		int overlapMinX = 100;
+		int overlapMinY = 15;
+		
+		//creating a new point for each label to be drawn at, using the triangle's corners
+		//to determine the center point of the sidelength/angle that is being represented.
+		Point h = calculateMidpoint(triangle.getHypAdj(), triangle.getHypOpp(), xBound, yBound);
+		Point o = calculateMidpoint(triangle.getHypOpp(), triangle.getOppAdj(), xBound, yBound);
+		Point a = calculateMidpoint(triangle.getHypAdj(), triangle.getOppAdj(), xBound, yBound);
+		Point t = calculateMidpoint(triangle.getHypAdj(), triangle.getHypAdj(), xBound, yBound);
+		
+		//move the newly created points such that they do not overlap with each other to keep labels readable
+		return new LabelLayout(overlapMinX, overlapMinY, xBound, yBound).layout(new Point[] {h, o, a, t});
 	}
 	
 	
@@ -296,50 +404,6 @@ public class GUIController {
 	}
 	
 	
-	/**
-	 * Checks for points that are too close to each other and moves them to prevent overlapping text. 
-	 * @param h - hypotenuse label point object
-	 * @param o - opposite label point object
-	 * @param a - adjacent label point object
-	 * @param t - theta - angle label point object
-	 * @param minX - required minimum distance between point objects horizontally, 
-	 * if they are also within minY distance of each other
-	 * @param minY - required minimum distance between point objects vertically, 
-	 * if they are also within minX distance of each other
-	 */
-	void moveOverlappingPoints(Point h, Point o, Point a, Point t, int minX, int minY) {
-		//creation of point object array to loop through
-		Point[] p = {h,o,a,t};
-		
-		//2d for loop such that all points are compared to each other at least once
-		for(int i = 0; i < 4; i++) {
-			for(int j = 0; j < 4; j++) {
-				//skipping cases where the same point is being compared to itself
-				if(j==i) continue;
-				
-				//retrieving and storing the x and y coordinates of each point in individual variables 
-				//to increase readability in the next action as it is quite complicated
-				double p1X = p[i].getX();
-				double p1Y = p[i].getY();
-				double p2X = p[j].getX();
-				double p2Y = p[j].getY();
-				
-				//if the two points are within both the X and Y minimum distances (they are too close)
-				if(Math.abs(p1Y - p2Y) < minY && Math.abs(p1X - p2X) < minX) {
-					//move the point with the smaller Y value to the Y minimum distance from the other point 
-					if(p1Y <= p2Y) {
-						p[j].setY(p2Y + minY);
-					} else {
-						p[i].setY(p1Y + minY);
-					}
-					//they are moved in the vertical dimension because while text may be very long (wide), 
-					//it is always the same height (barring font size changes and wrapping, which are not present
-					//in the main canvas)
-				}
-			}
-		}
-	}
-	
 	/**
 	 * Customized helper method which returns the input string as a string of maximum 5 
 	 * characters, plus ellipsis if the input string had it's length reduced.
@@ -347,7 +411,7 @@ public class GUIController {
 	 * @return the input string unchanged if it had length equal or below 5 characters,
 	 * otherwise reduced to 5 characters with ellipsis added.
 	 */
-	String reduceLengthTo5Char(String stringToReduce) {
+	static String reduceLengthTo5Char(String stringToReduce) {
 		String reducedString = "";
 		//only reconstruct the string if it is longer than 5 characters
 		if(stringToReduce.length() > 5) {
@@ -367,60 +431,102 @@ public class GUIController {
 	/**
 	 * Sets the text area underneath the canvas to show the values of each of the
 	 * triangle's sidelengths/angle, as well as the solve method information stored 
-	 * in the triangle's hashmap containing any trigonometric formulas that were used
+	 * in the triangle's information containing any trigonometric formulas that were used
 	 * to calculate for any of the missing values.
 	 */
 	public void setInfoText() {
-    	infoAreaText.setText("Hypotenuse: " + triangle.getInfo("hyp") + 
-    			"\nOpposite: " + triangle.getInfo("opp") + 
-    			"\nAdjacent: " + triangle.getInfo("adj") + 
-    			"\nAngle θ: " + triangle.getInfo("ang")  + 
-    			"\n\nTrig. Formula Used: " + triangle.getInfo("solveMethod"));
+    	infoAreaText.setText("Hypotenuse: " + triangle.getInfo(InfoKey.HYP) + 
+    			"\nOpposite: " + triangle.getInfo(InfoKey.OPP) + 
+    			"\nAdjacent: " + triangle.getInfo(InfoKey.ADJ) + 
+    			"\nAngle θ: " + triangle.getInfo(InfoKey.ANG)  + 
+    			"\n\nTrig. Formula Used: " + triangle.getInfo(InfoKey.SOLVE_METHOD));
 	}
     
     
 	/**
-	 * Creates the necessary GUI nodes for an individual triangle's panel in the catalog. These nodes
-	 * are linked to functions which may need to reference the triangle that this panel is being created
-	 * (for example, an x button to delete both the panel and the triangle it is representing in the list)
+	 * Highlights the panel of a triangle which was just added to the catalog. The panel itself is created
+	 * by the GUI catalog when it is scrolled into view (see CatalogCell).
 	 * @param triangleToAddToCanvasPanel - the triangle object that is represented by this panel in the GUI
 	 */
 	void addCanvasPanel(Triangle triangleToAddToCanvasPanel) {
-		//creating a new canvas to draw a small version of the triangle on
-		Canvas canvas = new Canvas(80,80);
-		
-		//creating a button to act as a delete button for the panel and triangle
-		Button removeButton = new Button("x");
-		removeButton.setTranslateX(28);
-		removeButton.setTranslateY(-27);
-		removeButton.setOpacity(0.8);
-		
-		//creating a StackPane panel and adding the canvas and the button to it
-		StackPane panel = new StackPane();
-		panel.getChildren().addAll(canvas, removeButton);
-		
-		//setting the functions associated with clicking the delete button or the panel.
-		removeButton.setOnAction(touchEvent -> removeTriangle(triangleToAddToCanvasPanel, panel));
-		panel.setOnMousePressed(touchEvent -> selectAndDrawPanel(panel));
-		
-		//adding the panel to the VBox in the fxml intended to hold many of these panels.
-		guiCatalogVBox.getChildren().add(panel);
-		
-		//moving the delete button to the front and positioning it in the top right
-		removeButton.toFront();
-		removeButton.setLayoutX(10);
-		
-		//resizing the triangle to fit on this smaller (compared to the main) canvas
-		triangleToAddToCanvasPanel.prepareForCanvas(canvas);
-		
-		//drawing the triangle on the newly created canvas
-		drawTriangle(canvas);
+		long start = Metrics.start();
+		//updating the currently selected panel in the catalog to the panel of the new triangle.
+		updateHighlightedPanel(triangleCatalog.getIndexInList(triangleToAddToCanvasPanel));
+		Metrics.record(Metrics.GUI_ADD_PANEL, start);
+	}
+	
+	
+	/**
+	 * Panel of the GUI catalog representing one triangle: a thumbnail of the triangle (see ThumbnailRenderer),
+	 * and an x button to delete both the panel and the triangle it is representing in the list.
+	 * Only enough panels to fill the visible part of the catalog are created, and each is reused for
+	 * whichever triangle is scrolled into its place, so the catalog can hold any number of triangles.
+	 */
+	private class CatalogCell extends ListCell<Triangle> {
+		private final ImageView thumbnailView = new ImageView();
+		private final StackPane panel = new StackPane();
+		/**Triangle whose thumbnail is being drawn for this panel, if any*/
+		private Triangle waitingForTriangle;
+		private final Consumer<Image> showThumbnail = thumbnail -> {
+			waitingForTriangle = null;
+			thumbnailView.setImage(thumbnail);
+		};
+		
+		CatalogCell(){
+			//creating a button to act as a delete button for the panel and triangle
+			Button removeButton = new Button("x");
+			removeButton.setTranslateX(28);
+			removeButton.setTranslateY(-27);
+			removeButton.setOpacity(0.8);
+			
+			//adding the thumbnail and the button to the panel
+			panel.getChildren().addAll(thumbnailView, removeButton);
+			
+			//setting the functions associated with clicking the delete button or the panel.
+			//the triangle is looked up when clicked, as the panel may have been reused for another triangle since.
+			removeButton.setOnAction(touchEvent -> removeTriangle(getItem()));
+			setOnMousePressed(touchEvent -> {
+				if(!isEmpty()) selectAndDrawPanel(getIndex());
+			});
+			
+			//moving the delete button to the front and positioning it in the top right
+			removeButton.toFront();
+			removeButton.setLayoutX(10);
+			
+			//removing the default look of the list cells, as highlighted panels are shown through their opacity
+			setStyle("-fx-background-color: transparent; -fx-padding: 0 0 2 0;");
+		}
 		
-		//setting the labels for the triangle on the newly created canvas
-		setTriangleLabels(canvas);
+		@Override
+		protected void updateItem(Triangle item, boolean empty) {
+			super.updateItem(item, empty);
+			//the thumbnail of the triangle previously in this panel is no longer needed if it is still being drawn
+			if(waitingForTriangle != null && waitingForTriangle != item) {
+				thumbnailRenderer.cancel(waitingForTriangle, THUMBNAIL_SIZE, THUMBNAIL_SIZE, showThumbnail);
+				waitingForTriangle = null;
+			}
+			if(empty || item == null) {
+				setGraphic(null);
+				return;
+			}
+			if(waitingForTriangle == null) {
+				//showing a blank thumbnail until the thumbnail of the triangle is drawn, unless it already has been
+				Image thumbnail = thumbnailRenderer.getThumbnail(item, THUMBNAIL_SIZE, THUMBNAIL_SIZE, showThumbnail);
+				if(thumbnail == null) {
+					waitingForTriangle = item;
+					thumbnail = thumbnailRenderer.getPlaceholder(THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+				}
+				thumbnailView.setImage(thumbnail);
+			}
+			setGraphic(panel);
+		}
 		
-		//updating the currently selected panel in the catalog to this newly created panel.
-		updateHighlightedPanel(panel);
+		@Override
+		public void updateSelected(boolean selected) {
+			super.updateSelected(selected);
+			//the highlighted panel is opaque, the others are see-through
+			setOpacity(selected ? 1 : 0.5);
+		}
 	}
 	
 	
@@ -428,16 +534,16 @@ public class GUIController {
 	 * Updates the catalog highlight, sets the triangle reference to the triangle 
 	 * represented by the panel clicked, and draws the triangle on the canvas.
 	 * This function is called by a setOnMousePress action that is given to every
-	 * panel created for the catalog.
-	 * @param panelClicked - the panel in the GUI triangle catalog that was clicked
+	 * panel of the catalog.
+	 * @param panelIndexClicked - index of the panel in the GUI triangle catalog that was clicked
 	 */
-	void selectAndDrawPanel(StackPane panelClicked) {
+	void selectAndDrawPanel(int panelIndexClicked) {
 		//updating catalog highlight
-		updateHighlightedPanel(panelClicked);
+		updateHighlightedPanel(panelIndexClicked);
 		//setting triangle reference to the triangle represented by the newly highlighted panel
 		triangle = triangleCatalog.getTriangle(highlightedPanelIndex);
 		//redrawing the triangle now that the triangle reference has changed
-		drawAllTriangleComponents(mainCanvas);
+		drawAllTriangleComponents();
 	}
     
 	
@@ -455,12 +561,14 @@ public class GUIController {
 			//which button was pressed to trigger this function
 			if(trigger.getSource() == nextButton) {
 				//checking if there is a triangle ahead of the currently selected one 
-				if(highlightedPanelIndex < (guiCatalogVBox.getChildren().size()-1)) {
+				if(highlightedPanelIndex < (triangleCatalog.getListSize()-1)) {
 					//setting the triangle reference to the next triangle in the list
 					triangle = triangleCatalog.getNextTriangle(triangle);
 					//updating the highlight in the catalog to reflect changes that are about
 					//to be made to the displayed triangle
 					updateHighlightedPanel(highlightedPanelIndex+1);
+					//redrawing the triangle now that the triangle reference has changed
+					drawAllTriangleComponents();
 				}	
 			} else {
 				if(highlightedPanelIndex > 0) {
@@ -469,11 +577,12 @@ public class GUIController {
 					//updating the highlight in the catalog to reflect changes that are about
 					//to be made to the displayed triangle
 					updateHighlightedPanel(highlightedPanelIndex-1);	
+					//redrawing the triangle now that the triangle reference has changed
+					drawAllTriangleComponents();
 				}
 			}
 		}
-		//redrawing the triangle now that the triangle reference has changed
-		drawAllTriangleComponents(mainCanvas);
+		//nothing is redrawn if the selected triangle did not move (ie. "Next" on the last triangle)
 	}
 	
 	
@@ -481,9 +590,8 @@ public class GUIController {
 	 * deletes a triangle from the list of triangles in the catalog, 
 	 * as well as the GUI panel representing it from the GUI catalog.
 	 * @param triangleToRemove - reference to the triangle object that needs to be deleted
-	 * @param panelToRemove - reference to the stackpane panel node that needs to be deleted
 	 */
-	void removeTriangle(Triangle triangleToRemove, StackPane panelToRemove) {
+	void removeTriangle(Triangle triangleToRemove) {
 		//if the currently selected triangle (not the triangle to be deleted) is below the triangle to remove,
 		//and the currently selected triangle is not the first triangle in the list, the highlight should move up
 		//one panel to remain on the same triangle after removing the triangle to be deleted from the list.
@@ -491,10 +599,8 @@ public class GUIController {
 				highlightedPanelIndex--;
 		}
 		
-		//removing the triangle to be deleted from the list
+		//removing the triangle to be deleted from the list, which also removes it's panel from the GUI catalog
 		triangleCatalog.removeTriangle(triangleToRemove);
-		//removing the panel representing the triangle to be deleted from the GUI catalog
-		guiCatalogVBox.getChildren().remove(panelToRemove);
 		
 		//updating the highlight on the GUI catalog to reflect any potential changes, for example
 		//if the currently selected triangle is deleted, the previous triangle would be selected
@@ -508,7 +614,7 @@ public class GUIController {
 		} else {
 			//drawing the newly selected triangle on the main canvas otherwise
 			triangle = triangleCatalog.getTriangle(highlightedPanelIndex);
-			drawAllTriangleComponents(mainCanvas);
+			drawAllTriangleComponents();
 		}
 	}
 	
@@ -518,9 +624,35 @@ public class GUIController {
 	 */
 	@FXML
 	void clearTriangleList() {
-		//removing triangles until there are none left
-		while(triangleCatalog.getListSize() > 0) {
-			removeTriangle(triangleCatalog.getTriangle(0), (StackPane) guiCatalogVBox.getChildren().get(0));
+		//removing every triangle and panel at once, rather than one at a time
+		triangleCatalog.clear();
+		highlightedPanelIndex = 0;
+		
+		//returning the program to it's initial states (clean canvas, instructions on the text area)
+		initialize();
+		triangle = null;
+	}
+	
+	
+	/**
+	 * Adds the triangles saved in the journal to the catalog, then selects the last triangle if no triangle
+	 * was created while the journal was being read. Triangles created while it was read are moved after the
+	 * restored ones, and stay selected. From then on, every triangle added to or removed from the catalog is
+	 * saved in the journal.
+	 * @param journal - journal of the catalog saved by previous runs of the program
+	 */
+	void restoreCatalog(CatalogJournal journal) {
+		//the GUI catalog is updated once for all the restored triangles, rather than once per triangle
+		catalogListModel.runAsSingleChange(() -> journal.restore(triangleCatalog, mainCanvas.getWidth(), mainCanvas.getHeight()));
+		
+		int size = triangleCatalog.getListSize();
+		if(triangle != null) {
+			//the selected triangle was moved after the restored triangles
+			updateHighlightedPanel(triangleCatalog.getIndexInList(triangle));
+		} else if(size > 0) {
+			triangle = triangleCatalog.getTriangle(size - 1);
+			updateHighlightedPanel(size - 1);
+			drawAllTriangleComponents();
 		}
 	}
 	
@@ -532,27 +664,16 @@ public class GUIController {
 	 */
 	@FXML
 	void addRandomTriangle() {
-		//clearing the textfields to prepare for new inputs
-		hypotenuseTextField.setText("");
-		oppositeTextField.setText("");
-		adjacentTextField.setText("");
-		angleThetaTextField.setText("");
-		
-		//creating new textfield objects which will reference
-		//two of the currently four existing textfields on the GUI
-		TextField pickedTextField = randomTextField();
-		TextField pickedTextField2 = pickedTextField;
-
-		//repeatedly selecting a random text field until the second text field
-		//is different from the first
-		while(pickedTextField2 == pickedTextField) {
-			pickedTextField2 = randomTextField();
-		}
+		//generating two of the opposite, adjacent and angle inputs with valid values. The hypotenuse is never
+		//picked, as any manner of right triangle can be created using just one side length and any other component.
+		randomTriangles.setAngleMode(degreesToggleButton.isSelected());
+		String[] inputs = randomTriangles.nextInputs();
 		
-		//calling custom helper method to insert valid inputs with different
-		//ranges and requirements depending on the text field that was picked
-		randomizeTextField(pickedTextField);
-		randomizeTextField(pickedTextField2);
+		//clearing the textfields of the inputs which were not picked, and setting the ones that were
+		hypotenuseTextField.setText(inputs[0]);
+		oppositeTextField.setText(inputs[1]);
+		adjacentTextField.setText(inputs[2]);
+		angleThetaTextField.setText(inputs[3]);
 		
 		//creating the triangle and additional necessary functions associated with doing so (adding to catalog, etc.)
 		calculate();
@@ -560,111 +681,15 @@ public class GUIController {
 	
 	
 	/**
-	 * Sets the text within the textField passed to this function with a randomized
-	 * value within the entire range of the specific textField's valid inputs.
-	 * @param textFieldToSet - textField that the random value should be generated for
-	 */
-	void randomizeTextField(TextField textFieldToSet){
-		//creating formatting object for later use in reducing the precision of the generated double
-		DecimalFormat dec2 = new DecimalFormat("#0.00");
-		//creating random object to generate values
-		Random rand = new Random();
-		
-		//applying different multipliers to the value returned by the random object
-		//to achieve the desired range of values based on the textfield intended to be set.
-		if(textFieldToSet == oppositeTextField || textFieldToSet == adjacentTextField) {
-			//nextDouble() returns a value (0 <= n < 1), so subtracting 0.5 allows for negative numbers to appear half the time.
-			//the intended range of inputs for these fields are (-10 <≈ n <≈ 10), so multiplying the previous result 
-			//(-0.5 <= n < 0.5) by 20 will achieve this.
-			textFieldToSet.setText("" + dec2.format((rand.nextDouble()-0.5)*20));
-		} else {
-			if(degreesToggleButton.isSelected()) {
-				//the intended range of inputs for the only other available field (angle) in degrees mode is (0 < n < 90)
-				//so multiplying the initial return (0 =< n < 1) by 90 will achieve (0 <= n < 90)
-				//Use a while loop to randomize the number again while (n*90 <= 0.01) as that will result in a 0.00 being set.
-				String angleToSet = dec2.format(rand.nextDouble()*90);
-				while(angleToSet.equals("0.00")) {
-					angleToSet = dec2.format(rand.nextDouble()*90);
-				}
-				textFieldToSet.setText(angleToSet);
-			} else {
-				//in radians mode, the range of intended range of inputs for the angle field is (0 < n < π/2)
-				//Same method as above to remove cases where a value of (n*Math.PI/2 <= 0.01) is given by nextDouble().
-				String angleToSet = dec2.format((rand.nextDouble()*Math.PI)/2);
-				while(angleToSet.equals("0.00")) {
-					angleToSet = dec2.format((rand.nextDouble()*Math.PI)/2);
-				}
-				textFieldToSet.setText(angleToSet);
-			}
-		}
-	}
-	
-	/**
-	 * randomly chooses one of the following text fields in the GUI to return: opposite, adjacent, angle.
-	 * The hypotenuse text field is not given as an option, because it can cause conflicts with attempting
-	 * to create triangles with a larger side length than hypotenuse. It is also unnecessary, because any 
-	 * manner of right triangle can be created by using just one side length and any other component.
-	 * @return references to either the opposite, adjacent, or angle text field in the GUI.
-	 */
-	TextField randomTextField() {
-		//creating random object to generate values
-		Random rand = new Random();
-		//a range of 3 allows for 3 results to choose from
-		int intPicked = rand.nextInt(3);
-		
-		//checking the generated value and returning one of the three text fields based on the result
-		if (intPicked == 0) {
-			return oppositeTextField;
-		} else if (intPicked == 1) {
-			return adjacentTextField;
-		}
-		return angleThetaTextField;
-	}
-	
-	
-	/**
-	 * Sets the opacity of all panels in the GUI catalog to either 0.5 or 1 depending on 
-	 * whether or not they are to be highlighted (highlighted = opaque)
-	 * @param panelToHighlight - the StackPane node representing that should be opaque
-	 * @implNote Overloaded method - see updateHighlightedPanel(int canvasIndexToHighlight) 
-	 */
-	void updateHighlightedPanel(StackPane panelToHighlight) {
-		//looping through every node in the GUI catalog
-		for(int i = 0; i < guiCatalogVBox.getChildren().size(); i++) {
-			if(guiCatalogVBox.getChildren().get(i) != panelToHighlight) {
-				//set opacity of the node in the VBox to 0.5 if they are not the panel to be highlighted
-				guiCatalogVBox.getChildren().get(i).setOpacity(0.5);
-			} else {
-				//set opacity of the node in the VBox to 1 if they are the panel to be highlighted
-				guiCatalogVBox.getChildren().get(i).setOpacity(1);
-				//updating the variable tracking the index of the currently highlighted triangle
-				highlightedPanelIndex = i;
-			}
-		}
-		//updating the input text fields to the inputs used to create the currently selected triangle
-		refreshTextFields();
-	}
-	
-	
-	/**
-	 * Sets the opacity of all panels in the GUI catalog to either 0.5 or 1 depending on 
-	 * whether or not they are to be highlighted (highlighted = opaque)
+	 * Highlights the panel at the given index in the GUI catalog (highlighted = opaque). Only the panels
+	 * of the previously and newly highlighted triangles change, whatever the size of the catalog.
 	 * @param panelIndexToHighlight - integer representing the index of the panel in the list to be highlighted
-	 * @implNote Overloaded method - see updateHighlightedPanel(StackPane panelToHighlight)
 	 */
 	void updateHighlightedPanel(int panelIndexToHighlight) {
-		//looping through every node in the GUI catalog
-		for(int i = 0; i < guiCatalogVBox.getChildren().size(); i++) {
-			if(guiCatalogVBox.getChildren().get(i) != guiCatalogVBox.getChildren().get(panelIndexToHighlight)) {
-				//set opacity of the node in the VBox to 0.5 if it is not at the index specified through the function arguments
-				guiCatalogVBox.getChildren().get(i).setOpacity(0.5);
-			} else {
-				//set opacity of the node in the VBox to 1 if it is at the index specified through the function arguments
-				guiCatalogVBox.getChildren().get(i).setOpacity(1);
-				//updating the variable tracking the index of the currently highlighted triangle
-				highlightedPanelIndex = i;
-			}
-		}
+		//updating the variable tracking the index of the currently highlighted triangle
+		highlightedPanelIndex = panelIndexToHighlight;
+		//selecting the panel in the GUI catalog, which changes the opacity of it's CatalogCell
+		guiCatalogListView.getSelectionModel().clearAndSelect(panelIndexToHighlight);
 		//updating the input text fields to the inputs used to create the currently selected triangle
 		refreshTextFields();
 	}
@@ -678,10 +703,10 @@ public class GUIController {
 		//checking that there are triangles in catalog before proceeding
 		if(triangleCatalog.getListSize() > 0) {
 			//creating variables to store the currently selected triangle's creation inputs to increase readability (it's too long)
-			String hypotenuseInput = triangleCatalog.getTriangle(highlightedPanelIndex).getInfo("HypotenuseInput");
-			String oppositeInput = triangleCatalog.getTriangle(highlightedPanelIndex).getInfo("OppositeInput");
-			String adjacentInput = triangleCatalog.getTriangle(highlightedPanelIndex).getInfo("AdjacentInput");
-			String angleThetaInput = triangleCatalog.getTriangle(highlightedPanelIndex).getInfo("Angle θInput");
+			String hypotenuseInput = triangleCatalog.getTriangle(highlightedPanelIndex).getInfo(InfoKey.HYPOTENUSE_INPUT);
+			String oppositeInput = triangleCatalog.getTriangle(highlightedPanelIndex).getInfo(InfoKey.OPPOSITE_INPUT);
+			String adjacentInput = triangleCatalog.getTriangle(highlightedPanelIndex).getInfo(InfoKey.ADJACENT_INPUT);
+			String angleThetaInput = triangleCatalog.getTriangle(highlightedPanelIndex).getInfo(InfoKey.ANGLE_INPUT);
 
 			//setting the GUI text field to the associated creation input value stored in the triangle if there is 
 			//one, otherwise setting it to an empty string.
@@ -705,19 +730,36 @@ public class GUIController {
 	
 	
 	/**
-	 * Creates a scene containing general information about the program and switches to it.
+	 * Switches to the scene containing general information about the program, creating it the first time.
 	 * @implNote triggered by the "Information" button
 	 */
 	@FXML
 	void switchToAboutScene(){
+		FlightEvents.SceneSwitch event = new FlightEvents.SceneSwitch();
+		event.begin();
+		event.built = aboutScene == null;
+		if(aboutScene == null) aboutScene = createAboutScene();
+		showScene(aboutScene, "about", event);
+	}
+	
+	
+	/**
+	 * Creates the scene containing general information about the program.
+	 * @return the scene, the same size as the main scene
+	 */
+	private Scene createAboutScene(){
 		//Creating a button that triggers a method which switches the scene back to the main scene
 		Button backButton = new Button("Back to Calculator");
-		backButton.setOnAction(doneEvent -> applicationStage.setScene(mainScene));
+		backButton.setOnAction(doneEvent -> switchToMainScene());
 		
 		//creating a button that triggers a method which switches the scene to the validation information scene
 		Button validationInfoButton = new Button("Validation Info.");
 		validationInfoButton.setOnAction(doneEvent -> switchToValidationScene());
 		
+		//making the buttons able to grow, so the VBox makes them both as wide as the widest for a cleaner display
+		backButton.setMaxWidth(Double.MAX_VALUE);
+		validationInfoButton.setMaxWidth(Double.MAX_VALUE);
+		
 		//creating a VBox and adding the above two buttons to it
 		VBox buttonBox = new VBox();
 		buttonBox.setAlignment(Pos.TOP_RIGHT);
@@ -757,26 +799,41 @@ public class GUIController {
 		mainBox.getChildren().addAll(labelBox,buttonBox);
 		
 		//adding the HBox to a new scene with the height and width of the main scene
-		applicationStage.setScene(new Scene(mainBox, mainScene.getWidth(), mainScene.getHeight()));
-		
-		//making one of the buttons the same width as the other for a cleaner display
-		validationInfoButton.setPrefWidth(backButton.getBoundsInParent().getWidth());
+		return new Scene(mainBox, mainScene.getWidth(), mainScene.getHeight());
 	}
 	
 	
 	/**
-	 * Creates a scene containing information about the specifics of the program's validation of user inputs and switches to it.
+	 * Switches to the scene containing information about the specifics of the program's validation of user inputs,
+	 * creating it the first time.
 	 * @implNote triggered by the "Validation Info." button in the Information/About scene
 	 */
 	@FXML
 	void switchToValidationScene() {
+		FlightEvents.SceneSwitch event = new FlightEvents.SceneSwitch();
+		event.begin();
+		event.built = validationScene == null;
+		if(validationScene == null) validationScene = createValidationScene();
+		showScene(validationScene, "validation", event);
+	}
+	
+	
+	/**
+	 * Creates the scene containing information about the specifics of the program's validation of user inputs.
+	 * @return the scene, the same size as the main scene
+	 */
+	private Scene createValidationScene() {
 		//Creating a button that triggers a method which switches the scene back to the about scene
 		Button infoButton = new Button("Back to Info.");
 		infoButton.setOnAction(doneEvent -> switchToAboutScene());
 		
 		//creating a button that triggers a method which switches the scene back to the main scene
 		Button backButton = new Button("Back to Calculator");
-		backButton.setOnAction(doneEvent -> applicationStage.setScene(mainScene));
+		backButton.setOnAction(doneEvent -> switchToMainScene());
+		
+		//making the buttons able to grow, so the VBox makes them both as wide as the widest for a cleaner display
+		infoButton.setMaxWidth(Double.MAX_VALUE);
+		backButton.setMaxWidth(Double.MAX_VALUE);
 		
 		//creating a VBox and adding the above two buttons to it
 		VBox buttonBox = new VBox();
@@ -810,10 +867,35 @@ public class GUIController {
 		mainBox.getChildren().addAll(labelBox,buttonBox);
 		
 		//adding the HBox to a new scene with the height and width of the main scene
-		applicationStage.setScene(new Scene(mainBox, mainScene.getWidth(), mainScene.getHeight()));
-		
-		//making one of the buttons the same width as the other for a cleaner display
-		infoButton.setPrefWidth(backButton.getBoundsInParent().getWidth());
+		return new Scene(mainBox, mainScene.getWidth(), mainScene.getHeight());
+	}
+	
+	
+	/**
+	 * Switches back to the main scene containing the calculator.
+	 * @implNote triggered by the "Back to Calculator" buttons of the other scenes
+	 */
+	void switchToMainScene() {
+		FlightEvents.SceneSwitch event = new FlightEvents.SceneSwitch();
+		event.begin();
+		showScene(mainScene, "calculator", event);
+	}
+	
+	
+	/**
+	 * Shows the scene in the window of the program, and records the switch to it.
+	 * @param scene - the scene to show
+	 * @param name - name of the scene, for the recorded event
+	 * @param event - event begun before the scene was built
+	 */
+	private void showScene(Scene scene, String name, FlightEvents.SceneSwitch event) {
+		applicationStage.setScene(scene);
+		if(event.shouldCommit()) {
+			event.from = sceneName;
+			event.to = name;
+			event.commit();
+		}
+		sceneName = name;
 	}
 	
 	
@@ -857,6 +939,50 @@ public class GUIController {
     		instructionLabel.setText("Enter Two Variable Names (see Information): ");
     	}
     }
+    
+    
+    /**
+     * Switches the main canvas between showing the current triangle and showing every triangle 
+     * in the catalog at once (with the current triangle highlighted).
+     * @implNote triggered by the "Overlay All" togglebutton
+     */
+    @FXML
+    void toggleOverlay() {
+    	//the canvas is cleared either way, as the renderer of the current triangle only repaints what it drew itself
+    	mainCanvasRenderer.clear();
+    	if(overlayToggleButton.isSelected()) {
+    		overlayRenderer.draw(triangle);
+    	} else if(triangle != null) {
+    		drawAllTriangleComponents();
+    	}
+    }
+	
+	
+	/**
+	 * Key of the label points of a triangle: the triangle object itself (not it's values) and the size of the canvas.
+	 */
+	private static final class LabelKey {
+		private final Triangle triangle;
+		private final double canvasWidth, canvasHeight;
+		
+		private LabelKey(Triangle triangle, double canvasWidth, double canvasHeight) {
+			this.triangle = triangle;
+			this.canvasWidth = canvasWidth;
+			this.canvasHeight = canvasHeight;
+		}
+		
+		@Override
+		public boolean equals(Object other) {
+			if(!(other instanceof LabelKey)) return false;
+			LabelKey key = (LabelKey) other;
+			return triangle == key.triangle && canvasWidth == key.canvasWidth && canvasHeight == key.canvasHeight;
+		}
+		
+		@Override
+		public int hashCode() {
+			return (System.identityHashCode(triangle) * 31 + Double.hashCode(canvasWidth)) * 31 + Double.hashCode(canvasHeight);
+		}
+	}
 }
 
 
@@ -0,0 +1,61 @@
+package application;
+
+/**
+ * Enum of the pieces of string information stored in a triangle. These are the values displayed
+ * to the user, the method used to solve the triangle, and the text the user entered in each input
+ * field to create the triangle. Each constant stores the name it has always been accessed by.
+ */
+public enum InfoKey {
+	HYP("hyp"),
+	OPP("opp"),
+	ADJ("adj"),
+	ANG("ang"),
+	SOLVE_METHOD("solveMethod"),
+	HYPOTENUSE_INPUT("HypotenuseInput"),
+	OPPOSITE_INPUT("OppositeInput"),
+	ADJACENT_INPUT("AdjacentInput"),
+	ANGLE_INPUT("Angle θInput");
+
+	/**Number of keys, used as the size of the array storing a triangle's information*/
+	static final int COUNT = values().length;
+
+	private static final InfoKey[] VALUES = values();
+
+	private final String key;
+
+	/**
+	 * InfoKey constructor. Sets the name of the key.
+	 * @param key - name the information has always been accessed by
+	 */
+	InfoKey(String key){
+		this.key = key;
+	}
+
+	/**
+	 * @return name of the key (ie. "hyp" or "HypotenuseInput")
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Finds the InfoKey with the given name.
+	 * @param key - name of the key to find
+	 * @return the InfoKey with the given name, or null if there is none
+	 */
+	public static InfoKey fromKey(String key) {
+		for(InfoKey infoKey : VALUES) {
+			if(infoKey.key.equals(key)) return infoKey;
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the key that the text entered in an input field is stored under.
+	 * @param field - the input field
+	 * @return the InfoKey storing the text entered in the field
+	 */
+	public static InfoKey inputOf(InputField field) {
+		return VALUES[HYPOTENUSE_INPUT.ordinal() + field.ordinal()];
+	}
+}
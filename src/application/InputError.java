@@ -0,0 +1,62 @@
+package application;
+
+/**
+ * Enum of the ways that a value entered in an input text field can be invalid. Each constant
+ * stores the part of the error description shown to the user after the label of the field.
+ */
+public enum InputError {
+	NONE(""),
+	MULTIPLE_DECIMALS(" can only contain one decimal point."),
+	MULTIPLE_NEGATIVE_SIGNS(" can only contain one negative sign."),
+	INVALID_CHARACTER(" can only contain digits, decimals or neg. signs."),
+	NO_DIGITS(" must contain at least one digit."),
+	ANGLE_OUT_OF_RANGE(" must be less than 90° or π/2 (~1.57)"),
+	NEGATIVE_HYPOTENUSE(" can not be less than 0."),
+	ZERO(" can not be equal to 0.");
+
+	private final String message;
+
+	/**
+	 * InputError constructor. Sets the message describing the error.
+	 * @param message - description of the error, shown after the label of the field
+	 */
+	InputError(String message){
+		this.message = message;
+	}
+
+	/**
+	 * Checks that a numeric value is within the valid range for the field it was entered in.
+	 * Angles must be (0 < n < 90) in degrees mode, or (0 < n < π/2) in radians mode,
+	 * the hypotenuse can not be negative, and no value can be 0.
+	 * @param field - the input field the value was entered in
+	 * @param value - value to check
+	 * @param degreesMode - whether the program is currently calculating in degrees or radians
+	 * @return the error causing the value to be invalid, or NONE if it is valid
+	 */
+	public static InputError checkRange(InputField field, double value, boolean degreesMode) {
+		if(field == InputField.ANGLE && (value >= (degreesMode ? 90 : Math.PI/2) || value < 0)) return ANGLE_OUT_OF_RANGE;
+		if(field == InputField.HYPOTENUSE && value < 0) return NEGATIVE_HYPOTENUSE;
+		if(value == 0) return ZERO;
+		return NONE;
+	}
+
+	/**
+	 * @return true if this error is a number out of the range allowed for its field, rather than text
+	 * that is not a number
+	 */
+	public boolean isRangeError() {
+		return this == ANGLE_OUT_OF_RANGE || this == NEGATIVE_HYPOTENUSE || this == ZERO;
+	}
+
+	/**
+	 * Creates the error description shown to the user for this error in the given field.
+	 * Any error in the angle field is described with the valid range of angles.
+	 * @param field - the input field the error occurred in
+	 * @return String describing the error (empty string if there is no error)
+	 */
+	public String describe(InputField field) {
+		if(this == NONE) return "";
+		if(field == InputField.ANGLE) return field.getLabel() + ANGLE_OUT_OF_RANGE.message;
+		return field.getLabel() + message;
+	}
+}
@@ -0,0 +1,29 @@
+package application;
+
+/**
+ * Enum of the four input text fields a triangle is created from. Each constant stores the
+ * label used to refer to the field in error descriptions.
+ */
+public enum InputField {
+	HYPOTENUSE("Hypotenuse"),
+	OPPOSITE("Opposite"),
+	ADJACENT("Adjacent"),
+	ANGLE("Angle θ");
+
+	private final String label;
+
+	/**
+	 * InputField constructor. Sets the label of the field.
+	 * @param label - label used to refer to the field in error descriptions
+	 */
+	InputField(String label){
+		this.label = label;
+	}
+
+	/**
+	 * @return label used to refer to the field in error descriptions (ie. "Hypotenuse")
+	 */
+	public String getLabel() {
+		return label;
+	}
+}
@@ -0,0 +1,100 @@
+package application;
+
+/**
+ * Reusable parser which validates the text entered in an input field and converts it into a
+ * double in a single pass over the characters, without creating any objects. Valid text only
+ * contains digits, up to one decimal point, and optionally a negative sign as the first character.
+ * A parser holds the value of its last parse, so each thread should use its own instance.
+ */
+public final class InputParser {
+	/**Largest number of significant digits that is always exactly representable as a double*/
+	private static final int MAX_EXACT_DIGITS = 15;
+
+	/**Powers of ten which are all exactly representable as a double*/
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private double value;
+
+	/**
+	 * Validates and parses all of the given text.
+	 * @param field - the input field the text was entered in
+	 * @param text - text to validate and parse
+	 * @param degreesMode - whether the program is currently calculating in degrees or radians
+	 * @return the error causing the text to be invalid, or NONE if it is valid, in which case
+	 * the parsed value is available from getValue()
+	 * @implNote This method is overloaded - see parse(InputField, CharSequence, int, int, boolean)
+	 */
+	public InputError parse(InputField field, CharSequence text, boolean degreesMode) {
+		return parse(field, text, 0, text.length(), degreesMode);
+	}
+
+	/**
+	 * Validates and parses the characters of the text between start (inclusive) and end (exclusive).
+	 * @param field - the input field the text was entered in
+	 * @param text - text containing the characters to validate and parse
+	 * @param start - index of the first character to parse
+	 * @param end - index after the last character to parse
+	 * @param degreesMode - whether the program is currently calculating in degrees or radians
+	 * @return the error causing the text to be invalid, or NONE if it is valid, in which case
+	 * the parsed value is available from getValue()
+	 * @implNote This method is overloaded - see parse(InputField, CharSequence, boolean)
+	 */
+	public InputError parse(InputField field, CharSequence text, int start, int end, boolean degreesMode) {
+		//initializing variables that keep track of un-allowed or limited-quantity-allowed characters
+		int dotCount = 0;
+		int otherCount = 0;
+		int digitCount = 0;
+		boolean negative = false;
+
+		//variables used to build the value while looping through the characters
+		long mantissa = 0;
+		int significantDigits = 0;
+		int fractionDigits = 0;
+
+		for(int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if(c >= '0' && c <= '9') {
+				digitCount++;
+				if(dotCount > 0) fractionDigits++;
+				//leading zeros do not count towards the significant digits
+				if(significantDigits > 0 || c != '0') {
+					significantDigits++;
+					if(significantDigits <= MAX_EXACT_DIGITS) mantissa = mantissa*10 + (c - '0');
+				}
+			}
+			else if(c == '.') dotCount++;
+			else if(c == '-' && i == start) negative = true;
+			else otherCount++;
+		}
+
+		//checking the characters in the same order that their error descriptions have always been chosen in
+		if(dotCount > 1) return InputError.MULTIPLE_DECIMALS;
+		if(otherCount >= 1) return InputError.INVALID_CHARACTER;
+		if(digitCount == 0) return InputError.NO_DIGITS;
+
+		if(significantDigits <= MAX_EXACT_DIGITS && fractionDigits < POWERS_OF_TEN.length) {
+			//both numbers are exact doubles, so the one rounding done by the division gives
+			//the same result as Double.parseDouble
+			value = mantissa / POWERS_OF_TEN[fractionDigits];
+		} else {
+			//values with too many digits to be parsed exactly are very rare, so
+			//the standard (object creating) parsing is used for them instead.
+			value = Math.abs(Double.parseDouble(text.subSequence(start, end).toString()));
+		}
+		if(negative) value = -value;
+
+		return InputError.checkRange(field, value, degreesMode);
+	}
+
+	/**
+	 * Getter method for the value of the last text parsed as a number, either without errors or with
+	 * an error where InputError.isRangeError() is true.
+	 * @return value of the last text that was parsed as a number
+	 */
+	public double getValue() {
+		return value;
+	}
+}
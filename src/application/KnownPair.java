@@ -0,0 +1,53 @@
+package application;
+
+/**
+ * Enum of the six combinations of two known side lengths/angle that a right triangle can be
+ * solved from. Each constant stores the description of the trigonometric formula used to
+ * solve for the missing values, which is shown to the user as the triangle's "solve method".
+ */
+public enum KnownPair {
+	HYP_OPP("θ = aSin(o/h) \nRearranged from: sinθ = o/h"),
+	HYP_ADJ("θ = aCos(a/h) \nRearranged from: cosθ = a/h"),
+	HYP_ANG("o = h*sin(θ) \nRearranged from: sinθ = o/h \n\nTrig. Formula Used: a = h*cos(θ) \nRearranged from: cosθ = a/h"),
+	OPP_ADJ("θ = aTan(o/a) \nRearranged from: tanθ = o/a"),
+	OPP_ANG("a = o/tan(θ) \nRearranged from: tanθ = o/a"),
+	ADJ_ANG("o = a*tan(θ) \nRearranged from: tanθ = o/a");
+
+	private final String solveMethod;
+
+	/**
+	 * KnownPair constructor. Sets the description of the formula used to solve this combination.
+	 * @param solveMethod - description of the trigonometric formula used to solve the triangle
+	 */
+	KnownPair(String solveMethod){
+		this.solveMethod = solveMethod;
+	}
+
+	/**
+	 * Determines which combination of values was given, using the same rule as the rest of the program:
+	 * a value of 0 means that the value is unknown and must be solved for. When more than two values are
+	 * given, the first matching combination in the declaration order of this enum is used.
+	 * @param hyp - hypotenuse side length (0 if unknown)
+	 * @param opp - opposite side length (0 if unknown)
+	 * @param adj - adjacent side length (0 if unknown)
+	 * @param ang - angle theta (0 if unknown)
+	 * @return the combination of known values, or null if less than two values are known
+	 */
+	public static KnownPair of(double hyp, double opp, double adj, double ang) {
+		if(hyp!=0 && opp!=0) return HYP_OPP;
+		if(hyp!=0 && adj!=0) return HYP_ADJ;
+		if(hyp!=0 && ang!=0) return HYP_ANG;
+		if(opp!=0 && adj!=0) return OPP_ADJ;
+		if(opp!=0 && ang!=0) return OPP_ANG;
+		if(adj!=0 && ang!=0) return ADJ_ANG;
+		return null;
+	}
+
+	/**
+	 * Getter method for the description of the formula used to solve this combination of values.
+	 * @return String describing the trigonometric formula used
+	 */
+	public String getSolveMethod() {
+		return solveMethod;
+	}
+}
@@ -0,0 +1,113 @@
+package application;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * Places labels as close as possible to the points they describe without any two of them overlapping. Every label
+ * takes up the same rectangle, starting at the point it is written at. Labels are placed from the top of the canvas
+ * down, and a label that would overlap one already placed is moved down just below it, until it overlaps none.
+ *
+ * Placed labels are kept in a grid of cells the size of a label, so checking a label for overlaps only looks at the
+ * labels in the 9 cells around it rather than at every label. Laying out n labels spread over the canvas takes close
+ * to linear time; labels that all start at the same point take longer, as each is moved down past the ones before it.
+ * The layout only depends on the points given, in order, so it can be cached.
+ */
+public class LabelLayout {
+	private final double labelWidth, labelHeight, xBound, yBound;
+
+	/**
+	 * LabelLayout constructor.
+	 * @param labelWidth - width of every label; labels closer than this horizontally may overlap
+	 * @param labelHeight - height of every label; labels closer than this vertically may overlap
+	 * @param xBound - maximum x coordinate of a label (so it is fully visible)
+	 * @param yBound - minimum y coordinate of a label (so it is fully visible)
+	 */
+	LabelLayout(double labelWidth, double labelHeight, double xBound, double yBound){
+		if(!(labelWidth > 0) || !(labelHeight > 0)) throw new IllegalArgumentException("Labels must have a size, not " + labelWidth + "x" + labelHeight);
+		this.labelWidth = labelWidth;
+		this.labelHeight = labelHeight;
+		this.xBound = xBound;
+		this.yBound = yBound;
+	}
+
+	/**
+	 * Lays out a label for each point given.
+	 * @param anchors - the point each label would ideally be written at (not changed)
+	 * @return the point to write each label at, in the same order as the anchors
+	 */
+	public Point[] layout(Point[] anchors) {
+		int count = anchors.length;
+		double[] x = new double[count];
+		double[] y = new double[count];
+		Integer[] order = new Integer[count];
+		for(int i = 0; i < count; i++) {
+			//moving the label within the bounds, the same way GUIController.calculateMidpoint() does
+			x[i] = Math.min(anchors[i].getX(), xBound);
+			y[i] = Math.max(anchors[i].getY(), yBound);
+			order[i] = i;
+		}
+		//placing the labels from top to bottom (then left to right, then in the order given, so the layout never
+		//depends on anything but the points), as labels are only ever moved down
+		Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> y[i]).thenComparingDouble(i -> x[i]).thenComparingInt(i -> i));
+
+		HashMap<Long, int[]> grid = new HashMap<Long, int[]>();
+		for(int label : order) {
+			long column = (long) Math.floor(x[label] / labelWidth);
+			while(true) {
+				//finding the lowest bottom edge of the placed labels this one overlaps
+				long row = (long) Math.floor(y[label] / labelHeight);
+				double lowest = y[label];
+				for(long c = column - 1; c <= column + 1; c++) {
+					for(long r = row - 1; r <= row + 1; r++) {
+						int[] cell = grid.get(cellKey(c, r));
+						if(cell == null) continue;
+						//the first element of each cell is the number of labels in it
+						for(int i = 1; i <= cell[0]; i++) {
+							int placed = cell[i];
+							//comparing edges rather than distances, so a label moved to the bottom edge of another never overlaps it
+							if(x[label] < x[placed] + labelWidth && x[placed] < x[label] + labelWidth
+									&& y[label] < y[placed] + labelHeight && y[placed] < y[label] + labelHeight) {
+								lowest = Math.max(lowest, y[placed] + labelHeight);
+							}
+						}
+					}
+				}
+				if(lowest == y[label]) break;
+				//moving the label below the labels it overlaps, then checking for overlaps again at it's new position
+				y[label] = lowest;
+			}
+			addToCell(grid, cellKey(column, (long) Math.floor(y[label] / labelHeight)), label);
+		}
+
+		Point[] points = new Point[count];
+		for(int i = 0; i < count; i++) {
+			points[i] = new Point(x[i], y[i]);
+		}
+		return points;
+	}
+
+	/**
+	 * @return key of the grid cell at the given column and row
+	 */
+	private static Long cellKey(long column, long row) {
+		return (column << 32) ^ (row & 0xffffffffL);
+	}
+
+	/**
+	 * Adds a label to a grid cell, growing the cell if it is full.
+	 */
+	private static void addToCell(HashMap<Long, int[]> grid, Long key, int label) {
+		int[] cell = grid.get(key);
+		if(cell == null) {
+			cell = new int[4];
+			grid.put(key, cell);
+		} else if(cell[0] + 1 == cell.length) {
+			cell = Arrays.copyOf(cell, cell.length * 2);
+			grid.put(key, cell);
+		}
+		cell[0]++;
+		cell[cell[0]] = label;
+	}
+}
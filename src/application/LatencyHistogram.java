@@ -0,0 +1,162 @@
+package application;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of how long an operation took, in nanoseconds, which any number of threads can record to at once
+ * without locking. Like an HdrHistogram, durations are counted in buckets whose width grows with the duration,
+ * so that every bucket is under 1/64 (about 1.6%) of the durations it counts wide: durations up to 127ns each
+ * have their own bucket, then each doubling of the duration is split into 64 buckets. Recording a duration only
+ * increments one bucket and a sum, so it is cheap enough to leave on for every call of the operations measured.
+ *
+ * Durations over MAX_DURATION are counted as MAX_DURATION, and the percentiles are given as the largest
+ * duration of the bucket they fall in.
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+	/**Number of buckets each doubling of the duration is split into (as a power of 2)*/
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/**Longest duration counted separately, about 18 minutes*/
+	static final long MAX_DURATION = (1L << 40) - 1;
+
+	private final String name;
+	private final AtomicLongArray buckets = new AtomicLongArray(bucketOf(MAX_DURATION) + 1);
+	private final LongAdder total = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * LatencyHistogram constructor.
+	 * @param name - name of the operation measured (ie. "triangle.construct")
+	 */
+	LatencyHistogram(String name){
+		this.name = name;
+	}
+
+	/**
+	 * Records the duration of one call of the operation.
+	 * @param nanos - how long the operation took, in nanoseconds
+	 */
+	public void record(long nanos) {
+		if(nanos < 0) nanos = 0;
+		if(nanos > MAX_DURATION) nanos = MAX_DURATION;
+		buckets.incrementAndGet(bucketOf(nanos));
+		total.add(nanos);
+		//only writing the maximum when it changes, which is rarely after the first few calls
+		if(nanos > max.get()) max.accumulateAndGet(nanos, Math::max);
+	}
+
+	/**
+	 * Records the duration of one call of the operation, which started at the given time.
+	 * @param startNanos - value of System.nanoTime() when the operation started
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * @return index of the bucket counting the duration
+	 */
+	private static int bucketOf(long nanos) {
+		if(nanos < SUB_BUCKETS * 2) return (int) nanos;
+		//shifting the duration down so that it is between SUB_BUCKETS and 2*SUB_BUCKETS
+		int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+		return (shift << SUB_BUCKET_BITS) + (int) (nanos >>> shift);
+	}
+
+	/**
+	 * @return largest duration counted by the bucket
+	 */
+	private static long highestInBucket(int bucket) {
+		if(bucket < SUB_BUCKETS * 2) return bucket;
+		int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+		long subBucket = (bucket & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public long getCount() {
+		long count = 0;
+		for(int i = 0; i < buckets.length(); i++) count += buckets.get(i);
+		return count;
+	}
+
+	@Override
+	public long getTotalNanos() {
+		return total.sum();
+	}
+
+	@Override
+	public double getMeanNanos() {
+		long count = getCount();
+		return count == 0 ? 0 : (double) total.sum() / count;
+	}
+
+	@Override
+	public long getMaxNanos() {
+		return max.get();
+	}
+
+	@Override
+	public long getP50Nanos() {
+		return getPercentileNanos(50);
+	}
+
+	@Override
+	public long getP90Nanos() {
+		return getPercentileNanos(90);
+	}
+
+	@Override
+	public long getP99Nanos() {
+		return getPercentileNanos(99);
+	}
+
+	@Override
+	public long getP999Nanos() {
+		return getPercentileNanos(99.9);
+	}
+
+	/**
+	 * Finds the duration that the given percent of the recorded durations are shorter than or equal to.
+	 * Durations recorded while the buckets are being read may or may not be counted.
+	 * @param percentile - percent of the durations (0 to 100)
+	 * @return the duration at the percentile, in nanoseconds (0 if nothing was recorded)
+	 */
+	public long getPercentileNanos(double percentile) {
+		long[] counts = new long[buckets.length()];
+		long count = 0;
+		for(int i = 0; i < counts.length; i++) {
+			counts[i] = buckets.get(i);
+			count += counts[i];
+		}
+		if(count == 0) return 0;
+		//the rank of the duration at the percentile, counting from 1
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for(int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if(seen >= rank) return Math.min(highestInBucket(i), max.get());
+		}
+		return max.get();
+	}
+
+	@Override
+	public void reset() {
+		for(int i = 0; i < buckets.length(); i++) buckets.set(i, 0);
+		total.reset();
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: count=%d mean=%.0fns p50=%dns p99=%dns max=%dns", name, getCount(), getMeanNanos(),
+				getP50Nanos(), getP99Nanos(), getMaxNanos());
+	}
+}
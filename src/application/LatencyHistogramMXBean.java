@@ -0,0 +1,57 @@
+package application;
+
+/**
+ * Management interface of a LatencyHistogram, so that the durations of an operation can be read while the program
+ * is running by JConsole or any other JMX client. All durations are in nanoseconds.
+ */
+public interface LatencyHistogramMXBean {
+	/**
+	 * @return name of the operation measured
+	 */
+	String getName();
+
+	/**
+	 * @return number of calls of the operation recorded
+	 */
+	long getCount();
+
+	/**
+	 * @return sum of the durations of every call recorded
+	 */
+	long getTotalNanos();
+
+	/**
+	 * @return mean duration of the calls recorded
+	 */
+	double getMeanNanos();
+
+	/**
+	 * @return longest duration recorded
+	 */
+	long getMaxNanos();
+
+	/**
+	 * @return median duration
+	 */
+	long getP50Nanos();
+
+	/**
+	 * @return duration that 90% of calls took at most
+	 */
+	long getP90Nanos();
+
+	/**
+	 * @return duration that 99% of calls took at most
+	 */
+	long getP99Nanos();
+
+	/**
+	 * @return duration that 99.9% of calls took at most
+	 */
+	long getP999Nanos();
+
+	/**
+	 * Forgets every call recorded so far.
+	 */
+	void reset();
+}
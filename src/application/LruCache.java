@@ -0,0 +1,142 @@
+package application;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe map holding up to a fixed number of entries. Once full, adding an entry evicts the
+ * least recently used one. Counts the hits, misses and evictions of the cache so that its
+ * effectiveness can be checked.
+ *
+ * Entries can also be given a weight (ie. their size in bytes), in which case the cache holds
+ * entries up to a total weight rather than a number of entries.
+ * @param <K> - type of the keys
+ * @param <V> - type of the cached values
+ */
+public class LruCache<K, V> {
+	private final long maxWeight;
+	private final ToLongFunction<? super V> weigher;
+	private final LinkedHashMap<K, V> entries;
+	private long weight, hits, misses, evictions;
+
+	/**
+	 * LruCache constructor.
+	 * @param maxEntries - largest number of entries to hold before evicting the least recently used entry
+	 */
+	LruCache(int maxEntries){
+		this(maxEntries, value -> 1);
+	}
+
+	/**
+	 * LruCache constructor for entries of different weights.
+	 * @param maxWeight - largest total weight of entries to hold before evicting the least recently used entries
+	 * @param weigher - gives the weight of a value, which must not change while the value is cached
+	 */
+	LruCache(long maxWeight, ToLongFunction<? super V> weigher){
+		if(maxWeight < 1) throw new IllegalArgumentException("Cache must have a positive maximum weight, not " + maxWeight);
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+		//access order moves each entry to the end of the map whenever it is used,
+		//so the first entry of the map is always the least recently used
+		this.entries = new LinkedHashMap<K, V>(16, 0.75f, true);
+	}
+
+	/**
+	 * Gets the value cached for the key, marking it as the most recently used entry.
+	 * @param key - key to get the value of
+	 * @return the cached value, or null if there is none
+	 */
+	public synchronized V get(K key) {
+		V value = entries.get(key);
+		if(value == null) misses++;
+		else hits++;
+		return value;
+	}
+
+	/**
+	 * Caches the value for the key, evicting the least recently used entries if the cache is full.
+	 * The new entry itself is always kept, even if it is heavier than the cache can hold.
+	 * @param key - key to cache the value under
+	 * @param value - value to cache (not null)
+	 */
+	public synchronized void put(K key, V value) {
+		V replaced = entries.put(key, value);
+		weight += weigher.applyAsLong(value);
+		if(replaced != null) weight -= weigher.applyAsLong(replaced);
+
+		//the new entry is the last of the map, so it is only reached once every other entry is evicted
+		Iterator<V> leastRecentlyUsed = entries.values().iterator();
+		while(weight > maxWeight && entries.size() > 1) {
+			weight -= weigher.applyAsLong(leastRecentlyUsed.next());
+			leastRecentlyUsed.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Removes all entries from the cache. The counters are not reset.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		weight = 0;
+	}
+
+	/**
+	 * Resets the hit, miss and eviction counters to 0.
+	 */
+	public synchronized void resetCounters() {
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	/**
+	 * @return number of entries currently in the cache
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return total weight of the entries currently in the cache (their number, unless the cache has a weigher)
+	 */
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return largest total weight of entries the cache holds (their number, unless the cache has a weigher)
+	 */
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * @return number of calls to get() which found a cached value
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of calls to get() which found no cached value
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return number of entries evicted to make room for new entries
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "LruCache[size=" + entries.size() + ", weight=" + weight + "/" + maxWeight + ", hits=" + hits
+				+ ", misses=" + misses + ", evictions=" + evictions + "]";
+	}
+}
@@ -1,8 +1,7 @@
 package application;
 	
-import java.io.FileInputStream;
-
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.stage.Stage;
 import javafx.scene.Scene;
@@ -12,12 +11,22 @@ import javafx.scene.control.ScrollPane;
  * Main class. Starting point of the javaFX program, executed when the program is run. 
  */
 public class Main extends Application {
+	//journal saving the triangle catalog between runs of the program (null until it is opened in the
+	//background, or if it could not be opened)
+	private volatile CatalogJournal catalogJournal;
+	
 	@Override
 	public void start(Stage primaryStage) {
+		StartupTimer.mark("start");
 		try {
-			//creation and use of FXMLLoader object to get the root node in the FXML for use in creating a scene
-			FXMLLoader loader = new FXMLLoader();
-			ScrollPane root = loader.load(new FileInputStream("src/application/GUI.fxml" ));
+			//creation and use of FXMLLoader object to get the root node in the FXML for use in creating a scene.
+			//The FXML is loaded from the module of the program, so it is found wherever the program is run from.
+			//FXMLLoader still creates the nodes and fills in the controller's @FXML fields by reflection. This is
+			//kept so the layout can still be edited as FXML, and is timed separately by the "fxml loaded" point of
+			//the StartupTimer. The classes it loads are included in the class data sharing archive (see cds/).
+			FXMLLoader loader = new FXMLLoader(Main.class.getResource("GUI.fxml"));
+			ScrollPane root = loader.load();
+			StartupTimer.mark("fxml loaded");
 		
 			//creating a new scene using the root node in the FXML and putting it on the stage
 			Scene scene = new Scene(root,520,630); 
@@ -26,18 +35,48 @@ public class Main extends Application {
 			//changing some settings of the stage and displaying it
 			primaryStage.setTitle("Right Triangle Trigonometry Calculator");
 			primaryStage.setResizable(false);
+			StartupTimer.markFirstFrame(scene);
 			primaryStage.show();
 			
+			//making the metrics of the program readable through JMX (ie. with JConsole) while it runs. Starting
+			//JMX takes a few hundred milliseconds, so it is done in the background to not delay the first frame.
+			Thread registration = new Thread(Metrics::registerMBeans, "Metrics registration");
+			registration.setDaemon(true);
+			registration.start();
+			
 			//giving the variables in the controller class references to the stage and scene created just now 
 			GUIController controller = (GUIController) loader.getController();
 			controller.applicationStage = primaryStage;
 			controller.mainScene = scene;
+			
+			//reloading the triangles created in previous runs of the program. The journal is read on a background
+			//thread, and the triangles are only added to the catalog on the JavaFX thread once it has been read,
+			//so a long journal does not delay the first frame. The program still works without a journal, the
+			//catalog just won't be saved.
+			Thread restore = new Thread(() -> {
+				try {
+					CatalogJournal journal = new CatalogJournal(CatalogJournal.defaultPath());
+					catalogJournal = journal;
+					Platform.runLater(() -> controller.restoreCatalog(journal));
+				} catch(Exception e) {
+					e.printStackTrace();
+				}
+			}, "Catalog restore");
+			restore.setDaemon(true);
+			restore.start();
 		} catch(Exception e) {
 			e.printStackTrace();
 		}
 	}
 	
+	@Override
+	public void stop() {
+		//writing any changes to the catalog which have not been saved yet
+		if(catalogJournal != null) catalogJournal.close();
+	}
+	
 	public static void main(String[] args) {
+		StartupTimer.mark("main");
 		launch(args);
 	}
 }
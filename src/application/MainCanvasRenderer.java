@@ -0,0 +1,221 @@
+package application;
+
+import java.util.Arrays;
+
+import javafx.geometry.Bounds;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Text;
+
+/**
+ * Draws triangles and their labels on the main canvas, repainting only what changed since the last triangle
+ * drawn. The border is only painted when the canvas is cleared or changes size. When the outline or some of
+ * the labels change, only the region covering where they were and where they now are is cleared and redrawn,
+ * and a triangle that looks exactly like the one already on the canvas is not redrawn at all. This keeps
+ * scrolling quickly through the catalog from repainting the whole canvas for every triangle.
+ *
+ * Must only be used on the JavaFX application thread.
+ */
+public class MainCanvasRenderer {
+	/**Extra space around the dirty region, so the smoothed edges of lines and text are cleared as well*/
+	private static final double MARGIN = 2;
+
+	private final Canvas canvas;
+	/**Used to measure the size of the labels, as the canvas can not*/
+	private final Text textMeasurer = new Text();
+
+	//what is currently on the canvas (the outline and labels are null if there is no triangle drawn)
+	private double drawnWidth = -1, drawnHeight = -1;
+	private double[] drawnOutline, drawnLabelPositions, drawnLabelBounds;
+	private String[] drawnLabels;
+
+	private long fullRepaints, partialRepaints, skippedRepaints;
+
+	/**
+	 * MainCanvasRenderer constructor.
+	 * @param canvas - canvas to draw on, which nothing else should draw on
+	 */
+	MainCanvasRenderer(Canvas canvas){
+		this.canvas = canvas;
+	}
+
+	/**
+	 * Removes any triangle from the canvas, leaving only the border.
+	 */
+	public void clear() {
+		paintBorder();
+		drawnOutline = null;
+		drawnLabels = null;
+		drawnLabelPositions = null;
+		drawnLabelBounds = null;
+		fullRepaints++;
+	}
+
+	/**
+	 * Draws a triangle, already prepared for the canvas, and it's labels in place of the triangle currently drawn.
+	 * @param hypAdj - corner between the hypotenuse and adjacent sides
+	 * @param hypOpp - corner between the hypotenuse and opposite sides
+	 * @param oppAdj - corner between the opposite and adjacent sides
+	 * @param labels - text of each label
+	 * @param labelPositions - position of the start of the baseline of each label
+	 * @return true if anything was repainted, false if the canvas already showed the same triangle and labels
+	 */
+	public boolean draw(Point hypAdj, Point hypOpp, Point oppAdj, String[] labels, Point[] labelPositions) {
+		double width = canvas.getWidth(), height = canvas.getHeight();
+		double[] outline = {hypAdj.getX(), hypAdj.getY(), hypOpp.getX(), hypOpp.getY(), oppAdj.getX(), oppAdj.getY()};
+		double[] positions = new double[labelPositions.length * 2];
+		for(int i = 0; i < labelPositions.length; i++) {
+			positions[i * 2] = labelPositions[i].getX();
+			positions[i * 2 + 1] = labelPositions[i].getY();
+		}
+
+		boolean resized = width != drawnWidth || height != drawnHeight;
+		boolean outlineChanged = !Arrays.equals(outline, drawnOutline);
+		if(!resized && !outlineChanged && Arrays.equals(labels, drawnLabels) && Arrays.equals(positions, drawnLabelPositions)) {
+			skippedRepaints++;
+			return false;
+		}
+
+		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		double[] labelBounds = measureLabels(graphics, labels, positions);
+		if(resized) {
+			paintBorder();
+			paint(graphics, outline, labels, positions);
+			fullRepaints++;
+		} else {
+			//finding the region of the canvas covering everything that changed, both where it was and where it now is
+			double[] dirty = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+			if(outlineChanged) {
+				includeOutline(dirty, drawnOutline);
+				includeOutline(dirty, outline);
+			}
+			int drawnCount = drawnLabels == null ? 0 : drawnLabels.length;
+			for(int i = 0; i < Math.max(labels.length, drawnCount); i++) {
+				boolean isNew = i < labels.length, wasDrawn = i < drawnCount;
+				if(isNew && wasDrawn && labels[i].equals(drawnLabels[i]) && positions[i * 2] == drawnLabelPositions[i * 2]
+						&& positions[i * 2 + 1] == drawnLabelPositions[i * 2 + 1]) continue;
+				if(wasDrawn) include(dirty, drawnLabelBounds, i);
+				if(isNew) include(dirty, labelBounds, i);
+			}
+
+			//the border is never inside the region, so it does not need to be repainted
+			double minX = Math.max(1, Math.floor(dirty[0] - MARGIN));
+			double minY = Math.max(1, Math.floor(dirty[1] - MARGIN));
+			double maxX = Math.min(width - 1, Math.ceil(dirty[2] + MARGIN));
+			double maxY = Math.min(height - 1, Math.ceil(dirty[3] + MARGIN));
+			if(minX < maxX && minY < maxY) {
+				//clearing the region, then redrawing everything that is at least partly inside of it. Parts
+				//outside of the region are left as they are, as they were not cleared.
+				graphics.save();
+				graphics.beginPath();
+				graphics.rect(minX, minY, maxX - minX, maxY - minY);
+				graphics.clip();
+				graphics.setFill(Color.WHITE);
+				graphics.fillRect(minX, minY, maxX - minX, maxY - minY);
+				paint(graphics, outline, labels, positions);
+				graphics.restore();
+			}
+			partialRepaints++;
+		}
+
+		drawnWidth = width;
+		drawnHeight = height;
+		drawnOutline = outline;
+		drawnLabels = labels.clone();
+		drawnLabelPositions = positions;
+		drawnLabelBounds = labelBounds;
+		return true;
+	}
+
+	/**
+	 * @return number of times the whole canvas was repainted
+	 */
+	public long getFullRepaints() {
+		return fullRepaints;
+	}
+
+	/**
+	 * @return number of times only part of the canvas was repainted
+	 */
+	public long getPartialRepaints() {
+		return partialRepaints;
+	}
+
+	/**
+	 * @return number of times a triangle was not redrawn, as the canvas already showed it
+	 */
+	public long getSkippedRepaints() {
+		return skippedRepaints;
+	}
+
+	/**
+	 * Clears the whole canvas. A black outline indicating the edges of the canvas is achieved by filling the
+	 * entire canvas with black, then a very slightly smaller area in white.
+	 */
+	private void paintBorder() {
+		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		graphics.setFill(Color.BLACK);
+		graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		graphics.setFill(Color.WHITE);
+		graphics.fillRect(1, 1, canvas.getWidth()-2, canvas.getHeight()-2);
+		drawnWidth = canvas.getWidth();
+		drawnHeight = canvas.getHeight();
+	}
+
+	/**
+	 * Strokes between each corner of the triangle to create an outline of the triangle, then writes the labels.
+	 */
+	private static void paint(GraphicsContext graphics, double[] outline, String[] labels, double[] positions) {
+		graphics.setStroke(Color.BLACK);
+		graphics.strokeLine(outline[0], outline[1], outline[2], outline[3]);
+		graphics.strokeLine(outline[2], outline[3], outline[4], outline[5]);
+		graphics.strokeLine(outline[4], outline[5], outline[0], outline[1]);
+
+		graphics.setFill(Color.RED);
+		for(int i = 0; i < labels.length; i++) {
+			graphics.fillText(labels[i], positions[i * 2], positions[i * 2 + 1]);
+		}
+	}
+
+	/**
+	 * @return the bounds of each label as they are written on the canvas (minX, minY, maxX, maxY of each label in turn)
+	 */
+	private double[] measureLabels(GraphicsContext graphics, String[] labels, double[] positions) {
+		double[] bounds = new double[labels.length * 4];
+		textMeasurer.setFont(graphics.getFont());
+		for(int i = 0; i < labels.length; i++) {
+			textMeasurer.setText(labels[i]);
+			//the text is measured from the start of it's baseline, which is where fillText() writes it from
+			Bounds size = textMeasurer.getLayoutBounds();
+			bounds[i * 4] = positions[i * 2] + size.getMinX();
+			bounds[i * 4 + 1] = positions[i * 2 + 1] + size.getMinY();
+			bounds[i * 4 + 2] = positions[i * 2] + size.getMaxX();
+			bounds[i * 4 + 3] = positions[i * 2 + 1] + size.getMaxY();
+		}
+		return bounds;
+	}
+
+	/**
+	 * Grows the region to include the outline of a triangle, if there is one.
+	 */
+	private static void includeOutline(double[] region, double[] outline) {
+		if(outline == null) return;
+		for(int i = 0; i < outline.length; i += 2) {
+			region[0] = Math.min(region[0], outline[i]);
+			region[1] = Math.min(region[1], outline[i + 1]);
+			region[2] = Math.max(region[2], outline[i]);
+			region[3] = Math.max(region[3], outline[i + 1]);
+		}
+	}
+
+	/**
+	 * Grows the region to include the bounds at the given index.
+	 */
+	private static void include(double[] region, double[] bounds, int index) {
+		region[0] = Math.min(region[0], bounds[index * 4]);
+		region[1] = Math.min(region[1], bounds[index * 4 + 1]);
+		region[2] = Math.max(region[2], bounds[index * 4 + 2]);
+		region[3] = Math.max(region[3], bounds[index * 4 + 3]);
+	}
+}
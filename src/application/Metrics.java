@@ -0,0 +1,95 @@
+package application;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Latency histograms of the operations the program spends most of it's time in: creating and validating
+ * triangles, drawing them, and changing and navigating the catalog. Each histogram also counts how many times
+ * it's operation was called. The histograms are always recorded to, and can be read while the program is running
+ * through JMX, under the names application:type=Metrics,name=(name of the histogram) - for example with JConsole.
+ *
+ * Recording can be turned off with the system property triangle.metrics=false, which is checked once at startup.
+ */
+public final class Metrics {
+	/**False if the system property triangle.metrics is false, in which case nothing is recorded*/
+	static final boolean ENABLED = !"false".equals(System.getProperty("triangle.metrics"));
+
+	/**Duration of creating a Triangle or FormulaTriangle from the inputs, including validating and solving them*/
+	public static final LatencyHistogram TRIANGLE_CONSTRUCT = new LatencyHistogram("triangle.construct");
+	/**Duration of validating one input of a triangle*/
+	public static final LatencyHistogram TRIANGLE_CHECK_ERROR = new LatencyHistogram("triangle.checkError");
+	/**Duration of drawing a triangle with all it's labels on a canvas of the GUI*/
+	public static final LatencyHistogram GUI_DRAW = new LatencyHistogram("gui.drawAllTriangleComponents");
+	/**Duration of selecting a newly created triangle in the GUI catalog*/
+	public static final LatencyHistogram GUI_ADD_PANEL = new LatencyHistogram("gui.addCanvasPanel");
+	/**Duration of adding a triangle to the catalog, not including notifying it's listeners*/
+	public static final LatencyHistogram CATALOG_ADD = new LatencyHistogram("catalog.add");
+	/**Duration of removing a triangle from the catalog, not including notifying it's listeners*/
+	public static final LatencyHistogram CATALOG_REMOVE = new LatencyHistogram("catalog.remove");
+	/**Duration of finding the triangle before another in the catalog*/
+	public static final LatencyHistogram CATALOG_PREVIOUS = new LatencyHistogram("catalog.previous");
+	/**Duration of finding the triangle after another in the catalog*/
+	public static final LatencyHistogram CATALOG_NEXT = new LatencyHistogram("catalog.next");
+	/**Duration of finding the triangle at an index of the catalog*/
+	public static final LatencyHistogram CATALOG_GET = new LatencyHistogram("catalog.get");
+	/**Duration of finding the index of a triangle in the catalog*/
+	public static final LatencyHistogram CATALOG_INDEX_OF = new LatencyHistogram("catalog.indexOf");
+
+	private static final List<LatencyHistogram> ALL = Collections.unmodifiableList(Arrays.asList(TRIANGLE_CONSTRUCT, TRIANGLE_CHECK_ERROR,
+			GUI_DRAW, GUI_ADD_PANEL, CATALOG_ADD, CATALOG_REMOVE, CATALOG_PREVIOUS, CATALOG_NEXT, CATALOG_GET, CATALOG_INDEX_OF));
+
+	private static boolean registered;
+
+	/**
+	 * Private constructor, as this class only contains static methods.
+	 */
+	private Metrics() {
+	}
+
+	/**
+	 * @return the time to pass to record() once the operation is done, or 0 if metrics are turned off
+	 */
+	static long start() {
+		return ENABLED ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records the duration of an operation that started at the given time.
+	 * @param histogram - histogram of the operation
+	 * @param startNanos - the time given by start() when the operation started
+	 */
+	static void record(LatencyHistogram histogram, long startNanos) {
+		if(ENABLED) histogram.recordSince(startNanos);
+	}
+
+	/**
+	 * @return every histogram, in a fixed order
+	 */
+	public static List<LatencyHistogram> getAll() {
+		return ALL;
+	}
+
+	/**
+	 * Registers every histogram with the platform MBean server, so they can be read through JMX. Only registers
+	 * them the first time it is called.
+	 */
+	static synchronized void registerMBeans() {
+		if(registered || !ENABLED) return;
+		registered = true;
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for(LatencyHistogram histogram : ALL) {
+			try {
+				server.registerMBean(histogram, new ObjectName("application:type=Metrics,name=" + histogram.getName()));
+			} catch(JMException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+}
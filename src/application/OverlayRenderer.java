@@ -0,0 +1,260 @@
+package application;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws every triangle in the catalog on one canvas at the same time, so that triangles which are much larger,
+ * smaller or differently shaped than the rest stand out. The triangles are superimposed with their right angles
+ * on the same point and drawn at a common scale, chosen so that the largest triangle fits on the canvas. Only
+ * numeric triangles can be drawn, as formula triangles have no side lengths.
+ *
+ * The more triangles there are, the less detail is drawn for each, so that the overlay stays quick to draw:
+ * up to LABEL_LIMIT triangles are drawn with a label for their hypotenuse, up to OUTLINE_LIMIT triangles are
+ * drawn as outlines (all in one path), and past that the canvas is shaded by how many triangle outlines cross
+ * each pixel. The side lengths are only read from the catalog again after it changes, and the shading is only
+ * recalculated after the catalog or the size of the canvas changes.
+ *
+ * Must only be used on the JavaFX application thread.
+ */
+public class OverlayRenderer implements TriangleCatalog.Listener {
+	/**Largest number of triangles drawn with labels*/
+	static final int LABEL_LIMIT = 50;
+	/**Largest number of triangles drawn as outlines, rather than shaded by density*/
+	static final int OUTLINE_LIMIT = 5000;
+
+	private final TriangleCatalog catalog;
+	private final Canvas canvas;
+
+	//the legs of each numeric triangle in the catalog, as offsets from the right angle: the x offset of the
+	//hypotenuse/adjacent corner and the y offset of the hypotenuse/opposite corner (flipped, as y increases downward)
+	private Triangle[] triangles = new Triangle[0];
+	private float[] legX = new float[0], legY = new float[0];
+	private int count;
+	private double minX, maxX, minY, maxY;
+	private boolean stale = true;
+
+	//shading of the triangles, and the canvas size it was calculated for
+	private WritableImage density;
+	private double densityWidth, densityHeight;
+
+	/**
+	 * OverlayRenderer constructor. Starts following the changes made to the catalog.
+	 * @param catalog - catalog of the triangles to draw
+	 * @param canvas - canvas to draw the triangles on
+	 */
+	OverlayRenderer(TriangleCatalog catalog, Canvas canvas){
+		this.catalog = catalog;
+		this.canvas = canvas;
+		catalog.addListener(this);
+	}
+
+	/**
+	 * @return number of labels written by the last call of draw(), including the number of triangles
+	 */
+	int getLabelCount() {
+		if(count == 0) return 0;
+		return count <= LABEL_LIMIT ? count + 1 : 1;
+	}
+
+	/**
+	 * Draws every numeric triangle in the catalog inside of the border of the canvas, replacing anything drawn there.
+	 * @param selectedTriangle - triangle to draw in red on top of the others, or null
+	 */
+	public void draw(Triangle selectedTriangle) {
+		if(stale) readCatalog();
+		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		double width = canvas.getWidth(), height = canvas.getHeight();
+		graphics.setFill(Color.WHITE);
+		graphics.fillRect(1, 1, width - 2, height - 2);
+		if(count == 0) return;
+
+		//the view transform shared by every triangle: scaling the largest extent of the triangles to fit
+		//the canvas, then centering them on it (the same proportions as Triangle.prepareForCanvas())
+		double scale = Math.min(width * 0.8 / Math.max(maxX - minX, Double.MIN_NORMAL), height * 0.8 / Math.max(maxY - minY, Double.MIN_NORMAL));
+		double originX = width / 2 - (minX + maxX) / 2 * scale;
+		double originY = height / 2 - (minY + maxY) / 2 * scale;
+
+		if(count > OUTLINE_LIMIT) {
+			if(density == null || densityWidth != width || densityHeight != height) shade(width, height, scale, originX, originY);
+			graphics.drawImage(density, 1, 1);
+		} else {
+			//stroking every outline at once, see-through when there are many so the most common shapes are darkest
+			graphics.setStroke(count <= LABEL_LIMIT ? Color.BLACK : Color.rgb(0, 0, 0, 0.3));
+			graphics.beginPath();
+			for(int i = 0; i < count; i++) {
+				graphics.moveTo(originX + legX[i] * scale, originY);
+				graphics.lineTo(originX, originY);
+				graphics.lineTo(originX, originY + legY[i] * scale);
+				graphics.closePath();
+			}
+			graphics.stroke();
+			if(count <= LABEL_LIMIT) drawLabels(graphics, scale, originX, originY);
+		}
+
+		//drawing the selected triangle over the others, if it can be drawn
+		SolvedTriangle selected = selectedTriangle == null ? null : selectedTriangle.getSolution();
+		if(selected != null && selected.isValid()) {
+			double cornerX = originX - selected.getAdj() * scale;
+			double cornerY = originY - selected.getOpp() * scale;
+			graphics.setStroke(Color.RED);
+			graphics.strokeLine(cornerX, originY, originX, originY);
+			graphics.strokeLine(originX, originY, originX, cornerY);
+			graphics.strokeLine(originX, cornerY, cornerX, originY);
+		}
+
+		graphics.setFill(Color.BLACK);
+		graphics.fillText(count + (count == 1 ? " triangle" : " triangles"), 5, height - 5);
+	}
+
+	/**
+	 * @return number of triangles drawn in the overlay
+	 */
+	public int getCount() {
+		if(stale) readCatalog();
+		return count;
+	}
+
+	@Override
+	public void triangleAdded(Triangle triangle, int index) {
+		stale = true;
+	}
+
+	@Override
+	public void triangleRemoved(Triangle triangle, int index) {
+		stale = true;
+	}
+
+	@Override
+	public void catalogCleared(int previousSize) {
+		stale = true;
+	}
+
+	/**
+	 * Reads the legs of every numeric triangle in the catalog, and the extent of all of them together.
+	 */
+	private void readCatalog() {
+		int size = catalog.getListSize();
+		if(legX.length < size) {
+			triangles = new Triangle[size];
+			legX = new float[size];
+			legY = new float[size];
+		}
+		count = 0;
+		minX = 0;
+		maxX = 0;
+		minY = 0;
+		maxY = 0;
+		catalog.forEach(triangle -> {
+			SolvedTriangle solution = triangle.getSolution();
+			if(solution == null || !solution.isValid()) return;
+			triangles[count] = triangle;
+			legX[count] = (float) -solution.getAdj();
+			legY[count] = (float) -solution.getOpp();
+			minX = Math.min(minX, legX[count]);
+			maxX = Math.max(maxX, legX[count]);
+			minY = Math.min(minY, legY[count]);
+			maxY = Math.max(maxY, legY[count]);
+			count++;
+		});
+		//letting go of triangles removed from the catalog
+		for(int i = count; i < triangles.length && triangles[i] != null; i++) triangles[i] = null;
+		density = null;
+		stale = false;
+	}
+
+	/**
+	 * Labels the hypotenuse of each triangle, keeping the labels from overlapping each other.
+	 */
+	private void drawLabels(GraphicsContext graphics, double scale, double originX, double originY) {
+		Point[] anchors = new Point[count];
+		for(int i = 0; i < count; i++) {
+			anchors[i] = new Point(originX + legX[i] * scale / 2, originY + legY[i] * scale / 2);
+		}
+		//using the same label size and bounds as the labels of a single triangle
+		Point[] labelPoints = new LabelLayout(100, 15, canvas.getWidth() - 35, 10).layout(anchors);
+		graphics.setFill(Color.RED);
+		for(int i = 0; i < count; i++) {
+			graphics.fillText("H: " + triangles[i].getInfo(InfoKey.HYP), labelPoints[i].getX(), labelPoints[i].getY());
+		}
+	}
+
+	/**
+	 * Calculates the shading of the triangles: each pixel inside of the border is darker the more triangle
+	 * outlines cross it, on a logarithmic scale so that rare shapes are still visible next to common ones.
+	 */
+	private void shade(double width, double height, double scale, double originX, double originY) {
+		int imageWidth = (int) width - 2, imageHeight = (int) height - 2;
+		int[] crossings = new int[imageWidth * imageHeight];
+		//coordinates in the image are 1 less than on the canvas, as the image is drawn inside of the border
+		double x0 = originX - 1, y0 = originY - 1;
+		//every adjacent side is on the same row and every opposite side on the same column, so they are only
+		//counted by where they start and end, then added up along the row and column once all are counted
+		int[] rowChanges = new int[imageWidth + 1];
+		int[] columnChanges = new int[imageHeight + 1];
+		for(int i = 0; i < count; i++) {
+			double cornerX = x0 + legX[i] * scale, cornerY = y0 + legY[i] * scale;
+			countRun(rowChanges, x0, cornerX);
+			countRun(columnChanges, y0, cornerY);
+			rasterize(crossings, imageWidth, imageHeight, x0, cornerY, cornerX, y0);
+		}
+		int row = (int) Math.floor(y0), column = (int) Math.floor(x0);
+		int running = 0;
+		for(int x = 0; x < imageWidth; x++) {
+			running += rowChanges[x];
+			if(row >= 0 && row < imageHeight) crossings[row * imageWidth + x] += running;
+		}
+		running = 0;
+		for(int y = 0; y < imageHeight; y++) {
+			running += columnChanges[y];
+			if(column >= 0 && column < imageWidth) crossings[y * imageWidth + column] += running;
+		}
+
+		int most = 1;
+		for(int crossing : crossings) most = Math.max(most, crossing);
+		double logMost = Math.log1p(most);
+		int[] pixels = new int[crossings.length];
+		for(int i = 0; i < crossings.length; i++) {
+			int gray = 255 - (int) Math.round(255 * Math.log1p(crossings[i]) / logMost);
+			pixels[i] = 0xff000000 | gray << 16 | gray << 8 | gray;
+		}
+		density = new WritableImage(imageWidth, imageHeight);
+		density.getPixelWriter().setPixels(0, 0, imageWidth, imageHeight, PixelFormat.getIntArgbInstance(), pixels, 0, imageWidth);
+		densityWidth = width;
+		densityHeight = height;
+	}
+
+	/**
+	 * Marks the start and end of a run of pixels along a row or column, so that adding up the changes
+	 * along the row or column counts each pixel from the start to the end once.
+	 */
+	private static void countRun(int[] changes, double from, double to) {
+		int start = Math.max(0, (int) Math.floor(Math.min(from, to)));
+		int end = Math.min(changes.length - 2, (int) Math.floor(Math.max(from, to)));
+		if(start > end) return;
+		changes[start]++;
+		changes[end + 1]--;
+	}
+
+	/**
+	 * Counts each pixel that the line between two points crosses once.
+	 */
+	private static void rasterize(int[] crossings, int width, int height, double fromX, double fromY, double toX, double toY) {
+		int steps = (int) Math.ceil(Math.max(Math.abs(toX - fromX), Math.abs(toY - fromY)));
+		double stepX = steps == 0 ? 0 : (toX - fromX) / steps;
+		double stepY = steps == 0 ? 0 : (toY - fromY) / steps;
+		int previous = -1;
+		for(int step = 0; step <= steps; step++) {
+			int x = (int) Math.floor(fromX + stepX * step);
+			int y = (int) Math.floor(fromY + stepY * step);
+			if(x < 0 || y < 0 || x >= width || y >= height) continue;
+			int pixel = y * width + x;
+			if(pixel == previous) continue;
+			crossings[pixel]++;
+			previous = pixel;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package application;
+
+/**
+ * Immutable result of solving a right triangle with the TriangleSolver. Contains the
+ * solved side lengths and angle, the angle mode they were solved in, and which two values
+ * were used to solve for the rest. Holds no references to any JavaFX objects.
+ */
+public final class SolvedTriangle {
+	private final double hyp, opp, adj, ang;
+	private final boolean angleModeDegrees;
+	private final KnownPair knownPair;
+
+	/**
+	 * SolvedTriangle constructor. Sets all the values of the solved triangle.
+	 * @param hyp - solved hypotenuse side length
+	 * @param opp - solved opposite side length
+	 * @param adj - solved adjacent side length
+	 * @param ang - solved angle theta, in the angle mode given
+	 * @param angleModeDegrees - degree mode - true for degrees, false for radians
+	 * @param knownPair - the combination of values the triangle was solved from (null if none)
+	 */
+	SolvedTriangle(double hyp, double opp, double adj, double ang, boolean angleModeDegrees, KnownPair knownPair){
+		this.hyp = hyp;
+		this.opp = opp;
+		this.adj = adj;
+		this.ang = ang;
+		this.angleModeDegrees = angleModeDegrees;
+		this.knownPair = knownPair;
+	}
+
+	/**
+	 * Checks if the solved triangle has valid side lengths and angle.
+	 * @return true if the triangle has valid side lengths/angle, otherwise false
+	 */
+	public boolean isValid() {
+		return TriangleSolver.isValid(hyp, opp, adj, ang);
+	}
+
+	/**
+	 * @return solved hypotenuse side length
+	 */
+	public double getHyp() {
+		return hyp;
+	}
+
+	/**
+	 * @return solved opposite side length
+	 */
+	public double getOpp() {
+		return opp;
+	}
+
+	/**
+	 * @return solved adjacent side length
+	 */
+	public double getAdj() {
+		return adj;
+	}
+
+	/**
+	 * @return solved angle theta, in degrees if getDegreeMode() is true, otherwise in radians
+	 */
+	public double getAng() {
+		return ang;
+	}
+
+	/**
+	 * @return true if the triangle was solved in degrees, otherwise false
+	 */
+	public boolean getDegreeMode() {
+		return angleModeDegrees;
+	}
+
+	/**
+	 * @return the combination of values the triangle was solved from, or null if less than two were known
+	 */
+	public KnownPair getKnownPair() {
+		return knownPair;
+	}
+
+	/**
+	 * @return description of the formula used to solve the triangle (empty if nothing was solved)
+	 */
+	public String getSolveMethod() {
+		return knownPair == null ? "" : knownPair.getSolveMethod();
+	}
+}
@@ -0,0 +1,70 @@
+package application;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+/**
+ * Measures how long the program takes to start, from the start of the JVM to the first frame of the main scene,
+ * and prints it once the first frame is shown, ie:
+ * startup: main 95 ms, start 340 ms, fxml loaded 610 ms, first frame 812 ms (after the JVM started)
+ *
+ * Only measures anything if the system property triangle.startupTiming is true. If the system property
+ * triangle.exitAfterFirstFrame is also true, the program exits after the first frame, so the startup can be
+ * measured repeatedly (see StartupBenchmark) or recorded into a class-data-sharing archive (see cds/build-archive.sh).
+ * Must only be used on the JavaFX application thread, other than mark("main").
+ */
+final class StartupTimer {
+	/**True if the system property triangle.startupTiming is true*/
+	static final boolean ENABLED = Boolean.getBoolean("triangle.startupTiming");
+	/**True if the program should exit after the first frame*/
+	private static final boolean EXIT_AFTER_FIRST_FRAME = Boolean.getBoolean("triangle.exitAfterFirstFrame");
+
+	//names of the points of the startup reached so far, and the times they were reached at
+	private static final ArrayList<String> names = new ArrayList<String>();
+	private static final ArrayList<Long> times = new ArrayList<Long>();
+
+	/**
+	 * Private constructor, as this class only contains static methods.
+	 */
+	private StartupTimer() {
+	}
+
+	/**
+	 * Records that a point of the startup was reached now.
+	 * @param name - name of the point reached (ie. "fxml loaded")
+	 */
+	static void mark(String name) {
+		if(!ENABLED) return;
+		//the time of day is used rather than System.nanoTime(), as it is what the start time of the JVM is given in
+		times.add(System.currentTimeMillis());
+		names.add(name);
+	}
+
+	/**
+	 * Records when the first frame of the scene is laid out and sent to be drawn, then prints every point of the
+	 * startup recorded, and exits the program if it should exit after the first frame.
+	 * @param scene - the scene shown first
+	 */
+	static void markFirstFrame(Scene scene) {
+		if(!ENABLED) return;
+		scene.addPostLayoutPulseListener(new Runnable() {
+			@Override
+			public void run() {
+				mark("first frame");
+				scene.removePostLayoutPulseListener(this);
+				//JMX is only loaded now, so that it is not part of the time measured
+				long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+				StringBuilder report = new StringBuilder("startup: ");
+				for(int i = 0; i < names.size(); i++) {
+					if(i > 0) report.append(", ");
+					report.append(names.get(i)).append(' ').append(times.get(i) - jvmStart).append(" ms");
+				}
+				System.out.println(report.append(" (after the JVM started)"));
+				if(EXIT_AFTER_FIRST_FRAME) Platform.exit();
+			}
+		});
+	}
+}
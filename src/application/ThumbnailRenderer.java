@@ -0,0 +1,239 @@
+package application;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Draws the small pictures of triangles shown in the GUI catalog on background threads, so that adding
+ * or scrolling through many triangles never makes the GUI wait on drawing. Each thumbnail is drawn into an
+ * image of its own rather than onto a canvas, then kept in a cache of recently shown thumbnails, keyed by
+ * the triangle object and the size of the thumbnail. The cache holds up to triangle.thumbnail.cache.bytes
+ * bytes of images (32 MB by default, about 1300 thumbnails of the catalog) and evicts the least recently
+ * shown thumbnails past that.
+ *
+ * All methods must be called on the JavaFX application thread, and the thumbnails are given back on it.
+ */
+public class ThumbnailRenderer {
+	private static final int BYTES_PER_PIXEL = 4;
+
+	private final LruCache<Key, Image> cache = new LruCache<Key, Image>(Long.getLong("triangle.thumbnail.cache.bytes", 32L << 20),
+			image -> (long) image.getWidth() * (long) image.getHeight() * BYTES_PER_PIXEL);
+	/**Thumbnails waiting to be drawn, which may still be cancelled before they are*/
+	private final HashMap<Key, Request> pending = new HashMap<Key, Request>();
+	/**Blank thumbnail of each size, shown while the actual thumbnail is being drawn*/
+	private final HashMap<Long, Image> placeholders = new HashMap<Long, Image>();
+	private final ThreadPoolExecutor renderers;
+
+	/**
+	 * ThumbnailRenderer constructor. Thumbnails are drawn on up to half of the available processors,
+	 * leaving the rest for the GUI.
+	 */
+	ThumbnailRenderer(){
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		AtomicInteger threadNumber = new AtomicInteger();
+		renderers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+			Thread thread = new Thread(runnable, "thumbnail-renderer-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Gets the thumbnail of a triangle if it has already been drawn. Otherwise, starts drawing it in the
+	 * background and gives it to whenDrawn once it is ready, unless cancelled first.
+	 * @param triangle - the triangle to get the thumbnail of
+	 * @param width - width of the thumbnail in pixels
+	 * @param height - height of the thumbnail in pixels
+	 * @param whenDrawn - called with the thumbnail on the JavaFX application thread once it is drawn
+	 * @return the thumbnail, or null if it is being drawn (see getPlaceholder())
+	 */
+	public Image getThumbnail(Triangle triangle, int width, int height, Consumer<Image> whenDrawn) {
+		Key key = new Key(triangle, width, height);
+		Image thumbnail = cache.get(key);
+		if(thumbnail != null) return thumbnail;
+
+		Request request = pending.get(key);
+		if(request == null) {
+			request = new Request(triangle);
+			pending.put(key, request);
+			Request toDraw = request;
+			renderers.execute(() -> draw(key, toDraw));
+		}
+		request.waiting.add(whenDrawn);
+		return null;
+	}
+
+	/**
+	 * Stops waiting for a thumbnail asked for with getThumbnail(). The thumbnail is not drawn at all if
+	 * nothing else is waiting for it and it has not been started yet.
+	 * @param triangle - the triangle the thumbnail was asked for
+	 * @param width - width of the thumbnail in pixels
+	 * @param height - height of the thumbnail in pixels
+	 * @param whenDrawn - the same object given to getThumbnail()
+	 */
+	public void cancel(Triangle triangle, int width, int height, Consumer<Image> whenDrawn) {
+		Key key = new Key(triangle, width, height);
+		Request request = pending.get(key);
+		if(request == null) return;
+		request.waiting.remove(whenDrawn);
+		if(request.waiting.isEmpty()) {
+			request.cancelled = true;
+			pending.remove(key);
+		}
+	}
+
+	/**
+	 * Gets a blank thumbnail (the outline of an empty canvas) to show while a thumbnail is being drawn.
+	 * @param width - width of the thumbnail in pixels
+	 * @param height - height of the thumbnail in pixels
+	 * @return the blank thumbnail
+	 */
+	public Image getPlaceholder(int width, int height) {
+		return placeholders.computeIfAbsent(((long) width << 32) | height, size -> toImage(drawBlank(width, height)));
+	}
+
+	/**
+	 * @return the cache of drawn thumbnails, to read its hit, miss and eviction counters or to clear it
+	 */
+	public LruCache<?, ?> getCache() {
+		return cache;
+	}
+
+	/**
+	 * Draws a thumbnail on a background thread, then caches it and hands it to everything waiting
+	 * for it on the JavaFX application thread.
+	 */
+	private void draw(Key key, Request request) {
+		if(request.cancelled) return;
+		Image thumbnail = toImage(drawThumbnail(request, key.width, key.height));
+		Platform.runLater(() -> {
+			//the thumbnail is cached even if it was cancelled while being drawn, as it may be shown again soon
+			cache.put(key, thumbnail);
+			pending.remove(key, request);
+			for(Consumer<Image> whenDrawn : request.waiting) whenDrawn.accept(thumbnail);
+		});
+	}
+
+	/**
+	 * Draws the triangle and it's labels the same way GUIController draws them on a canvas of the same size.
+	 */
+	private static BufferedImage drawThumbnail(Request request, int width, int height) {
+		BufferedImage image = drawBlank(width, height);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+		graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+		//resizing the copy of the triangle to fit on the thumbnail
+		Triangle triangle = request.triangle;
+		triangle.prepareForCanvas(width, height);
+
+		//strokes between each point of the triangle to create an outline of the triangle.
+		graphics.setColor(Color.BLACK);
+		graphics.setStroke(new BasicStroke(1));
+		Point ha = triangle.getHypAdj(), ho = triangle.getHypOpp(), oa = triangle.getOppAdj();
+		graphics.draw(new Line2D.Double(ha.getX(), ha.getY(), ho.getX(), ho.getY()));
+		graphics.draw(new Line2D.Double(ho.getX(), ho.getY(), oa.getX(), oa.getY()));
+		graphics.draw(new Line2D.Double(oa.getX(), oa.getY(), ha.getX(), ha.getY()));
+
+		//write the labels on the top right of the thumbnail, with an increasing Y coordinate value to prevent overlap.
+		graphics.setColor(Color.RED);
+		graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+		for(int i = 0; i < request.labels.length; i++) {
+			graphics.drawString(request.labels[i], 0, 10 * (i + 1));
+		}
+		graphics.dispose();
+		return image;
+	}
+
+	/**
+	 * Draws an empty thumbnail: a black outline indicating the edges of the canvas, filled in white.
+	 */
+	private static BufferedImage drawBlank(int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(Color.BLACK);
+		graphics.fillRect(0, 0, width, height);
+		graphics.setColor(Color.WHITE);
+		graphics.fillRect(1, 1, width - 2, height - 2);
+		graphics.dispose();
+		return image;
+	}
+
+	/**
+	 * Copies the pixels of a drawn thumbnail into a JavaFX image.
+	 */
+	private static Image toImage(BufferedImage drawn) {
+		int width = drawn.getWidth(), height = drawn.getHeight();
+		int[] pixels = ((DataBufferInt) drawn.getRaster().getDataBuffer()).getData();
+		WritableImage image = new WritableImage(width, height);
+		image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+		return image;
+	}
+
+	/**
+	 * Thumbnail waiting to be drawn. Everything needed to draw it is taken from the triangle when it is
+	 * asked for, so the triangle itself is never used by the background threads.
+	 */
+	private static final class Request {
+		private final Triangle triangle;
+		private final String[] labels;
+		/**Called once the thumbnail is drawn (only used on the JavaFX application thread)*/
+		private final ArrayList<Consumer<Image>> waiting = new ArrayList<Consumer<Image>>(1);
+		private volatile boolean cancelled;
+
+		private Request(Triangle triangle) {
+			//copying the triangle, as the original is resized for other canvases on the JavaFX application thread
+			this.triangle = new Triangle(triangle);
+			this.labels = new String[] {
+					"H: " + GUIController.reduceLengthTo5Char(triangle.getInfo(InfoKey.HYP)),
+					"O: " + GUIController.reduceLengthTo5Char(triangle.getInfo(InfoKey.OPP)),
+					"A: " + GUIController.reduceLengthTo5Char(triangle.getInfo(InfoKey.ADJ)),
+					"θ: " + GUIController.reduceLengthTo5Char(triangle.getInfo(InfoKey.ANG))};
+		}
+	}
+
+	/**
+	 * Key of a thumbnail: the triangle object itself (not it's values) and the size of the thumbnail.
+	 */
+	private static final class Key {
+		private final Triangle triangle;
+		private final int width, height;
+
+		private Key(Triangle triangle, int width, int height) {
+			this.triangle = triangle;
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if(!(other instanceof Key)) return false;
+			Key key = (Key) other;
+			return triangle == key.triangle && width == key.width && height == key.height;
+		}
+
+		@Override
+		public int hashCode() {
+			return (System.identityHashCode(triangle) * 31 + width) * 31 + height;
+		}
+	}
+}
@@ -1,7 +1,11 @@
 package application;
 
-import java.text.DecimalFormat;
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import javafx.scene.canvas.Canvas;
 
@@ -15,7 +19,12 @@ public class Triangle {
 	private boolean angleModeDegrees;
 	private String errorDescription = "";
 	private Point pointHypOpp, pointHypAdj, pointOppAdj;
-	private HashMap<String, String> info = new HashMap<String, String>();
+	private SolvedTriangle solution;
+	private String[] info = new String[InfoKey.COUNT];
+	private double validatedValue;
+	
+	/**Parser used to validate inputs, one for each thread as the parser stores the value it parsed*/
+	private static final ThreadLocal<InputParser> PARSER = ThreadLocal.withInitial(InputParser::new);
 	
 	/**Triangle Constructor. Runs the necessary methods to prepare the triangle and
 	 * associated values for display on the GUI. This includes calculating the 
@@ -28,12 +37,28 @@ public class Triangle {
 	 * @param angleModeDegrees - degree mode - true for degrees, false for radians
 	 */
 	Triangle(String inputHyp, String inputOpp, String inputAdj, String inputAng, boolean angleModeDegrees, Canvas canvasToDrawOn){
+		this(inputHyp, inputOpp, inputAdj, inputAng, angleModeDegrees, canvasToDrawOn.getWidth(), canvasToDrawOn.getHeight());
+	}
+	
+	/**Triangle Constructor. Same as the constructor taking a Canvas, but only needs the size of the
+	 * canvas the triangle will be displayed on, so triangles can be created without any JavaFX canvas.
+	 * @param inputHyp - value entered for hypotenuse side length
+	 * @param inputOpp - value entered for opposite side length
+	 * @param inputAdj - value entered for adjacent side length
+	 * @param inputAng - value entered for angle theta
+	 * @param angleModeDegrees - degree mode - true for degrees, false for radians
+	 * @param canvasWidth - width of the canvas the triangle will be displayed on
+	 * @param canvasHeight - height of the canvas the triangle will be displayed on
+	 */
+	Triangle(String inputHyp, String inputOpp, String inputAdj, String inputAng, boolean angleModeDegrees, double canvasWidth, double canvasHeight){
+		long start = Metrics.start();
+
 		//Validating the various user inputs before starting calculations
 		//to prevent potential wrongtype or math errors later on
-    	double validatedH = validateInput("Hypotenuse", inputHyp, angleModeDegrees);
-    	double validatedO = validateInput("Opposite", inputOpp, angleModeDegrees);
-    	double validatedA = validateInput("Adjacent", inputAdj, angleModeDegrees);
-    	double validatedT = validateInput("Angle θ", inputAng, angleModeDegrees);
+    	double validatedH = validateInput(InputField.HYPOTENUSE, inputHyp, angleModeDegrees);
+    	double validatedO = validateInput(InputField.OPPOSITE, inputOpp, angleModeDegrees);
+    	double validatedA = validateInput(InputField.ADJACENT, inputAdj, angleModeDegrees);
+    	double validatedT = validateInput(InputField.ANGLE, inputAng, angleModeDegrees);
     	
 		//computing for the missing values of the triangle using the validated user inputs
 		calculateMissingValues(validatedH,validatedO,validatedA,validatedT, angleModeDegrees); 
@@ -41,14 +66,15 @@ public class Triangle {
 		//checking if a valid triangle was calculated, setting an error description if not
 		isValid();
 		
-		//setting the current triangle sidelength/angle information to string values in the
-		//triangle before they are manipulated by further methods for display purposes
+		//numeric values are formatted for display later from the stored solution, when they are needed.
 		//This method is overridden in the FormulaTriangle class in order to store 
 		//algebraic formulas instead of calculated values for the sidelengths/angles.
-		storeInfoInHashMap();
+		storeDisplayInfo();
 		
 		//resizing and moving the triangle to fit and make efficient use of the canvas size
-		prepareForCanvas(canvasToDrawOn);
+		prepareForCanvas(canvasWidth, canvasHeight);
+		
+		Metrics.record(Metrics.TRIANGLE_CONSTRUCT, start);
 	}
 	
 	/**
@@ -68,44 +94,46 @@ public class Triangle {
 		pointHypOpp = triangleToCopy.getHypOpp();
 		pointHypAdj = triangleToCopy.getHypAdj();
 		pointOppAdj = triangleToCopy.getOppAdj();
-		info = new HashMap<String, String>(triangleToCopy.getInfo());
+		solution = triangleToCopy.getSolution();
+		info = triangleToCopy.info.clone();
 	}
 	
 	
 	
     /**
      * Validates
-     * @param textField - The label of the textField that is currently being validated
+     * @param textField - The input field that is currently being validated
      * @param text - the text within the textField that is currently being validated
      * @param degrees - whether or not the the degreesToggleButton is currently selected
      * @return double value suitable for the triangle object; text parsed as a double or 
      * 1 (for triangles of FormulaTriangle class) if the text was valid, otherwise 0.
      */
-    private double validateInput(String textField, String text, boolean degrees) {
+    private double validateInput(InputField textField, String text, boolean degrees) {
     	//storing the user input for future use
-		info.put(textField+"Input", text);
+		info[InfoKey.inputOf(textField).ordinal()] = text;
 		
 		//setting the value to 0 is my default for a value that must be calculated for,
 		//this does not cause any issues since a valid triangle will never have 0 as a 
 		//value for any of it's side lengths or angles.
 		if(text.isEmpty()) return 0;
 		
-		//setting the error description of the triangle to the return value of the error checking function.
+		//depending on the type of triangle being created (formula or numeric based),
+		//the input may not be parsed into a number by the checkError method. In this case, 
+		//a 1 will be returned to signify that the user entered a valid input.
+		validatedValue = 1;
+		
 		//checkError is overridden in the child class of Triangle since the criteria for
 		//valid inputs change based on whether it is solving using values or formulas names.
-    	errorDescription = checkError(textField, text, degrees);
+    	long start = Metrics.start();
+    	InputError error = checkError(textField, text, degrees);
+    	Metrics.record(Metrics.TRIANGLE_CHECK_ERROR, start);
+    	
+    	//setting the error description of the triangle to describe the error if there was one.
+    	//The error description is only built here, when an error has actually occurred.
+    	if(error != InputError.NONE) errorDescription = error.describe(textField);
     	
     	//if there is no error message, a non-0 value may be returned.
-    	if(errorDescription.equals("")) {
-    		//depending on the type of triangle being created (formula or numeric based),
-    		//non-double values may be returned by the checkError method. In this case, 
-    		//a 1 will be returned to signify that the user entered a valid input.
-    		try {
-    			return Double.parseDouble(text);
-    		} catch(NumberFormatException e) {
-    			return 1;
-    		}
-    	}
+    	if(errorDescription.equals("")) return validatedValue;
     	
     	//If the program has reached this point, the input is not valid, so the
     	//default value of 0 will be returned.
@@ -114,56 +142,29 @@ public class Triangle {
     
     
 	/**
-	 * Checks if the text field contains a valid side length value. 
+	 * Checks if the text field contains a valid side length value, and stores the parsed value
+	 * to be returned by validateInput. The text is validated and parsed in a single pass.
 	 * Valid side lengths only contain digits, as well as up to one decimal and/or negative sign.
 	 * 0 is not a valid side length.
 	 * Valid angles are (0 < n < 90) in degrees mode, or (0 < n < π/2) in radians mode.
-	 * @param textField - the label of the input text field being checked
+	 * @param textField - the input text field being checked
 	 * @param text - String object to validate
 	 * @param degreesMode - whether the program is currently calculating in degrees or radians
-	 * @return String value describing the error causing the input to be invalid (empty string if no error) 
+	 * @return the error causing the input to be invalid (NONE if no error) 
 	 * @implNote This method is overridden by the child class FormulaTriangle.
 	 */
-    protected String checkError(String textField, String text, boolean degreesMode) {
-    	//initializing variables that keep track of un-allowed or limited-quantity-allowed characters
-    	int dotCount = 0;
-    	int dashCount = 0;
-    	int otherCount = 0;
-    	
-    	//loops through the string to tally up previously initialized counters.
-    	for(int i = 0; i < text.length(); i++) {
-    		if(!Character.isDigit(text.charAt(i))){
-        		if(text.charAt(i) == '.') dotCount++;
-        		else if(text.charAt(i) == '-' && i == 0) dashCount++;
-        		else otherCount++;
-    		}
-    	}
-    	
-    	//large amount of conditions that cover the many ways which a user may input an invalid value.
-    	if(dotCount > 1 || dashCount > 1 || otherCount >= 1 
-    			|| (textField == "Angle θ" && !degreesMode && (Double.parseDouble(text) >= Math.PI/2 || Double.parseDouble(text) < 0))
-    			|| (textField == "Angle θ" && degreesMode && (Double.parseDouble(text) >= 90 || Double.parseDouble(text) < 0)) 
-    			|| (textField == "Hypotenuse" && Double.parseDouble(text) < 0) 
-    			|| Double.parseDouble(text) == 0) {
-    		
-    		//checks which above condition was violated, and sets the errorLabel message to an appropriate message.
-    		if (textField == "Angle θ") errorDescription = " must be less than 90° or π/2 (~1.57)";
-    		else if(dotCount > 1) errorDescription = " can only contain one decimal point.";
-    		else if(dashCount > 1) errorDescription = " can only contain one negative sign.";
-    		else if(otherCount >= 1) errorDescription = " can only contain digits, decimals or neg. signs.";
-    		else if(textField == "Hypotenuse" && Double.parseDouble(text) < 0) errorDescription = " can not be less than 0.";
-    		else if(Double.parseDouble(text) == 0) errorDescription = " can not be equal to 0.";
-    		errorDescription = textField + errorDescription;
-    	}
-    	
-    	return errorDescription;
+    protected InputError checkError(InputField textField, String text, boolean degreesMode) {
+    	InputParser parser = PARSER.get();
+    	InputError error = parser.parse(textField, text, degreesMode);
+    	if(error == InputError.NONE) validatedValue = parser.getValue();
+    	return error;
     }
 
 	
 	/**
 	 * Solves for the missing values of the triangle using trigonometry. The solved 
 	 * values are assigned to the triangle object's instance variables, and the 
-	 * method/formula used is also put into the triangle's hashmap under the key "solveMethod"
+	 * method/formula used is also put into the triangle's information under the key SOLVE_METHOD
 	 * Unknown parameters (entered as 0) will be solved for.
 	 * @param hyp - hypotenuse side length of the triangle
 	 * @param opp - opposite side length of the triangle
@@ -173,55 +174,31 @@ public class Triangle {
 	 * @implNote This method is overridden by the child class FormulaTriangle.
 	 */
 	protected void calculateMissingValues(double hyp, double opp, double adj, double ang, boolean angleModeDegrees) {
-		String solveMethod = "";
+		FlightEvents.Solve event = new FlightEvents.Solve();
+		event.begin();
 		
-		//determining whether it is necessary to change the angle given by the user to radians
-		//since the Math library trigonometric functions only works in radians
-		if(angleModeDegrees) ang = Math.toRadians(ang);
-		
-		//if side length/angle values aren't equal to 0, they have a value given by the user,
-		//and therefore should be used to calculate the values of the rest of the triangle.
-		//The below code contains all the possible combinations of the two text fields that
-		//the user may have chosen to enter values for.
-		if(hyp!=0 && opp!=0) {
-			ang = Math.asin(Math.abs(opp)/Math.abs(hyp));
-			solveMethod += "θ = aSin(o/h) \nRearranged from: sinθ = o/h";
-			adj = Math.sqrt(hyp*hyp - opp*opp);
-		} else if(hyp!=0 && adj!=0) {
-			ang = Math.acos(Math.abs(adj)/Math.abs(hyp));
-			solveMethod += "θ = aCos(a/h) \nRearranged from: cosθ = a/h";
-			opp = Math.sqrt(hyp*hyp - adj*adj);
-		} else if(hyp!=0 && ang!=0) {
-			opp = hyp*Math.sin(ang);
-			adj = hyp*Math.cos(ang);
-			solveMethod += "o = h*sin(θ) \nRearranged from: sinθ = o/h \n\nTrig. Formula Used: a = h*cos(θ) \nRearranged from: cosθ = a/h";
-		} else if(opp!=0 && adj!=0) {
-			ang = Math.atan(Math.abs(opp)/Math.abs(adj));
-			solveMethod += "θ = aTan(o/a) \nRearranged from: tanθ = o/a";
-			hyp = Math.sqrt(adj*adj + opp*opp);
-		} else if(opp!=0 && ang!=0) {
-			adj = opp/Math.tan(ang);
-			solveMethod += "a = o/tan(θ) \nRearranged from: tanθ = o/a";
-			hyp = Math.sqrt(adj*adj + opp*opp);
-		} else if(adj!=0 && ang!=0) {
-			opp = adj*Math.tan(ang);
-			solveMethod += "o = a*tan(θ) \nRearranged from: tanθ = o/a";
-			hyp = Math.sqrt(adj*adj + opp*opp);
-		}
-		
-		//converting angle (back) into degrees if the user chose to calculate in degrees
-		if(angleModeDegrees) ang = Math.toDegrees(ang);
+		//solving with the standalone solver, which contains the trigonometry for all the possible
+		//combinations of the two text fields that the user may have chosen to enter values for.
+		solution = TriangleSolver.solve(hyp, opp, adj, ang, angleModeDegrees);
 		
 		//assigning the newly calculated values to the triangle's instance variables
-		this.hyp = hyp;
-		this.opp = opp;
-		this.adj = adj;
-		this.ang = ang;
+		this.hyp = solution.getHyp();
+		this.opp = solution.getOpp();
+		this.adj = solution.getAdj();
+		this.ang = solution.getAng();
 		this.angleModeDegrees = angleModeDegrees;
 		
 		//the solve method may be stored now since it does not
 		//need additional formatting before being displayed to the user
-		info.put("solveMethod", solveMethod);
+		info[InfoKey.SOLVE_METHOD.ordinal()] = solution.getSolveMethod();
+		
+		if(event.shouldCommit()) {
+			event.knownPair = solution.getKnownPair() == null ? null : solution.getKnownPair().name();
+			event.degrees = angleModeDegrees;
+			event.valid = solution.isValid();
+			event.result = "h=" + this.hyp + " o=" + this.opp + " a=" + this.adj + " θ=" + this.ang;
+			event.commit();
+		}
 	}
 	
 	
@@ -233,15 +210,14 @@ public class Triangle {
      * @return true if the triangle has valid side lengths/angle and no errors, otherwise false
      */
     private boolean isValid() {
-    	//triangle.getH() will return NaN if it is unable to be calculated due to entering 
+    	//the hypotenuse will be NaN if it is unable to be calculated due to entering 
     	//impossible values for triangle side lengths (ie. opposite larger than hypotenuse)
-    	if (Double.isNaN(hyp) || Double.isNaN(opp) || Double.isNaN(adj) 
-    			|| Double.isNaN(ang) || hyp == 0 || opp == 0 || adj == 0) {
+    	if (!TriangleSolver.isValid(hyp, opp, adj, ang)) {
     		if(errorDescription.equals("")) {
         		//if the triangle has 0 for h/o/a values, no errorlabel message change is needed as the
     			//validateInput() method would already have set an errorlabel message, and should not be 
     			//overwritten. Therefore there is only an errorlabel message for the isNaN case of validateTriangle().
-    			errorDescription = "Opp. and Adj. can't be larger than or equal to Hyp.";
+    			errorDescription = TriangleSolver.INVALID_TRIANGLE_DESCRIPTION;
     		}
     		return false;
     	}
@@ -250,24 +226,36 @@ public class Triangle {
     
     
 	/**
-	 * Takes the triangle's current sidelength and angle values, formats them 
-	 * into strings with 2 decimal places, and stores them in the triangle's information hashmap.
-	 * These are the final values that will be displayed to the user.
+	 * Stores the final values that will be displayed to the user in the triangle's information.
+	 * Numeric triangles do not store anything here: their values are only formatted into strings
+	 * with 2 decimal places when they are first requested (see getInfo(InfoKey)), as many
+	 * triangles are never displayed.
 	 * @implNote This method is overridden by the child class FormulaTriangle.
 	 */
-	protected void storeInfoInHashMap(){
-		//creation of component to format doubles into 2 decimal places
-		DecimalFormat dec2 = new DecimalFormat("#0.00");
-		
-		//converting the boolean degree mode used to calculate 
-		//the triangle into text that makes sense to the user
-		String angleMode = angleModeDegrees ? "°" : "rad";
-		
-		//storing formatted information into the hashmap of the triangle object
-		info.put("hyp", dec2.format(hyp));
-		info.put("opp", dec2.format(opp));
-		info.put("adj", dec2.format(adj));
-		info.put("ang", dec2.format(ang)+angleMode);
+	protected void storeDisplayInfo(){
+	}
+	
+	
+	/**
+	 * Formats one of the triangle's solved sidelength/angle values into the string displayed to
+	 * the user, with 2 decimal places, followed by the angle mode for the angle.
+	 * @param key - HYP, OPP, ADJ or ANG
+	 * @param builder - StringBuilder to append the formatted value to
+	 * @return the same StringBuilder, or null if the key is not a solved value of this triangle
+	 * @implNote This method is overridden by the child class FormulaTriangle.
+	 */
+	protected StringBuilder appendSolvedValue(InfoKey key, StringBuilder builder) {
+		if(solution == null) return null;
+		switch(key) {
+		case HYP: return FixedPointFormat.append(builder, solution.getHyp());
+		case OPP: return FixedPointFormat.append(builder, solution.getOpp());
+		case ADJ: return FixedPointFormat.append(builder, solution.getAdj());
+		case ANG:
+			//converting the boolean degree mode used to calculate 
+			//the triangle into text that makes sense to the user
+			return FixedPointFormat.append(builder, solution.getAng()).append(solution.getDegreeMode() ? "°" : "rad");
+		default: return null;
+		}
 	}
 	
     
@@ -277,10 +265,24 @@ public class Triangle {
      * This includes scaling size, translation to the visible quadrant, 
      * and centering the triangle on the canvas.
      * @param canvasToDrawOn
+     * @implNote This method is overloaded - see prepareForCanvas(double canvasWidth, double canvasHeight)
      */
     public void prepareForCanvas(Canvas canvasToDrawOn) {
+    	prepareForCanvas(canvasToDrawOn.getWidth(), canvasToDrawOn.getHeight());
+    }
+    
+    
+    /**
+     * Wrapper method which calls all the functions related to the operations taken to
+     * adjust triangle values such that it will be displayed properly on a canvas of the given size.
+     * Only the size of the canvas is needed, so no JavaFX canvas has to exist.
+     * @param canvasWidth - width of the target canvas that the triangle needs to fit on
+     * @param canvasHeight - height of the target canvas that the triangle needs to fit on
+     * @implNote This method is overloaded - see prepareForCanvas(Canvas canvasToDrawOn)
+     */
+    public void prepareForCanvas(double canvasWidth, double canvasHeight) {
 		//scaling the triangle to a suitable size for the canvas
-		scaleSize(canvasToDrawOn);
+		scaleSize(canvasWidth, canvasHeight);
 		
 		//calculating the coordinates of each of the (scaled) triangle's three corners.
 		calculatePointCoordinates();
@@ -290,19 +292,20 @@ public class Triangle {
 		movePointsToPositiveQuadrant();
 		
 		//moving the triangle's points so that they are (collectively) centered on the canvas
-		centerPointsOnCanvas(canvasToDrawOn);
+		centerPointsOnCanvas(canvasWidth, canvasHeight);
     }
     
     
 	/**
 	 * Scales up/down the size (distance between corner points) of the triangle such that it's 
 	 * largest length (relative to canvas edge length) uses the entire canvas (maxW, maxH)
-	 * @param canvasToDrawOn - target canvas that triangle needs to fit on
+	 * @param canvasWidth - width of the target canvas that triangle needs to fit on
+	 * @param canvasHeight - height of the target canvas that triangle needs to fit on
 	 */
-	private void scaleSize(Canvas canvasToDrawOn){
+	private void scaleSize(double canvasWidth, double canvasHeight){
 		//maximum size that triangle should take up in x and y dimensions
-		double maxW = canvasToDrawOn.getWidth()*0.8;
-		double maxH = canvasToDrawOn.getHeight()*0.8;
+		double maxW = canvasWidth*0.8;
+		double maxH = canvasHeight*0.8;
 		double scale = 1;
 		
 		//scale triangle size to use the entire canvas without distorting x:y ratio
@@ -371,9 +374,10 @@ public class Triangle {
 	/**
 	 * Centers the points on the canvas such that distances between the points are unchanged,
 	 * but the collective location of the points are centered on the canvas.
-	 * @param canvasToDrawOn - target canvas that the triangle points need to be centered on
+	 * @param canvasWidth - width of the target canvas that the triangle points need to be centered on
+	 * @param canvasHeight - height of the target canvas that the triangle points need to be centered on
 	 */
-	private void centerPointsOnCanvas(Canvas canvasToDrawOn) {
+	private void centerPointsOnCanvas(double canvasWidth, double canvasHeight) {
 		Point largestX = null;
 		Point largestY = null;
 		
@@ -391,27 +395,11 @@ public class Triangle {
 		//edge of the canvas, down by the difference between the lowest (visually) point to the bottom
 		//edge of the canvas. This centers the points, because the points are created to initially be
 		//aligned with the top left corner of the canvas.
-		translatePoints((canvasToDrawOn.getWidth()-largestX.getX()) / 2, 
-				(canvasToDrawOn.getHeight()-largestY.getY()) / 2);
+		translatePoints((canvasWidth-largestX.getX()) / 2, 
+				(canvasHeight-largestY.getY()) / 2);
 	}
 
 	
-    /**
-     * Compares the display values of the triangle to the display values of the triangle being compared to.
-     * @param toCompare - the triangle object to compare to
-     * @return true if any values are different, otherwise false.
-     */
-    public boolean isDifferent(Triangle toCompare) {
-    	if(getInfo("hyp").equals(toCompare.getInfo("hyp"))
-    		&& getInfo("opp").equals(toCompare.getInfo("opp"))
-			&& getInfo("adj").equals(toCompare.getInfo("adj"))
-			&& getInfo("ang").equals(toCompare.getInfo("ang")))
-    		return false;
-    	return true;
-    }
-
-    
-	
 	/**
 	 * Getter method for Hyp (hypotenuse) side length of triangle
 	 * @return hypotenuse side length value of triangle object
@@ -505,6 +493,23 @@ public class Triangle {
 	public boolean getDegreeMode() {
 		return angleModeDegrees;
 	}
+
+	/**
+	 * Setter method for angleDegreeMode - whether the triangle was calculated in degrees mode.
+	 * @param angleModeDegreesToSet - true if the triangle was calculated in degrees, otherwise false.
+	 */
+	protected void setDegreeMode(boolean angleModeDegreesToSet) {
+		this.angleModeDegrees = angleModeDegreesToSet;
+	}
+	
+	/**
+	 * Getter method for the solved values of the triangle, as they were before being
+	 * scaled for display on a canvas.
+	 * @return immutable SolvedTriangle containing the solved values of the triangle
+	 */
+	public SolvedTriangle getSolution() {
+		return solution;
+	}
 	
 	/**
 	 * Getter method for the errorDescription of the triangle, assigned to the 
@@ -517,35 +522,140 @@ public class Triangle {
 	}
 	
 	/**
-	 * Getter method for the info hashmap of the triangle.
-	 * @param keyToGet - key in the hashmap to retrieve the value of.
-	 * @return value of the string variable stored at key location in hashmap
-	 * @implNote This method is overloaded - see getInfo()
+	 * Getter method for the string information of the triangle. Display values of numeric
+	 * triangles are formatted the first time they are requested, then kept for later requests.
+	 * @param keyToGet - key of the information to retrieve
+	 * @return value of the information stored at the key, or null if nothing is stored there
+	 * @implNote This method is overloaded - see getInfo(String key) and getInfo()
+	 */
+	public String getInfo(InfoKey keyToGet) {
+		String value = info[keyToGet.ordinal()];
+		if(value == null) {
+			StringBuilder formatted = appendSolvedValue(keyToGet, new StringBuilder(12));
+			if(formatted != null) {
+				value = formatted.toString();
+				info[keyToGet.ordinal()] = value;
+			}
+		}
+		return value;
+	}
+	
+	/**
+	 * Appends the string information of the triangle to a StringBuilder. Display values of numeric
+	 * triangles which have not been requested before are formatted directly into the StringBuilder,
+	 * so exporting many triangles does not create a string for each value.
+	 * @param keyToAppend - key of the information to append
+	 * @param builder - StringBuilder to append the information to
+	 * @return the same StringBuilder (unchanged if nothing is stored at the key)
+	 */
+	public StringBuilder appendInfo(InfoKey keyToAppend, StringBuilder builder) {
+		String value = info[keyToAppend.ordinal()];
+		if(value != null) return builder.append(value);
+		appendSolvedValue(keyToAppend, builder);
+		return builder;
+	}
+	
+	/**
+	 * Getter method for the string information of the triangle.
+	 * @param keyToGet - name of the key to retrieve the value of (ie. "hyp" or "HypotenuseInput")
+	 * @return value of the information stored at the key, or null if nothing is stored there
+	 * @implNote This method is overloaded - see getInfo(InfoKey key) and getInfo()
 	 */
 	public String getInfo(String keyToGet) {
-		String newStr = new String(info.get(keyToGet));
-		return newStr;
+		InfoKey key = InfoKey.fromKey(keyToGet);
+		return key == null ? null : getInfo(key);
 	}
 	
 	/**
-	 * Getter method for the info hashmap of the triangle
-	 * @return new instance of the HashMap containing the triangle's string information
-	 * @implNote This method is overloaded - see getInfo(String key)
+	 * Getter method for all the string information of the triangle
+	 * @return read-only map from the name of each key to the information stored at it. 
+	 * The map reflects any later changes to the triangle's information.
+	 * @implNote This method is overloaded - see getInfo(InfoKey key) and getInfo(String key)
 	 */
-	public HashMap<String,String> getInfo() {
-		HashMap<String, String> newInfo = new HashMap<String, String>(info);
-		return newInfo;
+	public Map<String,String> getInfo() {
+		return new InfoView();
 	}
 	
 	
 	/**
-	 * Setter method for the info hashmap of the triangle
-	 * @param keyToSet - key in the hashmap to set the value of.
-	 * @param valueToSetAtKey - value to set the key in the hashmap to.
+	 * Setter method for the string information of the triangle
+	 * @param keyToSet - key of the information to set
+	 * @param valueToSetAtKey - value to set the information at the key to.
+	 * @implNote This method is overloaded - see setInfo(String keyToSet, String valueToSetAtKey)
+	 */
+	public void setInfo(InfoKey keyToSet, String valueToSetAtKey) {
+		info[keyToSet.ordinal()] = valueToSetAtKey;
+	}
+	
+	/**
+	 * Setter method for the string information of the triangle
+	 * @param keyToSet - name of the key to set the value of.
+	 * @param valueToSetAtKey - value to set the information at the key to.
+	 * @throws IllegalArgumentException if there is no key with the given name
+	 * @implNote This method is overloaded - see setInfo(InfoKey keyToSet, String valueToSetAtKey)
 	 */
 	public void setInfo(String keyToSet, String valueToSetAtKey) {
-		HashMap<String, String> newInfo = new HashMap<String, String>(info);
-		newInfo.put(keyToSet, valueToSetAtKey);
-		info = newInfo;
+		InfoKey key = InfoKey.fromKey(keyToSet);
+		if(key == null) throw new IllegalArgumentException("No triangle information is stored under " + keyToSet);
+		setInfo(key, valueToSetAtKey);
+	}
+	
+	
+	/**
+	 * Read-only map view of a triangle's information, for callers which use the information
+	 * as a map from key names to values. Keys with no information stored are not in the map.
+	 */
+	private class InfoView extends AbstractMap<String, String> {
+		private static final InfoKey[] KEYS = InfoKey.values();
+		
+		@Override
+		public String get(Object key) {
+			if(!(key instanceof String)) return null;
+			InfoKey infoKey = InfoKey.fromKey((String) key);
+			return infoKey == null ? null : getInfo(infoKey);
+		}
+		
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+		
+		@Override
+		public Set<Map.Entry<String, String>> entrySet() {
+			return new AbstractSet<Map.Entry<String, String>>() {
+				@Override
+				public Iterator<Map.Entry<String, String>> iterator() {
+					return new Iterator<Map.Entry<String, String>>() {
+						private int next = findFrom(0);
+						
+						private int findFrom(int index) {
+							while(index < KEYS.length && getInfo(KEYS[index]) == null) index++;
+							return index;
+						}
+						
+						@Override
+						public boolean hasNext() {
+							return next < KEYS.length;
+						}
+						
+						@Override
+						public Map.Entry<String, String> next() {
+							if(!hasNext()) throw new NoSuchElementException();
+							int current = next;
+							next = findFrom(next + 1);
+							return new AbstractMap.SimpleImmutableEntry<String, String>(
+									KEYS[current].getKey(), getInfo(KEYS[current]));
+						}
+					};
+				}
+				
+				@Override
+				public int size() {
+					int size = 0;
+					for(InfoKey key : KEYS) if(getInfo(key) != null) size++;
+					return size;
+				}
+			};
+		}
 	}
 }
\ No newline at end of file
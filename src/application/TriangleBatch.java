@@ -0,0 +1,373 @@
+package application;
+
+import java.util.Arrays;
+
+/**
+ * Object class containing many right triangles stored column by column in primitive arrays, rather
+ * than as one Triangle object per triangle. Each row has a mask of which values were given, and all
+ * rows are solved together with the same trigonometry as the TriangleSolver, one tight loop for each
+ * of the six combinations of known values.
+ *
+ * If the jdk.incubator.vector module is present (ie. the program is started with --add-modules
+ * jdk.incubator.vector), the loops are run with the Vector API instead (see TriangleBatchVectors), which
+ * solves several rows with each instruction. The values are then within a few ulps of the TriangleSolver's,
+ * rather than the same. The system property triangle.batch.vector=false always uses the scalar loops.
+ */
+public final class TriangleBatch {
+	/**Bits of a row's mask. HYP, OPP, ADJ and ANG are set for values that were given (non-zero),
+	 * DEGREES is set if the row's angle is in degrees rather than radians.*/
+	public static final int HYP = 1, OPP = 2, ADJ = 4, ANG = 8, DEGREES = 16;
+
+	/**Lookup table from the four known-value bits of a mask to the KnownPair used to solve that row*/
+	private static final KnownPair[] PAIR_BY_MASK = new KnownPair[16];
+	static {
+		for(int bits = 0; bits < 16; bits++) {
+			PAIR_BY_MASK[bits] = KnownPair.of(bits & HYP, bits & OPP, bits & ADJ, bits & ANG);
+		}
+	}
+
+	private static final KnownPair[] PAIRS = KnownPair.values();
+
+	/**True if the rows are solved with the Vector API. TriangleBatchVectors must not be loaded if this is false.*/
+	private static final boolean VECTORIZED = !"false".equals(System.getProperty("triangle.batch.vector"))
+			&& ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+	private double[] hyp, opp, adj, ang;
+	private byte[] mask;
+	private boolean[] valid;
+	private int size;
+
+	//scratch space reused by every solve() to group the rows by their known pair
+	private int[] rowsByPair;
+	private final int[] pairStart = new int[PAIRS.length + 2];
+	//scratch columns the rows of one pair are copied into to be solved with the Vector API, created when first needed
+	private double[] knownA, knownB, solvedA, solvedB;
+
+	/**
+	 * TriangleBatch constructor. Creates the columns with room for the given number of rows,
+	 * the batch grows as needed if more rows are added.
+	 * @param initialCapacity - number of rows to make room for
+	 */
+	TriangleBatch(int initialCapacity){
+		initialCapacity = Math.max(initialCapacity, 1);
+		hyp = new double[initialCapacity];
+		opp = new double[initialCapacity];
+		adj = new double[initialCapacity];
+		ang = new double[initialCapacity];
+		mask = new byte[initialCapacity];
+		valid = new boolean[initialCapacity];
+		rowsByPair = new int[initialCapacity];
+	}
+
+	/**
+	 * Adds a row to the end of the batch. Unknown values are entered as 0, the same as in the TriangleSolver.
+	 * @param hypToAdd - hypotenuse side length (0 if unknown)
+	 * @param oppToAdd - opposite side length (0 if unknown)
+	 * @param adjToAdd - adjacent side length (0 if unknown)
+	 * @param angToAdd - angle theta (0 if unknown)
+	 * @param angleModeDegrees - degree mode - true for degrees, false for radians
+	 * @return index of the newly added row
+	 */
+	public int add(double hypToAdd, double oppToAdd, double adjToAdd, double angToAdd, boolean angleModeDegrees) {
+		if(size == hyp.length) grow(size * 2);
+		int row = size++;
+		hyp[row] = hypToAdd;
+		opp[row] = oppToAdd;
+		adj[row] = adjToAdd;
+		ang[row] = angToAdd;
+		valid[row] = false;
+
+		//building the mask of which values are known
+		int rowMask = angleModeDegrees ? DEGREES : 0;
+		if(hypToAdd != 0) rowMask |= HYP;
+		if(oppToAdd != 0) rowMask |= OPP;
+		if(adjToAdd != 0) rowMask |= ADJ;
+		if(angToAdd != 0) rowMask |= ANG;
+		mask[row] = (byte) rowMask;
+		return row;
+	}
+
+	/**
+	 * Removes all rows from the batch, keeping the columns to be reused.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Solves for the missing values of every row in the batch. Rows are first grouped by which two
+	 * values are known, then each group is solved in its own loop containing no branches between
+	 * the six combinations. No objects are created while solving.
+	 */
+	public void solve() {
+		groupRowsByPair();
+
+		//converting angles given in degrees to radians, as the Math library only works in radians
+		for(int i = 0; i < size; i++) {
+			if((mask[i] & DEGREES) != 0) ang[i] = Math.toRadians(ang[i]);
+		}
+
+		if(VECTORIZED) {
+			for(KnownPair pair : PAIRS) solveVectorized(pair, pairStart[pair.ordinal()], pairStart[pair.ordinal()+1]);
+		} else {
+			solveHypOpp(pairStart[KnownPair.HYP_OPP.ordinal()], pairStart[KnownPair.HYP_OPP.ordinal()+1]);
+			solveHypAdj(pairStart[KnownPair.HYP_ADJ.ordinal()], pairStart[KnownPair.HYP_ADJ.ordinal()+1]);
+			solveHypAng(pairStart[KnownPair.HYP_ANG.ordinal()], pairStart[KnownPair.HYP_ANG.ordinal()+1]);
+			solveOppAdj(pairStart[KnownPair.OPP_ADJ.ordinal()], pairStart[KnownPair.OPP_ADJ.ordinal()+1]);
+			solveOppAng(pairStart[KnownPair.OPP_ANG.ordinal()], pairStart[KnownPair.OPP_ANG.ordinal()+1]);
+			solveAdjAng(pairStart[KnownPair.ADJ_ANG.ordinal()], pairStart[KnownPair.ADJ_ANG.ordinal()+1]);
+		}
+
+		//converting angles (back) into degrees, then checking the validity of each row
+		for(int i = 0; i < size; i++) {
+			if((mask[i] & DEGREES) != 0) ang[i] = Math.toDegrees(ang[i]);
+			valid[i] = TriangleSolver.isValid(hyp[i], opp[i], adj[i], ang[i]);
+		}
+	}
+
+	/**
+	 * Counting sort of the row indices by known pair, so that the rows of each pair are stored in
+	 * rowsByPair between pairStart[pair] and pairStart[pair+1]. Rows with less than two known values
+	 * are put in a last group which is never solved.
+	 */
+	private void groupRowsByPair() {
+		int noPair = PAIRS.length;
+		Arrays.fill(pairStart, 0);
+		for(int i = 0; i < size; i++) {
+			pairStart[pairIndex(i) + 1]++;
+		}
+		for(int p = 1; p <= noPair + 1; p++) {
+			pairStart[p] += pairStart[p-1];
+		}
+		//second pass places each row, temporarily using pairStart[p] as the next free position
+		for(int i = 0; i < size; i++) {
+			int p = pairIndex(i);
+			rowsByPair[pairStart[p]++] = i;
+		}
+		//shifting the starts back, as the second pass moved each start onto the next group's start
+		for(int p = noPair; p > 0; p--) {
+			pairStart[p] = pairStart[p-1];
+		}
+		pairStart[0] = 0;
+	}
+
+	/**
+	 * @param row - index of the row
+	 * @return ordinal of the row's KnownPair, or the number of pairs if less than two values are known
+	 */
+	private int pairIndex(int row) {
+		KnownPair pair = PAIR_BY_MASK[mask[row] & 15];
+		return pair == null ? PAIRS.length : pair.ordinal();
+	}
+
+	//the six solving loops below use the same formulas as TriangleSolver.solve(), each over one group of rows
+
+	private void solveHypOpp(int from, int to) {
+		for(int k = from; k < to; k++) {
+			int i = rowsByPair[k];
+			double h = hyp[i], o = opp[i];
+			ang[i] = Math.asin(Math.abs(o)/Math.abs(h));
+			adj[i] = Math.sqrt(h*h - o*o);
+		}
+	}
+
+	private void solveHypAdj(int from, int to) {
+		for(int k = from; k < to; k++) {
+			int i = rowsByPair[k];
+			double h = hyp[i], a = adj[i];
+			ang[i] = Math.acos(Math.abs(a)/Math.abs(h));
+			opp[i] = Math.sqrt(h*h - a*a);
+		}
+	}
+
+	private void solveHypAng(int from, int to) {
+		for(int k = from; k < to; k++) {
+			int i = rowsByPair[k];
+			double h = hyp[i], t = ang[i];
+			opp[i] = h*Math.sin(t);
+			adj[i] = h*Math.cos(t);
+		}
+	}
+
+	private void solveOppAdj(int from, int to) {
+		for(int k = from; k < to; k++) {
+			int i = rowsByPair[k];
+			double o = opp[i], a = adj[i];
+			ang[i] = Math.atan(Math.abs(o)/Math.abs(a));
+			hyp[i] = Math.sqrt(a*a + o*o);
+		}
+	}
+
+	private void solveOppAng(int from, int to) {
+		for(int k = from; k < to; k++) {
+			int i = rowsByPair[k];
+			double o = opp[i];
+			double a = o/Math.tan(ang[i]);
+			adj[i] = a;
+			hyp[i] = Math.sqrt(a*a + o*o);
+		}
+	}
+
+	private void solveAdjAng(int from, int to) {
+		for(int k = from; k < to; k++) {
+			int i = rowsByPair[k];
+			double a = adj[i];
+			double o = a*Math.tan(ang[i]);
+			opp[i] = o;
+			hyp[i] = Math.sqrt(a*a + o*o);
+		}
+	}
+
+	/**
+	 * Solves the rows of one known pair with the Vector API. The rows are not next to each other in the columns,
+	 * so their known values are first copied into scratch columns, solved there, and the solved values copied back.
+	 * Loading the rows this way is about twice as fast as the Vector API's own gather and scatter.
+	 * @param pair - the known pair of the rows
+	 * @param from - position in rowsByPair of the first row of the pair
+	 * @param to - position in rowsByPair after the last row of the pair
+	 */
+	private void solveVectorized(KnownPair pair, int from, int to) {
+		int count = to - from;
+		if(count == 0) return;
+		if(knownA == null || knownA.length < count) {
+			int capacity = Math.max(count, hyp.length);
+			knownA = new double[capacity];
+			knownB = new double[capacity];
+			solvedA = new double[capacity];
+			solvedB = new double[capacity];
+		}
+
+		//the columns of the two known values and of the two values solved for, in the order the solving methods take them
+		double[] columnA, columnB, columnSolvedA, columnSolvedB;
+		switch(pair) {
+		case HYP_OPP: columnA = hyp; columnB = opp; columnSolvedA = ang; columnSolvedB = adj; break;
+		case HYP_ADJ: columnA = hyp; columnB = adj; columnSolvedA = ang; columnSolvedB = opp; break;
+		case HYP_ANG: columnA = hyp; columnB = ang; columnSolvedA = opp; columnSolvedB = adj; break;
+		case OPP_ADJ: columnA = opp; columnB = adj; columnSolvedA = ang; columnSolvedB = hyp; break;
+		case OPP_ANG: columnA = opp; columnB = ang; columnSolvedA = adj; columnSolvedB = hyp; break;
+		default: columnA = adj; columnB = ang; columnSolvedA = opp; columnSolvedB = hyp; break;
+		}
+
+		for(int k = 0; k < count; k++) {
+			int i = rowsByPair[from + k];
+			knownA[k] = columnA[i];
+			knownB[k] = columnB[i];
+		}
+		switch(pair) {
+		case HYP_OPP: TriangleBatchVectors.solveHypOpp(knownA, knownB, solvedA, solvedB, count); break;
+		case HYP_ADJ: TriangleBatchVectors.solveHypAdj(knownA, knownB, solvedA, solvedB, count); break;
+		case HYP_ANG: TriangleBatchVectors.solveHypAng(knownA, knownB, solvedA, solvedB, count); break;
+		case OPP_ADJ: TriangleBatchVectors.solveOppAdj(knownA, knownB, solvedA, solvedB, count); break;
+		case OPP_ANG: TriangleBatchVectors.solveOppAng(knownA, knownB, solvedA, solvedB, count); break;
+		case ADJ_ANG: TriangleBatchVectors.solveAdjAng(knownA, knownB, solvedA, solvedB, count); break;
+		}
+		for(int k = 0; k < count; k++) {
+			int i = rowsByPair[from + k];
+			columnSolvedA[i] = solvedA[k];
+			columnSolvedB[i] = solvedB[k];
+		}
+	}
+
+	/**
+	 * @return true if the rows are solved with the Vector API, in which case the solved values may differ from the
+	 * TriangleSolver's in the last bits
+	 */
+	public static boolean isVectorized() {
+		return VECTORIZED;
+	}
+
+	/**
+	 * Increases the size of every column to the given capacity, keeping the existing rows.
+	 * @param newCapacity - number of rows the columns should have room for
+	 */
+	private void grow(int newCapacity) {
+		hyp = Arrays.copyOf(hyp, newCapacity);
+		opp = Arrays.copyOf(opp, newCapacity);
+		adj = Arrays.copyOf(adj, newCapacity);
+		ang = Arrays.copyOf(ang, newCapacity);
+		mask = Arrays.copyOf(mask, newCapacity);
+		valid = Arrays.copyOf(valid, newCapacity);
+		rowsByPair = new int[newCapacity];
+	}
+
+	/**
+	 * @return number of rows in the batch
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param row - index of the row
+	 * @return hypotenuse side length of the row (solved if solve() has been called)
+	 */
+	public double getHyp(int row) {
+		return hyp[checkRow(row)];
+	}
+
+	/**
+	 * @param row - index of the row
+	 * @return opposite side length of the row (solved if solve() has been called)
+	 */
+	public double getOpp(int row) {
+		return opp[checkRow(row)];
+	}
+
+	/**
+	 * @param row - index of the row
+	 * @return adjacent side length of the row (solved if solve() has been called)
+	 */
+	public double getAdj(int row) {
+		return adj[checkRow(row)];
+	}
+
+	/**
+	 * @param row - index of the row
+	 * @return angle theta of the row in the row's angle mode (solved if solve() has been called)
+	 */
+	public double getAng(int row) {
+		return ang[checkRow(row)];
+	}
+
+	/**
+	 * @param row - index of the row
+	 * @return mask of the row, made of the HYP, OPP, ADJ, ANG and DEGREES bits
+	 */
+	public int getMask(int row) {
+		return mask[checkRow(row)];
+	}
+
+	/**
+	 * @param row - index of the row
+	 * @return true if the row's angle is in degrees, otherwise false
+	 */
+	public boolean getDegreeMode(int row) {
+		return (mask[checkRow(row)] & DEGREES) != 0;
+	}
+
+	/**
+	 * @param row - index of the row
+	 * @return the combination of values the row is solved from, or null if less than two were given
+	 */
+	public KnownPair getKnownPair(int row) {
+		return PAIR_BY_MASK[mask[checkRow(row)] & 15];
+	}
+
+	/**
+	 * @param row - index of the row
+	 * @return true if the row was solved into a valid triangle, otherwise false (always false before solve())
+	 */
+	public boolean isValid(int row) {
+		return valid[checkRow(row)];
+	}
+
+	/**
+	 * Checks that the row is within the batch.
+	 * @param row - index of the row
+	 * @return the same index, if it is within the batch
+	 */
+	private int checkRow(int row) {
+		if(row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + " is outside of batch of size " + size);
+		return row;
+	}
+}
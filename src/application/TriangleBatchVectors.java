@@ -0,0 +1,116 @@
+package application;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The six solving loops of the TriangleBatch written with the Vector API, which solves as many rows at once as
+ * the processor's widest vectors hold doubles (8 with AVX-512). Each method reads two columns of known values and
+ * writes two columns of solved values, all holding the rows of one known pair next to each other from index 0.
+ * The formulas are the same as TriangleSolver.solve(), and the rows left over after the last full vector are
+ * solved with the Math library.
+ *
+ * The vector sin/cos/tan/asin/acos/atan are within 1 ulp of the exact result, but are not always the same double
+ * as the Math library's, so the values solved here may differ from the TriangleSolver's in the last bits.
+ *
+ * Only loaded if the jdk.incubator.vector module is present (see TriangleBatch.isVectorized()), as it can not
+ * be loaded without it.
+ */
+final class TriangleBatchVectors {
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/**
+	 * Private constructor, as this class only contains static methods.
+	 */
+	private TriangleBatchVectors() {
+	}
+
+	static void solveHypOpp(double[] hyp, double[] opp, double[] ang, double[] adj, int count) {
+		int i = 0;
+		for(; i < SPECIES.loopBound(count); i += SPECIES.length()) {
+			DoubleVector h = DoubleVector.fromArray(SPECIES, hyp, i), o = DoubleVector.fromArray(SPECIES, opp, i);
+			o.abs().div(h.abs()).lanewise(VectorOperators.ASIN).intoArray(ang, i);
+			h.mul(h).sub(o.mul(o)).sqrt().intoArray(adj, i);
+		}
+		for(; i < count; i++) {
+			double h = hyp[i], o = opp[i];
+			ang[i] = Math.asin(Math.abs(o)/Math.abs(h));
+			adj[i] = Math.sqrt(h*h - o*o);
+		}
+	}
+
+	static void solveHypAdj(double[] hyp, double[] adj, double[] ang, double[] opp, int count) {
+		int i = 0;
+		for(; i < SPECIES.loopBound(count); i += SPECIES.length()) {
+			DoubleVector h = DoubleVector.fromArray(SPECIES, hyp, i), a = DoubleVector.fromArray(SPECIES, adj, i);
+			a.abs().div(h.abs()).lanewise(VectorOperators.ACOS).intoArray(ang, i);
+			h.mul(h).sub(a.mul(a)).sqrt().intoArray(opp, i);
+		}
+		for(; i < count; i++) {
+			double h = hyp[i], a = adj[i];
+			ang[i] = Math.acos(Math.abs(a)/Math.abs(h));
+			opp[i] = Math.sqrt(h*h - a*a);
+		}
+	}
+
+	static void solveHypAng(double[] hyp, double[] ang, double[] opp, double[] adj, int count) {
+		int i = 0;
+		for(; i < SPECIES.loopBound(count); i += SPECIES.length()) {
+			DoubleVector h = DoubleVector.fromArray(SPECIES, hyp, i), t = DoubleVector.fromArray(SPECIES, ang, i);
+			h.mul(t.lanewise(VectorOperators.SIN)).intoArray(opp, i);
+			h.mul(t.lanewise(VectorOperators.COS)).intoArray(adj, i);
+		}
+		for(; i < count; i++) {
+			double h = hyp[i], t = ang[i];
+			opp[i] = h*Math.sin(t);
+			adj[i] = h*Math.cos(t);
+		}
+	}
+
+	static void solveOppAdj(double[] opp, double[] adj, double[] ang, double[] hyp, int count) {
+		int i = 0;
+		for(; i < SPECIES.loopBound(count); i += SPECIES.length()) {
+			DoubleVector o = DoubleVector.fromArray(SPECIES, opp, i), a = DoubleVector.fromArray(SPECIES, adj, i);
+			o.abs().div(a.abs()).lanewise(VectorOperators.ATAN).intoArray(ang, i);
+			a.mul(a).add(o.mul(o)).sqrt().intoArray(hyp, i);
+		}
+		for(; i < count; i++) {
+			double o = opp[i], a = adj[i];
+			ang[i] = Math.atan(Math.abs(o)/Math.abs(a));
+			hyp[i] = Math.sqrt(a*a + o*o);
+		}
+	}
+
+	static void solveOppAng(double[] opp, double[] ang, double[] adj, double[] hyp, int count) {
+		int i = 0;
+		for(; i < SPECIES.loopBound(count); i += SPECIES.length()) {
+			DoubleVector o = DoubleVector.fromArray(SPECIES, opp, i);
+			DoubleVector a = o.div(DoubleVector.fromArray(SPECIES, ang, i).lanewise(VectorOperators.TAN));
+			a.intoArray(adj, i);
+			a.mul(a).add(o.mul(o)).sqrt().intoArray(hyp, i);
+		}
+		for(; i < count; i++) {
+			double o = opp[i];
+			double a = o/Math.tan(ang[i]);
+			adj[i] = a;
+			hyp[i] = Math.sqrt(a*a + o*o);
+		}
+	}
+
+	static void solveAdjAng(double[] adj, double[] ang, double[] opp, double[] hyp, int count) {
+		int i = 0;
+		for(; i < SPECIES.loopBound(count); i += SPECIES.length()) {
+			DoubleVector a = DoubleVector.fromArray(SPECIES, adj, i);
+			DoubleVector o = a.mul(DoubleVector.fromArray(SPECIES, ang, i).lanewise(VectorOperators.TAN));
+			o.intoArray(opp, i);
+			a.mul(a).add(o.mul(o)).sqrt().intoArray(hyp, i);
+		}
+		for(; i < count; i++) {
+			double a = adj[i];
+			double o = a*Math.tan(ang[i]);
+			opp[i] = o;
+			hyp[i] = Math.sqrt(a*a + o*o);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package application;
+
+import java.util.Arrays;
+
+/**
+ * Creates triangles through a cache of previously created triangles, so that triangles created again with
+ * the same inputs are copied rather than validated and solved from scratch. Numeric triangles are cached
+ * by the parsed values of their inputs (so "5" and "5.00" share an entry), formula triangles by the text
+ * of their inputs. Triangles with invalid inputs are never cached.
+ *
+ * The cache holds up to triangle.cache.size triangles (1024 by default), and can be turned off with the
+ * system property triangle.cache=false or setEnabled(false), ie. for benchmarking construction.
+ */
+public final class TriangleCache {
+	private static final LruCache<Object, Entry> CACHE = new LruCache<Object, Entry>(Integer.getInteger("triangle.cache.size", 1024));
+	private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("triangle.cache"));
+
+	/**Parser used to normalize numeric inputs, one for each thread as the parser stores the value it parsed*/
+	private static final ThreadLocal<InputParser> PARSER = ThreadLocal.withInitial(InputParser::new);
+
+	/**
+	 * Private constructor, as this class only contains static methods.
+	 */
+	private TriangleCache() {
+	}
+
+	/**
+	 * Creates a Triangle or FormulaTriangle, copying a cached triangle with the same inputs if there is one.
+	 * The triangle returned is always a new object, so it can be changed without affecting the cache.
+	 * @param formula - true to create a FormulaTriangle, false for a numeric Triangle
+	 * @param inputHyp - value entered for hypotenuse side length
+	 * @param inputOpp - value entered for opposite side length
+	 * @param inputAdj - value entered for adjacent side length
+	 * @param inputAng - value entered for angle theta
+	 * @param angleModeDegrees - degree mode - true for degrees, false for radians
+	 * @param canvasWidth - width of the canvas the triangle will be displayed on
+	 * @param canvasHeight - height of the canvas the triangle will be displayed on
+	 * @return the new triangle, prepared for a canvas of the given size
+	 */
+	public static Triangle create(boolean formula, String inputHyp, String inputOpp, String inputAdj, String inputAng,
+			boolean angleModeDegrees, double canvasWidth, double canvasHeight) {
+		if(!enabled) return construct(formula, inputHyp, inputOpp, inputAdj, inputAng, angleModeDegrees, canvasWidth, canvasHeight);
+
+		Object key = formula ? new FormulaKey(inputHyp, inputOpp, inputAdj, inputAng, angleModeDegrees)
+				: NumericKey.of(inputHyp, inputOpp, inputAdj, inputAng, angleModeDegrees);
+		//inputs which are not valid numbers are left to the triangle to describe the error of
+		if(key == null) return construct(false, inputHyp, inputOpp, inputAdj, inputAng, angleModeDegrees, canvasWidth, canvasHeight);
+
+		Entry entry = CACHE.get(key);
+		if(entry == null) {
+			Triangle created = construct(formula, inputHyp, inputOpp, inputAdj, inputAng, angleModeDegrees, canvasWidth, canvasHeight);
+			//caching a copy, as the triangle returned may be changed by the caller
+			CACHE.put(key, new Entry(copy(created), canvasWidth, canvasHeight));
+			return created;
+		}
+
+		Triangle triangle = copy(entry.triangle);
+		if(!formula) {
+			//the inputs may be written differently to those of the cached triangle (ie. "5" rather than "5.00")
+			triangle.setInfo(InfoKey.HYPOTENUSE_INPUT, inputHyp);
+			triangle.setInfo(InfoKey.OPPOSITE_INPUT, inputOpp);
+			triangle.setInfo(InfoKey.ADJACENT_INPUT, inputAdj);
+			triangle.setInfo(InfoKey.ANGLE_INPUT, inputAng);
+		}
+		if(entry.canvasWidth != canvasWidth || entry.canvasHeight != canvasHeight) triangle.prepareForCanvas(canvasWidth, canvasHeight);
+		return triangle;
+	}
+
+	/**
+	 * Creates a triangle without using the cache.
+	 */
+	private static Triangle construct(boolean formula, String inputHyp, String inputOpp, String inputAdj, String inputAng,
+			boolean angleModeDegrees, double canvasWidth, double canvasHeight) {
+		if(formula) return new FormulaTriangle(inputHyp, inputOpp, inputAdj, inputAng, angleModeDegrees, canvasWidth, canvasHeight);
+		return new Triangle(inputHyp, inputOpp, inputAdj, inputAng, angleModeDegrees, canvasWidth, canvasHeight);
+	}
+
+	/**
+	 * @return a copy of the triangle of the same class
+	 */
+	private static Triangle copy(Triangle triangle) {
+		if(triangle instanceof FormulaTriangle) return new FormulaTriangle((FormulaTriangle) triangle);
+		return new Triangle(triangle);
+	}
+
+	/**
+	 * Turns the cache on or off. Turning the cache off also empties it.
+	 * @param enable - true to create triangles through the cache, false to always construct them
+	 */
+	public static void setEnabled(boolean enable) {
+		enabled = enable;
+		if(!enable) CACHE.clear();
+	}
+
+	/**
+	 * @return true if triangles are currently created through the cache
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return the cache of triangles, to read its hit, miss and eviction counters or to clear it
+	 */
+	public static LruCache<?, ?> getCache() {
+		return CACHE;
+	}
+
+	/**
+	 * Cached triangle, along with the size of canvas it was prepared for.
+	 */
+	private static final class Entry {
+		private final Triangle triangle;
+		private final double canvasWidth, canvasHeight;
+
+		private Entry(Triangle triangle, double canvasWidth, double canvasHeight) {
+			this.triangle = triangle;
+			this.canvasWidth = canvasWidth;
+			this.canvasHeight = canvasHeight;
+		}
+	}
+
+	/**
+	 * Key of a numeric triangle: the parsed value of each input (0 if empty) and the angle mode.
+	 */
+	private static final class NumericKey {
+		private final double hyp, opp, adj, ang;
+		private final boolean angleModeDegrees;
+
+		private NumericKey(double hyp, double opp, double adj, double ang, boolean angleModeDegrees) {
+			this.hyp = hyp;
+			this.opp = opp;
+			this.adj = adj;
+			this.ang = ang;
+			this.angleModeDegrees = angleModeDegrees;
+		}
+
+		/**
+		 * Normalizes the inputs into a key.
+		 * @return the key, or null if any input is not valid
+		 */
+		static NumericKey of(String inputHyp, String inputOpp, String inputAdj, String inputAng, boolean angleModeDegrees) {
+			InputParser parser = PARSER.get();
+			double hyp = parse(parser, InputField.HYPOTENUSE, inputHyp, angleModeDegrees);
+			double opp = parse(parser, InputField.OPPOSITE, inputOpp, angleModeDegrees);
+			double adj = parse(parser, InputField.ADJACENT, inputAdj, angleModeDegrees);
+			double ang = parse(parser, InputField.ANGLE, inputAng, angleModeDegrees);
+			if(Double.isNaN(hyp) || Double.isNaN(opp) || Double.isNaN(adj) || Double.isNaN(ang)) return null;
+			return new NumericKey(hyp, opp, adj, ang, angleModeDegrees);
+		}
+
+		/**
+		 * @return the parsed value of the input, 0 if it is empty, or NaN if it is not valid
+		 */
+		private static double parse(InputParser parser, InputField field, String input, boolean angleModeDegrees) {
+			if(input.isEmpty()) return 0;
+			return parser.parse(field, input, angleModeDegrees) == InputError.NONE ? parser.getValue() : Double.NaN;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if(!(other instanceof NumericKey)) return false;
+			NumericKey key = (NumericKey) other;
+			return Double.compare(hyp, key.hyp) == 0 && Double.compare(opp, key.opp) == 0
+					&& Double.compare(adj, key.adj) == 0 && Double.compare(ang, key.ang) == 0
+					&& angleModeDegrees == key.angleModeDegrees;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = Double.hashCode(hyp);
+			hash = hash * 31 + Double.hashCode(opp);
+			hash = hash * 31 + Double.hashCode(adj);
+			hash = hash * 31 + Double.hashCode(ang);
+			return hash * 2 + (angleModeDegrees ? 1 : 0);
+		}
+	}
+
+	/**
+	 * Key of a formula triangle: the text of each input and the angle mode.
+	 */
+	private static final class FormulaKey {
+		private final String[] inputs;
+		private final boolean angleModeDegrees;
+
+		private FormulaKey(String inputHyp, String inputOpp, String inputAdj, String inputAng, boolean angleModeDegrees) {
+			this.inputs = new String[] {inputHyp, inputOpp, inputAdj, inputAng};
+			this.angleModeDegrees = angleModeDegrees;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if(!(other instanceof FormulaKey)) return false;
+			FormulaKey key = (FormulaKey) other;
+			return angleModeDegrees == key.angleModeDegrees && Arrays.equals(inputs, key.inputs);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(inputs) * 2 + (angleModeDegrees ? 1 : 0);
+		}
+	}
+}
@@ -1,23 +1,124 @@
 package application;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 
 /**
- * Object class containing a list of Triangle objects and specialized 
+ * Object class containing a list of Triangle objects and specialized
  * methods to validate, manage, and perform operations on that list.
+ *
+ * Each triangle in the list is found through an identity map to its node, which links to the
+ * nodes before and after it, so finding the neighbours of a triangle takes constant time.
+ * Nodes are given increasing slots as they are added, and removed slots are counted in a
+ * Fenwick tree, so the index of a triangle (its slot minus the removed slots before it) and the
+ * triangle at an index are found in logarithmic time, or constant time if nothing was removed.
+ * Triangles are also indexed by their display values and angle mode, so a triangle which is the same
+ * as one already in the list can be found in constant time.
  */
 public class TriangleCatalog {
-	private ArrayList<Triangle> triangleList;
-	
+	/**Number of removed slots allowed before the slots are renumbered, if it is also more than the number of triangles*/
+	private static final int MIN_REMOVED_TO_COMPACT = 64;
+
+	private IdentityHashMap<Triangle, Node> nodes;
+	private Node first, last;
+
+	//a node with each display key, any other nodes with the same key are linked to it
+	private HashMap<DisplayKey, Node> nodesByDisplay;
+
+	//nodes by slot (null once removed), and the Fenwick tree counting the removed slots (1-based)
+	private Node[] slots;
+	private int[] removedTree;
+	private int slotCount, removedCount;
+
+	private ArrayList<Listener> listeners = new ArrayList<Listener>();
+
+	/**
+	 * Listener notified of every change made to the list, ie. to save or display the list as it changes.
+	 * Each method is called after the change has been made.
+	 */
+	interface Listener {
+		/**
+		 * @param triangle - the triangle added
+		 * @param index - index the triangle was added at (always the end of the list)
+		 */
+		void triangleAdded(Triangle triangle, int index);
+
+		/**
+		 * @param triangle - the triangle removed
+		 * @param index - index the triangle was at before it was removed
+		 */
+		void triangleRemoved(Triangle triangle, int index);
+
+		/**
+		 * @param previousSize - number of triangles in the list before it was cleared
+		 */
+		void catalogCleared(int previousSize);
+	}
+
 	/**
-	 * TriangleCatalog constructor. makes the list of triangle objects reference
-	 * a newly created instance of a Triangle ArrayList.
+	 * A triangle in the list, along with its slot and the nodes before and after it.
+	 */
+	private static final class Node {
+		final Triangle triangle;
+		final DisplayKey displayKey;
+		int slot;
+		Node previous, next;
+		Node previousSameDisplay, nextSameDisplay;
+
+		Node(Triangle triangle, int slot){
+			this.triangle = triangle;
+			this.displayKey = new DisplayKey(triangle);
+			this.slot = slot;
+		}
+	}
+
+	/**
+	 * The values of a triangle as displayed to the user (hyp, opp, adj and angle) and its angle mode.
+	 * Triangles with equal display keys look the same to the user.
+	 */
+	private static final class DisplayKey {
+		private final String hyp, opp, adj, ang;
+		private final boolean angleModeDegrees;
+		private final int hash;
+
+		DisplayKey(Triangle triangle){
+			hyp = triangle.getInfo(InfoKey.HYP);
+			opp = triangle.getInfo(InfoKey.OPP);
+			adj = triangle.getInfo(InfoKey.ADJ);
+			ang = triangle.getInfo(InfoKey.ANG);
+			angleModeDegrees = triangle.getDegreeMode();
+			hash = Objects.hash(hyp, opp, adj, ang, angleModeDegrees);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if(!(other instanceof DisplayKey)) return false;
+			DisplayKey key = (DisplayKey) other;
+			return hash == key.hash && angleModeDegrees == key.angleModeDegrees && Objects.equals(hyp, key.hyp)
+					&& Objects.equals(opp, key.opp) && Objects.equals(adj, key.adj) && Objects.equals(ang, key.ang);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * TriangleCatalog constructor. Creates an empty list of triangle objects.
 	 */
 	TriangleCatalog(){
-		triangleList = new ArrayList<Triangle>();
+		nodes = new IdentityHashMap<Triangle, Node>();
+		nodesByDisplay = new HashMap<DisplayKey, Node>();
+		slots = new Node[16];
+		removedTree = new int[slots.length + 1];
 	}
-	
+
 	/**
 	 * Returns the triangle object in the triangleList directly preceding the
 	 * one passed in as a parameter. If the current triangle is the first object in
@@ -26,61 +127,220 @@ public class TriangleCatalog {
 	 * @return the triangle object before the currentTriangle in the list if available, otherwise null
 	 */
 	Triangle getPreviousTriangle(Triangle currentTriangle){
-		//checking if the specified triangle is not the first object in the list
-		if (triangleList.indexOf(currentTriangle) > 0) {
-			return triangleList.get(triangleList.indexOf(currentTriangle)-1);
-		}
-		return null;
+		long start = Metrics.start();
+		Node node = nodes.get(currentTriangle);
+		//checking if the specified triangle is in the list and not the first object in the list
+		Triangle previous = node != null && node.previous != null ? node.previous.triangle : null;
+		Metrics.record(Metrics.CATALOG_PREVIOUS, start);
+		return previous;
 	}
-	
+
 	/**
 	 * Returns the triangle object in the triangleList directly succeeding the
 	 * one passed in as a parameter. If the current triangle is the last object in
-	 * the list, null will be returned.
+	 * the list, null will be returned. If the list does not contain the current triangle,
+	 * the first triangle in the list will be returned.
 	 * @param currentTriangle - the triangle to get the next in the list of.
 	 * @return the triangle object after the currentTriangle in the list if available, otherwise null
 	 */
 	Triangle getNextTriangle(Triangle currentTriangle){
+		long start = Metrics.start();
+		Node node = nodes.get(currentTriangle);
+		Triangle next;
+		//a triangle which is not in the list is treated as being before the first triangle
+		if(node == null) next = first == null ? null : first.triangle;
 		//checking if the specified triangle is not the last object in the list
-		if(triangleList.indexOf(currentTriangle) < triangleList.size()-1)
-			return triangleList.get(triangleList.indexOf(currentTriangle)+1);
-		return null;
+		else next = node.next == null ? null : node.next.triangle;
+		Metrics.record(Metrics.CATALOG_NEXT, start);
+		return next;
 	}
-	
+
 	/**
-	 * Adds the specified triangle object to the end of the list.
+	 * Adds the specified triangle object to the end of the list. A triangle object which is
+	 * already in the list is not added again.
 	 * @param triangleToAdd - triangle object to add to the list
 	 */
 	public void addTriangle(Triangle triangleToAdd){
-		triangleList.add(triangleToAdd);
+		if(nodes.containsKey(triangleToAdd)) return;
+		long start = Metrics.start();
+		FlightEvents.CatalogMutation event = new FlightEvents.CatalogMutation();
+		event.begin();
+
+		//making room for another slot, renumbering the slots first if enough of them were removed
+		if(slotCount == slots.length) {
+			if(removedCount > slots.length / 2) compact(slots.length);
+			else compact(slots.length * 2);
+		}
+
+		Node node = new Node(triangleToAdd, slotCount);
+		slots[slotCount++] = node;
+		node.previous = last;
+		if(last == null) first = node;
+		else last.next = node;
+		last = node;
+		nodes.put(triangleToAdd, node);
+
+		//indexing the node by its display values, linking it after the indexed node if one already has the same values
+		Node sameDisplay = nodesByDisplay.putIfAbsent(node.displayKey, node);
+		if(sameDisplay != null) {
+			node.previousSameDisplay = sameDisplay;
+			node.nextSameDisplay = sameDisplay.nextSameDisplay;
+			if(sameDisplay.nextSameDisplay != null) sameDisplay.nextSameDisplay.previousSameDisplay = node;
+			sameDisplay.nextSameDisplay = node;
+		}
+		//the listeners are not timed, as they are timed by what they do (ie. drawing)
+		Metrics.record(Metrics.CATALOG_ADD, start);
+		commit(event, "add", nodes.size() - 1);
+		for(int i = 0; i < listeners.size(); i++) listeners.get(i).triangleAdded(triangleToAdd, nodes.size() - 1);
 	}
-	
+
 	/**
 	 * Removes the specified triangle object from the list if the list contains the triangle.
 	 * @param triangleToRemove - triangle object to remove from the list
 	 */
 	public void removeTriangle(Triangle triangleToRemove) {
+		Node node = nodes.get(triangleToRemove);
 		//checking if the list contains the specified triangle
-		if(triangleList.contains(triangleToRemove)) {
-			triangleList.remove(triangleToRemove);
+		if(node == null) return;
+		long start = Metrics.start();
+		FlightEvents.CatalogMutation event = new FlightEvents.CatalogMutation();
+		event.begin();
+		//the index is only needed by listeners and the event, and must be found before the triangle is removed
+		int index = listeners.isEmpty() && !event.isEnabled() ? -1 : indexOf(node);
+		nodes.remove(triangleToRemove);
+
+		//linking the nodes on either side of the removed node to each other
+		if(node.previous == null) first = node.next;
+		else node.previous.next = node.next;
+		if(node.next == null) last = node.previous;
+		else node.next.previous = node.previous;
+
+		//removing the node from the display index. If it is the indexed node, the next node with the same values replaces it.
+		if(node.nextSameDisplay != null) node.nextSameDisplay.previousSameDisplay = node.previousSameDisplay;
+		if(node.previousSameDisplay != null) {
+			node.previousSameDisplay.nextSameDisplay = node.nextSameDisplay;
+		} else if(node.nextSameDisplay != null) {
+			nodesByDisplay.put(node.displayKey, node.nextSameDisplay);
+		} else {
+			nodesByDisplay.remove(node.displayKey);
 		}
+
+		//marking the slot as removed
+		slots[node.slot] = null;
+		for(int i = node.slot + 1; i < removedTree.length; i += i & -i) removedTree[i]++;
+		removedCount++;
+
+		//renumbering the slots once most of them are removed, so lookups stay fast and memory is freed
+		if(removedCount > MIN_REMOVED_TO_COMPACT && removedCount > nodes.size()) compact(slots.length);
+		Metrics.record(Metrics.CATALOG_REMOVE, start);
+		commit(event, "remove", index);
+		for(int i = 0; i < listeners.size(); i++) listeners.get(i).triangleRemoved(triangleToRemove, index);
 	}
-	
+
+	/**
+	 * Removes all triangle objects from the list.
+	 */
+	public void clear() {
+		FlightEvents.CatalogMutation event = new FlightEvents.CatalogMutation();
+		event.begin();
+		int previousSize = nodes.size();
+		nodes.clear();
+		nodesByDisplay.clear();
+		first = null;
+		last = null;
+		slots = new Node[16];
+		removedTree = new int[slots.length + 1];
+		slotCount = 0;
+		removedCount = 0;
+		commit(event, "clear", -1);
+		for(int i = 0; i < listeners.size(); i++) listeners.get(i).catalogCleared(previousSize);
+	}
+
+	/**
+	 * Commits the event of a change to the list, if it is being recorded.
+	 * @param event - event begun before the change
+	 * @param operation - name of the change (add, remove or clear)
+	 * @param index - index of the triangle added or removed, or -1
+	 */
+	private void commit(FlightEvents.CatalogMutation event, String operation, int index) {
+		if(!event.shouldCommit()) return;
+		event.operation = operation;
+		event.index = index;
+		event.sizeAfter = nodes.size();
+		event.commit();
+	}
+
+	/**
+	 * Adds a listener to notify of every change made to the list.
+	 * @param listenerToAdd - listener to notify
+	 */
+	void addListener(Listener listenerToAdd) {
+		listeners.add(listenerToAdd);
+	}
+
+	/**
+	 * Stops notifying a listener of changes made to the list.
+	 * @param listenerToRemove - listener to stop notifying
+	 */
+	void removeListener(Listener listenerToRemove) {
+		listeners.remove(listenerToRemove);
+	}
+
 	/**
 	 * Returns a reference to the triangle at the specified index in the list. If the
 	 * specified index is outside of the list, the first object in the list will be returned.
 	 * @param index - index in the list to retrieve a triangle object from
-	 * @return triangle object at the specified index of the list if available, otherwise 
+	 * @return triangle object at the specified index of the list if available, otherwise
 	 * the first triangle object in the list
+	 * @throws IndexOutOfBoundsException if the index is negative, or the list is empty
 	 */
 	public Triangle getTriangle(int index) {
+		long start = Metrics.start();
+		Triangle triangle = findTriangle(index);
+		Metrics.record(Metrics.CATALOG_GET, start);
+		return triangle;
+	}
+
+	/**
+	 * Finds the triangle at the specified index, the same way as getTriangle(int).
+	 */
+	private Triangle findTriangle(int index) {
+		int size = nodes.size();
 		//checking if the index is within the list
-		if(index < triangleList.size()) {
-			return triangleList.get(index);
+		if(index >= size) index = 0;
+		if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+
+		//without removed slots, every slot holds the triangle at that index
+		if(removedCount == 0) return slots[index].triangle;
+
+		//finding the slot with index+1 remaining slots up to and including it, searching down the Fenwick tree.
+		//Each node of the tree covers (i & -i) slots, and counts how many of them were removed.
+		int position = 0;
+		int remaining = index + 1;
+		for(int step = Integer.highestOneBit(removedTree.length - 1); step > 0; step >>= 1) {
+			int next = position + step;
+			if(next < removedTree.length && step - removedTree[next] < remaining) {
+				position = next;
+				remaining -= step - removedTree[next];
+			}
 		}
-		return triangleList.get(0);
+		return slots[position].triangle;
+	}
+
+	/**
+	 * Finds a triangle in the list which is displayed with the same side lengths, angle and angle mode
+	 * as the specified triangle. No triangles are copied or compared one by one.
+	 * @param triangle - triangle to find a duplicate of (which may or may not be in the list itself)
+	 * @return a triangle in the list with the same display values, other than the specified
+	 * triangle object, or null if there is none
+	 */
+	public Triangle findDuplicate(Triangle triangle) {
+		Node node = nodesByDisplay.get(new DisplayKey(triangle));
+		//the triangle itself is skipped, and is only linked once
+		if(node != null && node.triangle == triangle) node = node.nextSameDisplay;
+		return node == null ? null : node.triangle;
 	}
-	
+
 	/**
 	 * Returns the index of the specified triangle object within the list. If the list does not
 	 * contain the specified triangle, an index of 0 will be returned.
@@ -88,21 +348,60 @@ public class TriangleCatalog {
 	 * @return index of the specified triangle object in the list if available, otherwise 0
 	 */
 	public int getIndexInList(Triangle triangle) {
+		long start = Metrics.start();
+		Node node = nodes.get(triangle);
 		//checking if the list contains the specified triangle
-		if (triangleList.contains(triangle)) {
-			//counting up until the object at the index matches the specified triangle, then returns that index.
-			for(int i = 0; i < triangleList.size(); i++) {
-				if(triangleList.get(i) == triangle) return i;
-			}
-		}
-		return 0;
+		int index = node == null ? 0 : indexOf(node);
+		Metrics.record(Metrics.CATALOG_INDEX_OF, start);
+		return index;
+	}
+
+	/**
+	 * @param node - node in the list
+	 * @return index of the node's triangle in the list
+	 */
+	private int indexOf(Node node) {
+		if(removedCount == 0) return node.slot;
+
+		//the index is the slot minus the number of removed slots before it
+		int removedBefore = 0;
+		for(int i = node.slot; i > 0; i -= i & -i) removedBefore += removedTree[i];
+		return node.slot - removedBefore;
 	}
-	
+
 	/**
 	 * Returns the size of the list.
 	 * @return size of the triangleList within the TriangleCatalog object
 	 */
 	public int getListSize(){
-		return triangleList.size();
+		return nodes.size();
+	}
+
+	/**
+	 * Performs an action on every triangle in the list, in order, without looking each one up by its index.
+	 * @param action - action to perform on each triangle, which must not change the list
+	 */
+	void forEach(Consumer<? super Triangle> action) {
+		for(Node node = first; node != null; node = node.next) {
+			action.accept(node.triangle);
+		}
+	}
+
+	/**
+	 * Renumbers the slots of the triangles in the list from 0, removing the slots of removed triangles.
+	 * @param capacity - number of slots to make room for
+	 */
+	private void compact(int capacity) {
+		Node[] compacted = new Node[Math.max(capacity, 16)];
+		int slot = 0;
+		for(Node node = first; node != null; node = node.next) {
+			node.slot = slot;
+			compacted[slot++] = node;
+		}
+		slots = compacted;
+		slotCount = slot;
+		removedCount = 0;
+		if(removedTree.length == slots.length + 1) Arrays.fill(removedTree, 0);
+		else removedTree = new int[slots.length + 1];
 	}
 }
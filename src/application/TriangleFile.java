@@ -0,0 +1,405 @@
+package application;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads, writes and solves files of triangles stored as fixed-width binary records. Files are read and
+ * solved through memory mapped windows, and converted from CSV through a buffer of one window, so files
+ * larger than the heap can be streamed through without creating an object for each record.
+ *
+ * A file starts with a 16 byte header: the magic number "TRI1", a 2 byte version, 2 unused bytes and
+ * the 8 byte number of records. Each 40 byte record then holds the hyp, opp, adj and angle as doubles
+ * (0 if unknown), a mask byte made of the TriangleBatch bits plus SOLVED, an error code byte, and
+ * 6 unused bytes to keep the doubles of the next record aligned. All values are little-endian.
+ */
+public final class TriangleFile {
+	/**"TRI1" in ASCII, the first 4 bytes of every triangle file*/
+	public static final int MAGIC = 0x54524931;
+	public static final short VERSION = 1;
+	public static final int HEADER_BYTES = 16;
+	public static final int RECORD_BYTES = 40;
+
+	/**Bit of a record's mask set once the record has been solved*/
+	public static final int SOLVED = 32;
+
+	/**Error codes of a record. Input errors are stored as INPUT_ERROR with the field and InputError
+	 * ordinals in the lower bits, see errorCode().*/
+	public static final int ERROR_NONE = 0, ERROR_TWO_INPUTS = 1, ERROR_INVALID_TRIANGLE = 2,
+			ERROR_MALFORMED_ROW = 3, INPUT_ERROR = 0x80;
+
+	//offsets of the values within a record
+	private static final int HYP = 0, OPP = 8, ADJ = 16, ANG = 24, MASK = 32, ERROR = 33;
+
+	/**Number of records in each mapped window (40MB)*/
+	private static final int WINDOW_RECORDS = 1 << 20;
+
+	/**Number of records solved together in one TriangleBatch*/
+	private static final int BATCH_ROWS = 4096;
+
+	private static final InputField[] FIELDS = InputField.values();
+	private static final InputError[] INPUT_ERRORS = InputError.values();
+
+	/**
+	 * Private constructor, as this class only contains static methods.
+	 */
+	private TriangleFile() {
+	}
+
+	/**
+	 * @param field - the input field the error occurred in
+	 * @param error - the error found in the field
+	 * @return the error code storing both the field and the error
+	 */
+	public static int errorCode(InputField field, InputError error) {
+		if(error == InputError.NONE) return ERROR_NONE;
+		return INPUT_ERROR | field.ordinal() << 3 | error.ordinal();
+	}
+
+	/**
+	 * @param code - error code of a record
+	 * @return the error description shown to the user for the error code (empty string if there is no error)
+	 */
+	public static String describeError(int code) {
+		if((code & INPUT_ERROR) != 0) return INPUT_ERRORS[code & 7].describe(FIELDS[(code >> 3) & 3]);
+		switch(code) {
+			case ERROR_TWO_INPUTS: return TriangleSolver.TWO_INPUTS_DESCRIPTION;
+			case ERROR_INVALID_TRIANGLE: return TriangleSolver.INVALID_TRIANGLE_DESCRIPTION;
+			case ERROR_MALFORMED_ROW: return "Rows must have the columns hyp,opp,adj,angle,mode.";
+			default: return "";
+		}
+	}
+
+	/**
+	 * Solves every record of a triangle file, writing the solved records to a new triangle file in the same order.
+	 * Records which already have an error are copied as they are. The rest are checked with the same rules as
+	 * the GUI, then solved in batches.
+	 * @param input - triangle file to solve
+	 * @param output - triangle file to write the solved records to (replaced if it exists)
+	 * @return number of records solved
+	 * @throws IOException if reading the input or writing the output fails
+	 */
+	public static long solve(Path input, Path output) throws IOException {
+		try(FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.READ,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			long count = readHeader(in);
+			writeHeader(out, count);
+
+			TriangleBatch batch = new TriangleBatch(BATCH_ROWS);
+			int[] errors = new int[BATCH_ROWS];
+			int[] rowOfRecord = new int[BATCH_ROWS];
+			for(long first = 0; first < count; first += WINDOW_RECORDS) {
+				int records = (int) Math.min(WINDOW_RECORDS, count - first);
+				MappedByteBuffer from = map(in, FileChannel.MapMode.READ_ONLY, first, records);
+				MappedByteBuffer to = map(out, FileChannel.MapMode.READ_WRITE, first, records);
+				for(int start = 0; start < records; start += BATCH_ROWS) {
+					int end = Math.min(start + BATCH_ROWS, records);
+					solveRecords(from, to, start, end, batch, errors, rowOfRecord);
+				}
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Solves the records between start and end of one window.
+	 * @param errors - scratch array to hold the error code of each record
+	 * @param rowOfRecord - scratch array to hold the batch row of each record (-1 if not solved)
+	 */
+	private static void solveRecords(MappedByteBuffer from, MappedByteBuffer to, int start, int end,
+			TriangleBatch batch, int[] errors, int[] rowOfRecord) {
+		batch.clear();
+		for(int record = start; record < end; record++) {
+			int position = record * RECORD_BYTES;
+			int index = record - start;
+			double hyp = from.getDouble(position + HYP);
+			double opp = from.getDouble(position + OPP);
+			double adj = from.getDouble(position + ADJ);
+			double ang = from.getDouble(position + ANG);
+			int mask = from.get(position + MASK);
+			boolean degrees = (mask & TriangleBatch.DEGREES) != 0;
+			int error = from.get(position + ERROR) & 0xFF;
+
+			//records which were already solved are copied as they are, as all four of their values are now given
+			if((mask & SOLVED) != 0) {
+				errors[index] = error;
+				rowOfRecord[index] = -1;
+				continue;
+			}
+			if(error == ERROR_NONE) error = checkRecord(hyp, opp, adj, ang, degrees);
+			errors[index] = error;
+			rowOfRecord[index] = error == ERROR_NONE ? batch.add(hyp, opp, adj, ang, degrees) : -1;
+		}
+		batch.solve();
+
+		for(int record = start; record < end; record++) {
+			int position = record * RECORD_BYTES;
+			int index = record - start;
+			int row = rowOfRecord[index];
+			if(row < 0) {
+				//copying the record with its error, as it could not be solved
+				for(int offset = 0; offset < RECORD_BYTES; offset += 8) {
+					to.putLong(position + offset, from.getLong(position + offset));
+				}
+				to.put(position + ERROR, (byte) errors[index]);
+				continue;
+			}
+			putRecord(to, position, batch.getHyp(row), batch.getOpp(row), batch.getAdj(row), batch.getAng(row),
+					batch.getMask(row) | SOLVED, batch.isValid(row) ? ERROR_NONE : ERROR_INVALID_TRIANGLE);
+		}
+	}
+
+	/**
+	 * Checks that a record has exactly two values given, each within the range allowed for its field.
+	 * @return ERROR_NONE if the record can be solved, otherwise its error code (the last error found)
+	 */
+	private static int checkRecord(double hyp, double opp, double adj, double ang, boolean degrees) {
+		int inputs = (hyp != 0 ? 1 : 0) + (opp != 0 ? 1 : 0) + (adj != 0 ? 1 : 0) + (ang != 0 ? 1 : 0);
+		if(inputs != 2) return ERROR_TWO_INPUTS;
+		int error = ERROR_NONE;
+		if(hyp != 0) error = checkValue(InputField.HYPOTENUSE, hyp, degrees, error);
+		if(opp != 0) error = checkValue(InputField.OPPOSITE, opp, degrees, error);
+		if(adj != 0) error = checkValue(InputField.ADJACENT, adj, degrees, error);
+		if(ang != 0) error = checkValue(InputField.ANGLE, ang, degrees, error);
+		return error;
+	}
+
+	/**
+	 * @return the error code of the value if it is out of range, otherwise the previous error code
+	 */
+	private static int checkValue(InputField field, double value, boolean degrees, int previousError) {
+		InputError error = Double.isNaN(value) ? InputError.NO_DIGITS : InputError.checkRange(field, value, degrees);
+		return error == InputError.NONE ? previousError : errorCode(field, error);
+	}
+
+	/**
+	 * Converts a CSV file in the form used by the BulkSolver (hyp,opp,adj,angle,mode, optionally followed by
+	 * an error column which is ignored) into a triangle file of unsolved records. The mask of each record marks
+	 * the values that were given. Rows with invalid inputs are stored with their error code, and their given
+	 * values (NaN for those which are not a number).
+	 * @param input - reader of the CSV input. A first line starting with "hyp" is treated as a header.
+	 * @param output - triangle file to write (replaced if it exists)
+	 * @return number of records written
+	 * @throws IOException if reading the input or writing the output fails
+	 */
+	public static long fromCsv(BufferedReader input, Path output) throws IOException {
+		try(FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			InputParser parser = new InputParser();
+			int[] bounds = new int[BulkSolver.OUTPUT_COLUMNS * 2];
+			double[] values = new double[4];
+			//the records are written through a buffer rather than a mapped window, as the file can only be cut to the
+			//size of the records once no window of it is mapped (which can not be undone, and is required on Windows)
+			ByteBuffer to = ByteBuffer.allocateDirect(WINDOW_RECORDS * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			long count = 0;
+
+			String line = input.readLine();
+			if(line != null && line.regionMatches(true, 0, "hyp", 0, 3)) line = input.readLine();
+			for(; line != null; line = input.readLine()) {
+				if(line.isEmpty()) continue;
+				//writing the buffer once it is full
+				if(count > 0 && count % WINDOW_RECORDS == 0) writeRecords(out, to, count - WINDOW_RECORDS, WINDOW_RECORDS);
+
+				int error = BulkSolver.parseRow(line, parser, bounds, values);
+				int mask = 0;
+				if(error != ERROR_MALFORMED_ROW) {
+					if(BulkSolver.isDegrees(line, bounds)) mask |= TriangleBatch.DEGREES;
+					if(BulkSolver.isGiven(bounds, 0)) mask |= TriangleBatch.HYP;
+					if(BulkSolver.isGiven(bounds, 1)) mask |= TriangleBatch.OPP;
+					if(BulkSolver.isGiven(bounds, 2)) mask |= TriangleBatch.ADJ;
+					if(BulkSolver.isGiven(bounds, 3)) mask |= TriangleBatch.ANG;
+				}
+				putRecord(to, (int) (count % WINDOW_RECORDS) * RECORD_BYTES, values[0], values[1], values[2], values[3], mask, error);
+				count++;
+			}
+
+			//writing the records left in the buffer, so the file ends right after the last record
+			int buffered = (int) (count % WINDOW_RECORDS);
+			if(buffered == 0 && count > 0) buffered = WINDOW_RECORDS;
+			writeRecords(out, to, count - buffered, buffered);
+			writeHeader(out, count);
+			return count;
+		}
+	}
+
+	/**
+	 * Converts a triangle file into CSV in the same form as the output of the BulkSolver
+	 * (hyp,opp,adj,angle,mode,error), which it can also read back. Records solved without error are written
+	 * with all four values, other records with only the values that were given, and an empty error column
+	 * if they have no error.
+	 * @param input - triangle file to convert
+	 * @param output - writer that the CSV is written to
+	 * @return number of records converted
+	 * @throws IOException if reading the input or writing the output fails
+	 */
+	public static long toCsv(Path input, Writer output) throws IOException {
+		try(FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+			long count = readHeader(in);
+			StringBuilder row = new StringBuilder(128);
+			output.write(BulkSolver.OUTPUT_HEADER);
+			output.write('\n');
+			for(long first = 0; first < count; first += WINDOW_RECORDS) {
+				int records = (int) Math.min(WINDOW_RECORDS, count - first);
+				MappedByteBuffer from = map(in, FileChannel.MapMode.READ_ONLY, first, records);
+				for(int record = 0; record < records; record++) {
+					int position = record * RECORD_BYTES;
+					int mask = from.get(position + MASK);
+					int error = from.get(position + ERROR) & 0xFF;
+					boolean solved = (mask & SOLVED) != 0;
+
+					row.setLength(0);
+					//values which were not given are left empty, unless the record was solved without error
+					boolean allValues = solved && error == ERROR_NONE;
+					appendValue(row, from.getDouble(position + HYP), allValues || (mask & TriangleBatch.HYP) != 0).append(',');
+					appendValue(row, from.getDouble(position + OPP), allValues || (mask & TriangleBatch.OPP) != 0).append(',');
+					appendValue(row, from.getDouble(position + ADJ), allValues || (mask & TriangleBatch.ADJ) != 0).append(',');
+					appendValue(row, from.getDouble(position + ANG), allValues || (mask & TriangleBatch.ANG) != 0).append(',');
+					//malformed rows have no mode, the same as in the output of the BulkSolver
+					if(error != ERROR_MALFORMED_ROW) row.append((mask & TriangleBatch.DEGREES) != 0 ? "deg" : "rad");
+					row.append(',');
+					if(error != ERROR_NONE) row.append('"').append(describeError(error)).append('"');
+					output.append(row).append('\n');
+				}
+			}
+			output.flush();
+			return count;
+		}
+	}
+
+	/**
+	 * Appends a value of a record, or leaves it empty.
+	 * @param include - whether the value is written
+	 * @return the same StringBuilder
+	 */
+	private static StringBuilder appendValue(StringBuilder row, double value, boolean include) {
+		return include ? row.append(value) : row;
+	}
+
+	/**
+	 * Writes records from the start of a buffer into the file.
+	 * @param channel - channel of the triangle file
+	 * @param buffer - buffer holding the records from position 0
+	 * @param firstRecord - index in the file of the first record in the buffer
+	 * @param records - number of records to write
+	 */
+	private static void writeRecords(FileChannel channel, ByteBuffer buffer, long firstRecord, int records) throws IOException {
+		buffer.clear().limit(records * RECORD_BYTES);
+		long position = HEADER_BYTES + firstRecord * RECORD_BYTES;
+		while(buffer.hasRemaining()) position += channel.write(buffer, position);
+		buffer.clear();
+	}
+
+	/**
+	 * Writes one record into a mapped window or buffer.
+	 * @param to - window or buffer to write into
+	 * @param position - byte position of the record within the window
+	 */
+	private static void putRecord(ByteBuffer to, int position, double hyp, double opp, double adj, double ang,
+			int mask, int error) {
+		to.putDouble(position + HYP, hyp);
+		to.putDouble(position + OPP, opp);
+		to.putDouble(position + ADJ, adj);
+		to.putDouble(position + ANG, ang);
+		to.put(position + MASK, (byte) mask);
+		to.put(position + ERROR, (byte) error);
+		to.putShort(position + ERROR + 1, (short) 0);
+		to.putInt(position + ERROR + 3, 0);
+	}
+
+	/**
+	 * Maps a window of records of a triangle file.
+	 * @param channel - channel of the triangle file
+	 * @param mode - READ_ONLY or READ_WRITE (the file grows as needed to fit the window)
+	 * @param firstRecord - index of the first record in the window
+	 * @param records - number of records in the window
+	 * @return the mapped window, little-endian, with the first record at position 0
+	 * @throws IOException if the file can not be mapped
+	 */
+	private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long firstRecord, int records) throws IOException {
+		MappedByteBuffer window = channel.map(mode, HEADER_BYTES + firstRecord * RECORD_BYTES, (long) records * RECORD_BYTES);
+		window.order(ByteOrder.LITTLE_ENDIAN);
+		return window;
+	}
+
+	/**
+	 * Reads and checks the header of a triangle file.
+	 * @param channel - channel of the triangle file
+	 * @return number of records in the file
+	 * @throws IOException if the file is not a triangle file of this version, or is shorter than its header says
+	 */
+	private static long readHeader(FileChannel channel) throws IOException {
+		if(channel.size() < HEADER_BYTES) throw new IOException("File is too short to be a triangle file.");
+		MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+		header.order(ByteOrder.LITTLE_ENDIAN);
+		if(header.getInt(0) != MAGIC) throw new IOException("File is not a triangle file.");
+		if(header.getShort(4) != VERSION) throw new IOException("Unsupported triangle file version " + header.getShort(4) + ".");
+		long count = header.getLong(8);
+		if(count < 0 || channel.size() < HEADER_BYTES + count * RECORD_BYTES) {
+			throw new IOException("Triangle file is shorter than its " + count + " records.");
+		}
+		return count;
+	}
+
+	/**
+	 * Writes the header of a triangle file.
+	 * @param channel - channel of the triangle file
+	 * @param count - number of records in the file
+	 * @throws IOException if the header can not be written
+	 */
+	private static void writeHeader(FileChannel channel, long count) throws IOException {
+		MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+		header.order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(0, MAGIC);
+		header.putShort(4, VERSION);
+		header.putShort(6, (short) 0);
+		header.putLong(8, count);
+	}
+
+	/**
+	 * Converts or solves triangle files from the command line.
+	 * @param args - "fromcsv input.csv output.tri", "solve input.tri output.tri" or "tocsv input.tri output.csv"
+	 * @throws IOException if reading the input or writing the output fails
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 3) {
+			System.err.println("Usage: TriangleFile <fromcsv|solve|tocsv> <input> <output>");
+			return;
+		}
+		Path input = Paths.get(args[1]);
+		Path output = Paths.get(args[2]);
+		long start = System.nanoTime();
+		long records;
+		switch(args[0]) {
+			case "fromcsv":
+				try(BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+					records = fromCsv(reader, output);
+				}
+				break;
+			case "solve":
+				records = solve(input, output);
+				break;
+			case "tocsv":
+				try(BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+					records = toCsv(input, writer);
+				}
+				break;
+			default:
+				System.err.println("Unknown command " + args[0] + ".");
+				return;
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.err.printf("%s: %d records in %.2f s (%.0f records/s)%n", args[0], records, seconds, records / seconds);
+	}
+}
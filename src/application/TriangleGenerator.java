@@ -0,0 +1,255 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Generates random valid triangle inputs from a seed, so that the same seed always gives the same triangles.
+ * Inputs can be generated one at a time as text (as the "Add Random Triangle" button does), or as large
+ * TriangleBatches filled in parallel for driving the solver and the catalog under load. Parallel batches are
+ * each given their own SplittableRandom, split from the seed in batch order, so the batches are the same no
+ * matter how many threads fill them.
+ *
+ * By default, the inputs are the same as the GUI has always generated: two of the opposite, adjacent and
+ * angle fields, picked with equal chances, with sides between -10 and 10 and angles anywhere in the valid
+ * range, all rounded to 2 decimal places. Every generated input passes the same checks as text typed into
+ * the GUI (see InputError.checkRange()), and triangles given the hypotenuse always have legs shorter than it.
+ *
+ * The settings must not be changed while inputs are being generated.
+ */
+public class TriangleGenerator {
+	private static final KnownPair[] PAIRS = KnownPair.values();
+
+	private final SplittableRandom random;
+	/**Chance of each KnownPair being picked, added up in the order of KnownPair.values()*/
+	private final double[] cumulativeWeights = new double[PAIRS.length];
+	private double sideMin = -10, sideMax = 10;
+	private boolean angleModeDegrees = true;
+	private boolean roundToHundredths = true;
+
+	/**
+	 * TriangleGenerator constructor.
+	 * @param seed - seed of the random values; generators with the same seed and settings give the same inputs
+	 */
+	TriangleGenerator(long seed){
+		random = new SplittableRandom(seed);
+		setPairWeight(KnownPair.OPP_ADJ, 1);
+		setPairWeight(KnownPair.OPP_ANG, 1);
+		setPairWeight(KnownPair.ADJ_ANG, 1);
+	}
+
+	/**
+	 * Sets how likely a combination of known values is to be picked, compared to the other combinations.
+	 * @param pair - the combination of known values
+	 * @param weight - relative chance of the combination being picked (0 to never pick it)
+	 * @throws IllegalArgumentException if the weight is negative or not finite
+	 */
+	public void setPairWeight(KnownPair pair, double weight) {
+		if(!(weight >= 0) || Double.isInfinite(weight)) throw new IllegalArgumentException("Weight of " + pair + " can't be " + weight);
+		//turning the running totals back into weights, changing one, then adding them up again
+		double[] weights = new double[PAIRS.length];
+		for(int i = 0; i < PAIRS.length; i++) weights[i] = cumulativeWeights[i] - (i == 0 ? 0 : cumulativeWeights[i - 1]);
+		weights[pair.ordinal()] = weight;
+		double total = 0;
+		for(int i = 0; i < PAIRS.length; i++) {
+			total += weights[i];
+			cumulativeWeights[i] = total;
+		}
+	}
+
+	/**
+	 * Sets the range of the generated side lengths. Negative values are allowed for the opposite and adjacent
+	 * sides, as they are in the GUI, but the hypotenuse always uses the absolute value of the range.
+	 * @param min - smallest side length (inclusive)
+	 * @param max - largest side length (exclusive)
+	 * @throws IllegalArgumentException if the range is empty or does not contain any non-zero values
+	 */
+	public void setSideRange(double min, double max) {
+		if(!(min < max) || Double.isInfinite(min) || Double.isInfinite(max)) throw new IllegalArgumentException("Invalid side range " + min + " to " + max);
+		sideMin = min;
+		sideMax = max;
+	}
+
+	/**
+	 * Sets the angle mode of the generated angles. Angles are generated anywhere between 0 and 90 degrees
+	 * (or π/2 radians), not including either.
+	 * @param angleModeDegrees - degree mode - true for degrees, false for radians
+	 */
+	public void setAngleMode(boolean angleModeDegrees) {
+		this.angleModeDegrees = angleModeDegrees;
+	}
+
+	/**
+	 * @return angle mode of the generated angles - true for degrees, false for radians
+	 */
+	public boolean getAngleMode() {
+		return angleModeDegrees;
+	}
+
+	/**
+	 * Sets whether the generated values are rounded to 2 decimal places, the same as the text the GUI displays.
+	 * @param roundToHundredths - true to round the values, false to keep their full precision
+	 */
+	public void setRoundToHundredths(boolean roundToHundredths) {
+		this.roundToHundredths = roundToHundredths;
+	}
+
+	/**
+	 * Generates the inputs of one triangle as the text that would be typed into each input field.
+	 * @return the text of the hypotenuse, opposite, adjacent and angle fields, in that order (empty if not given)
+	 */
+	public String[] nextInputs() {
+		double[] values = new double[4];
+		next(random, values);
+		String[] inputs = new String[4];
+		for(int i = 0; i < 4; i++) {
+			inputs[i] = values[i] == 0 ? "" : roundToHundredths ? FixedPointFormat.format(values[i]) : Double.toString(values[i]);
+		}
+		return inputs;
+	}
+
+	/**
+	 * Adds the inputs of generated triangles to the end of a batch. The batch is not solved.
+	 * @param batch - the batch to add the triangles to
+	 * @param count - number of triangles to add
+	 */
+	public void fill(TriangleBatch batch, int count) {
+		fill(random, batch, count);
+	}
+
+	/**
+	 * Generates many batches of triangles in parallel, each generated from it's own random values split
+	 * from this generator's. The batches are solved if asked for, also in parallel.
+	 * @param pool - the pool to generate the batches on
+	 * @param batches - number of batches to generate
+	 * @param rowsPerBatch - number of triangles in each batch
+	 * @param solve - true to solve each batch once it is generated
+	 * @return the batches, in the same order every time for the same seed
+	 */
+	public TriangleBatch[] generate(ForkJoinPool pool, int batches, int rowsPerBatch, boolean solve) {
+		ArrayList<ForkJoinTask<TriangleBatch>> tasks = new ArrayList<ForkJoinTask<TriangleBatch>>(batches);
+		for(int i = 0; i < batches; i++) {
+			//splitting in order on this thread, so each batch gets the same random values whatever the scheduling
+			SplittableRandom batchRandom = random.split();
+			tasks.add(pool.submit(() -> {
+				TriangleBatch batch = new TriangleBatch(rowsPerBatch);
+				fill(batchRandom, batch, rowsPerBatch);
+				if(solve) batch.solve();
+				return batch;
+			}));
+		}
+		TriangleBatch[] generated = new TriangleBatch[batches];
+		for(int i = 0; i < batches; i++) generated[i] = tasks.get(i).join();
+		return generated;
+	}
+
+	/**
+	 * Adds generated triangles to a batch using the given random values.
+	 */
+	private void fill(SplittableRandom random, TriangleBatch batch, int count) {
+		double[] values = new double[4];
+		for(int i = 0; i < count; i++) {
+			next(random, values);
+			batch.add(values[0], values[1], values[2], values[3], angleModeDegrees);
+		}
+	}
+
+	/**
+	 * Generates the values of one triangle: two valid values, with 0 for the values to be solved for.
+	 * @param values - array to store the hypotenuse, opposite, adjacent and angle in
+	 */
+	private void next(SplittableRandom random, double[] values) {
+		values[0] = 0;
+		values[1] = 0;
+		values[2] = 0;
+		values[3] = 0;
+		KnownPair pair = nextPair(random);
+		double maxAngle = angleModeDegrees ? 90 : Math.PI / 2;
+		switch(pair) {
+		case HYP_OPP:
+			nextHypAndLeg(random, values, 1, InputField.OPPOSITE);
+			break;
+		case HYP_ADJ:
+			nextHypAndLeg(random, values, 2, InputField.ADJACENT);
+			break;
+		case HYP_ANG:
+			values[0] = nextHyp(random);
+			values[3] = nextValue(random, InputField.ANGLE, 0, maxAngle);
+			break;
+		case OPP_ADJ:
+			values[1] = nextValue(random, InputField.OPPOSITE, sideMin, sideMax);
+			values[2] = nextValue(random, InputField.ADJACENT, sideMin, sideMax);
+			break;
+		case OPP_ANG:
+			values[1] = nextValue(random, InputField.OPPOSITE, sideMin, sideMax);
+			values[3] = nextValue(random, InputField.ANGLE, 0, maxAngle);
+			break;
+		case ADJ_ANG:
+			values[2] = nextValue(random, InputField.ADJACENT, sideMin, sideMax);
+			values[3] = nextValue(random, InputField.ANGLE, 0, maxAngle);
+			break;
+		}
+	}
+
+	/**
+	 * Generates a hypotenuse and a leg shorter than it, even once both are rounded.
+	 * @param values - array to store the hypotenuse (index 0) and leg in
+	 * @param legIndex - index of the leg in the values
+	 * @param legField - input field of the leg
+	 */
+	private void nextHypAndLeg(SplittableRandom random, double[] values, int legIndex, InputField legField) {
+		//a hypotenuse too short to have any shorter leg once rounded (0.01) is never used
+		double minHyp = roundToHundredths ? 0.02 : 0;
+		for(int attempt = 0; attempt < 1000; attempt++) {
+			double hyp = nextHyp(random);
+			if(hyp < minHyp) continue;
+			double leg;
+			do {
+				leg = nextValue(random, legField, -hyp, hyp);
+			} while(Math.abs(leg) >= hyp);
+			values[0] = hyp;
+			values[legIndex] = leg;
+			return;
+		}
+		throw new IllegalStateException("No hypotenuse with a shorter leg found in the side range " + sideMin + " to " + sideMax);
+	}
+
+	/**
+	 * @return a random KnownPair, picked by the weight of each pair
+	 * @throws IllegalStateException if every pair has a weight of 0
+	 */
+	private KnownPair nextPair(SplittableRandom random) {
+		double total = cumulativeWeights[PAIRS.length - 1];
+		if(total == 0) throw new IllegalStateException("Every combination of known values has a weight of 0");
+		double picked = random.nextDouble(total);
+		//the pick is always under the total, so the last pair with any weight is always picked if no other pair is
+		int i = 0;
+		while(picked >= cumulativeWeights[i]) i++;
+		return PAIRS[i];
+	}
+
+	/**
+	 * @return a random hypotenuse, as long as the longest side of the range, which is always positive
+	 */
+	private double nextHyp(SplittableRandom random) {
+		double max = Math.max(Math.abs(sideMin), Math.abs(sideMax));
+		//using the part of the range above 0 if there is one, otherwise mirroring the negative range
+		double min = sideMin > 0 ? sideMin : sideMax < 0 ? -sideMax : 0;
+		return nextValue(random, InputField.HYPOTENUSE, min, max);
+	}
+
+	/**
+	 * Generates random values in the range until one is valid for the field (ie. not rounded to 0, or up to 90°).
+	 * @return a valid random value in the range
+	 */
+	private double nextValue(SplittableRandom random, InputField field, double min, double max) {
+		for(int attempt = 0; attempt < 1000; attempt++) {
+			double value = random.nextDouble(min, max);
+			if(roundToHundredths) value = Math.rint(value * 100) / 100;
+			if(InputError.checkRange(field, value, angleModeDegrees) == InputError.NONE) return value;
+		}
+		throw new IllegalStateException("No valid " + field + " found between " + min + " and " + max);
+	}
+}
@@ -0,0 +1,87 @@
+package application;
+
+/**
+ * Standalone solver for right triangles which works only with primitive values. Contains
+ * the trigonometry used by the Triangle class, without any of the work done to prepare a
+ * triangle for display on a canvas, so that triangles can be solved without JavaFX.
+ */
+public final class TriangleSolver {
+	/**Error description given to triangles which can not exist with the values that were given*/
+	public static final String INVALID_TRIANGLE_DESCRIPTION = "Opp. and Adj. can't be larger than or equal to Hyp.";
+	
+	/**Error description given when the number of values given is not exactly two*/
+	public static final String TWO_INPUTS_DESCRIPTION = "Enter values for two components.";
+
+	/**
+	 * Private constructor, as this class only contains static methods.
+	 */
+	private TriangleSolver() {
+	}
+
+	/**
+	 * Solves for the missing values of a right triangle using trigonometry.
+	 * Unknown parameters (entered as 0) will be solved for.
+	 * @param hyp - hypotenuse side length of the triangle
+	 * @param opp - opposite side length of the triangle
+	 * @param adj - adjacent side length of the triangle
+	 * @param ang - theta - angle between hypotenuse and adjacent side lengths
+	 * @param angleModeDegrees - degree mode (degrees if true, radians if false) of value entered for theta
+	 * @return immutable SolvedTriangle containing the solved values. Use SolvedTriangle.isValid()
+	 * to check if the given values could create a valid triangle.
+	 */
+	public static SolvedTriangle solve(double hyp, double opp, double adj, double ang, boolean angleModeDegrees) {
+		//determining whether it is necessary to change the angle given by the user to radians
+		//since the Math library trigonometric functions only works in radians
+		if(angleModeDegrees) ang = Math.toRadians(ang);
+
+		//finding which two values were given, then solving for the other two values.
+		KnownPair knownPair = KnownPair.of(hyp, opp, adj, ang);
+		if(knownPair != null) {
+			switch(knownPair) {
+			case HYP_OPP:
+				ang = Math.asin(Math.abs(opp)/Math.abs(hyp));
+				adj = Math.sqrt(hyp*hyp - opp*opp);
+				break;
+			case HYP_ADJ:
+				ang = Math.acos(Math.abs(adj)/Math.abs(hyp));
+				opp = Math.sqrt(hyp*hyp - adj*adj);
+				break;
+			case HYP_ANG:
+				opp = hyp*Math.sin(ang);
+				adj = hyp*Math.cos(ang);
+				break;
+			case OPP_ADJ:
+				ang = Math.atan(Math.abs(opp)/Math.abs(adj));
+				hyp = Math.sqrt(adj*adj + opp*opp);
+				break;
+			case OPP_ANG:
+				adj = opp/Math.tan(ang);
+				hyp = Math.sqrt(adj*adj + opp*opp);
+				break;
+			case ADJ_ANG:
+				opp = adj*Math.tan(ang);
+				hyp = Math.sqrt(adj*adj + opp*opp);
+				break;
+			}
+		}
+
+		//converting angle (back) into degrees if the user chose to calculate in degrees
+		if(angleModeDegrees) ang = Math.toDegrees(ang);
+
+		return new SolvedTriangle(hyp, opp, adj, ang, angleModeDegrees, knownPair);
+	}
+
+	/**
+	 * Checks if a solved triangle has valid side lengths and angle. 0 is not a valid side length,
+	 * and a NaN is calculated in cases where the given values can not create a valid triangle.
+	 * @param hyp - solved hypotenuse side length
+	 * @param opp - solved opposite side length
+	 * @param adj - solved adjacent side length
+	 * @param ang - solved angle theta
+	 * @return true if the triangle has valid side lengths/angle, otherwise false
+	 */
+	public static boolean isValid(double hyp, double opp, double adj, double ang) {
+		return !(Double.isNaN(hyp) || Double.isNaN(opp) || Double.isNaN(adj)
+				|| Double.isNaN(ang) || hyp == 0 || opp == 0 || adj == 0);
+	}
+}
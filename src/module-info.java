@@ -1,6 +1,13 @@
 module AlanYongProjectVMClone {
 	requires javafx.controls;
 	requires javafx.fxml;
+	requires java.desktop;
+	requires java.management;
+	requires jdk.jfr;
+	//only used if the program is started with --add-modules jdk.incubator.vector, see TriangleBatch
+	requires static jdk.incubator.vector;
 	
+	//the metrics are read through JMX, which needs access to their management interfaces
+	exports application to java.management;
 	opens application to javafx.graphics, javafx.fxml;
 }